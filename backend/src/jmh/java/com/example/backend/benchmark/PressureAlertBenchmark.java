@@ -0,0 +1,76 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.entity.PressureReading;
+import com.example.backend.service.impl.PressureAlertServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 压力告警基准：从submit到告警线程处理完毕的端到端吞吐量（读数/秒）
+ * 每次调用提交一批读数（每个消防栓若干条，时间递增），等全部处理完再返回；
+ * 约1%的消防栓压力偏低，其余在正常范围内小幅波动，与实际上报的分布接近
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PressureAlertBenchmark {
+    private static final int HYDRANTS = 10000;
+    private static final int BATCH = 100000; // 每次调用提交的读数条数
+    private static final long INTERVAL_MS = 10000; // 同一消防栓相邻读数的时间间隔
+
+    @Param({"1", "4"})
+    private int workers;
+
+    private PressureAlertServiceImpl service;
+    private PressureReading[] readings;
+    private long submitted; // 累计被接收的读数
+    private long round; // 已提交的轮数，用于生成递增的时间戳
+
+    @Setup
+    public void setup() {
+        service = new PressureAlertServiceImpl(workers, 65536, 64, 0.14, 1.0, 60000, 0.2,
+                1800000, 10, 0.0001, 600000, 600);
+        Random random = new Random(42);
+        readings = new PressureReading[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            int hydrantId = i % HYDRANTS + 1;
+            double base = hydrantId % 100 == 0 ? 0.1 : 0.3;
+            readings[i] = new PressureReading(hydrantId, 0, base + random.nextGaussian() * 0.01);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        service.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public long submit() {
+        // 上一批已处理完，告警线程不再持有这些对象，可以复用
+        long start = 1760000000000L + round * (BATCH / HYDRANTS) * INTERVAL_MS;
+        for (int i = 0; i < BATCH; i++) {
+            PressureReading reading = readings[i];
+            reading.setTs(start + (i / HYDRANTS) * INTERVAL_MS);
+            while (!service.submit(reading)) {
+                Thread.onSpinWait(); // 队列满时等待告警线程处理，不丢读数
+            }
+        }
+        round++;
+        submitted += BATCH;
+        while (processed() < submitted) {
+            LockSupport.parkNanos(20_000);
+        }
+        return submitted;
+    }
+
+    private long processed() {
+        return ((Number) service.getStatus().get("processed")).longValue();
+    }
+}
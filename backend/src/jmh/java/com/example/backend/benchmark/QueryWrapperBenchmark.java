@@ -0,0 +1,44 @@
+package com.example.backend.benchmark;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.example.backend.entity.SysUser;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * QueryWrapper构建基准：与SysUserServiceImpl中登录、分页使用的条件相同，并生成SQL片段
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueryWrapperBenchmark {
+
+    @Benchmark
+    public String loginWrapper() {
+        QueryWrapper<SysUser> queryWrapper = new QueryWrapper<>();
+        queryWrapper.eq("name", "admin");
+        queryWrapper.eq("password", "123456");
+        return queryWrapper.getCustomSqlSegment();
+    }
+
+    @Benchmark
+    public String pageWrapper() {
+        QueryWrapper<SysUser> queryWrapper = new QueryWrapper<>();
+        queryWrapper.orderByAsc("\"id\"");
+        return queryWrapper.getCustomSqlSegment();
+    }
+
+    @Benchmark
+    public String cursorWrapper() {
+        QueryWrapper<SysUser> queryWrapper = new QueryWrapper<>();
+        queryWrapper.like(true, "name", "user");
+        queryWrapper.gt("\"id\"", 1000);
+        queryWrapper.orderByAsc("\"id\"");
+        queryWrapper.last("LIMIT 11");
+        return queryWrapper.getCustomSqlSegment();
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.entity.SysUser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 序列化基准：SysUser分页数据和SysUserController的HashMap响应结构
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private List<SysUser> records;
+
+    @Setup
+    public void setup() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build(); // 与Spring Boot默认配置接近
+        records = new ArrayList<>();
+        for (int i = 1; i <= pageSize; i++) {
+            SysUser user = new SysUser();
+            user.setId(i);
+            user.setName("user" + i);
+            user.setPassword("123456");
+            user.setSex("男");
+            user.setBirthDate(new Date());
+            user.setDepartment("信息中心");
+            user.setTelephone("13800000000");
+            user.setEmail("user" + i + "@example.com");
+            user.setRole("USER");
+            user.setCreateTime(new Date());
+            records.add(user);
+        }
+    }
+
+    @Benchmark
+    public byte[] serializeRecords() throws Exception {
+        return objectMapper.writeValueAsBytes(records);
+    }
+
+    // 与SysUserController.getUserPage相同的响应结构
+    @Benchmark
+    public byte[] serializePageEnvelope() throws Exception {
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 200);
+        result.put("message", "查询成功");
+        result.put("data", records);
+        result.put("total", 1000L);
+        result.put("pages", 100L);
+        result.put("current", 1L);
+        result.put("size", (long) pageSize);
+        return objectMapper.writeValueAsBytes(result);
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.backend.benchmark;
+
+import com.example.backend.interceptor.TokenInterceptor;
+import com.example.backend.utils.JwtUtils;
+import com.example.backend.utils.TokenVerifier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TokenInterceptor基准：Cookie查找和完整的preHandle
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TokenInterceptorBenchmark {
+    private TokenInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setup() {
+        JwtUtils jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secret", "your-very-long-secret-key-should-be-at-least-32-chars");
+        ReflectionTestUtils.setField(jwtUtils, "expire", 7200000L);
+        jwtUtils.init();
+        TokenVerifier tokenVerifier = new TokenVerifier();
+        ReflectionTestUtils.setField(tokenVerifier, "jwtUtils", jwtUtils);
+        ReflectionTestUtils.setField(tokenVerifier, "maxSize", 10000);
+        interceptor = new TokenInterceptor();
+        ReflectionTestUtils.setField(interceptor, "tokenVerifier", tokenVerifier);
+        ReflectionTestUtils.setField(interceptor, "meterRegistry", new SimpleMeterRegistry());
+        interceptor.initMetrics();
+        request = new MockHttpServletRequest("GET", "/api/users/page");
+        // 模拟浏览器携带的其他Cookie，Token放在最后
+        request.setCookies(new Cookie("JSESSIONID", "0123456789ABCDEF"), new Cookie("theme", "dark"),
+                new Cookie("locale", "zh-CN"), new Cookie(JwtUtils.COOKIE_NAME, jwtUtils.generateToken("admin")));
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public String cookieScan() {
+        return TokenInterceptor.getToken(request);
+    }
+
+    @Benchmark
+    public boolean preHandle() throws Exception {
+        return interceptor.preHandle(request, response, null);
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.backend.config;
+
+import com.example.backend.utils.BulkheadDataSource;
+import com.example.backend.utils.DbBulkhead;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "db.bulkhead.enabled", havingValue = "true", matchIfMissing = true)
+public class BulkheadConfig {
+    // 数据库隔离舱，许可数默认与HikariCP连接池大小一致
+    @Bean
+    public DbBulkhead dbBulkhead(@Value("${db.bulkhead.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+                                 @Value("${db.bulkhead.max-queue:50}") int maxQueue,
+                                 @Value("${db.bulkhead.max-wait-ms:200}") long maxWaitMillis,
+                                 MeterRegistry meterRegistry) {
+        return new DbBulkhead(permits, maxQueue, maxWaitMillis, meterRegistry);
+    }
+
+    // 把容器中的数据源包装成带隔离舱的数据源
+    @Bean
+    public static BeanPostProcessor bulkheadDataSourcePostProcessor(ObjectProvider<DbBulkhead> dbBulkhead) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof BulkheadDataSource)) {
+                    return new BulkheadDataSource(dataSource, dbBulkhead.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.backend.config;
+
+import com.example.backend.interceptor.ConditionalGetInterceptor;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Map;
+
+/**
+ * 条件GET的ETag输出
+ * 只有处理成功（HTTP状态2xx且返回结果的code为200）时才写出ConditionalGetInterceptor生成的ETag，
+ * 否则禁止缓存，避免把一次失败的结果缓存下来并在之后一直协商为304
+ */
+@RestControllerAdvice
+public class ConditionalGetAdvice implements ResponseBodyAdvice<Object> {
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return body;
+        }
+        Object etag = servletRequest.getServletRequest().getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+        if (etag == null) {
+            return body;
+        }
+        HttpHeaders headers = response.getHeaders();
+        if (isSuccess(body, response)) {
+            headers.setETag(etag.toString());
+            // 允许浏览器缓存，但每次使用前都要协商（接口自己设置了Cache-Control时以接口为准）
+            if (!headers.containsKey(HttpHeaders.CACHE_CONTROL)) {
+                headers.setCacheControl("no-cache");
+            }
+        } else {
+            headers.setCacheControl("no-store");
+        }
+        return body;
+    }
+
+    private static boolean isSuccess(Object body, ServerHttpResponse response) {
+        if (response instanceof ServletServerHttpResponse servletResponse) {
+            int status = servletResponse.getServletResponse().getStatus();
+            if (status < 200 || status >= 300) {
+                return false;
+            }
+        }
+        return !(body instanceof Map<?, ?> map) || !map.containsKey("code") || Integer.valueOf(200).equals(map.get("code"));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.backend.config;
+
+import com.example.backend.utils.BulkheadDataSource;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.MethodParameter;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 过载保护
+ * 请求在数据库隔离舱被拒绝时，统一返回503和Retry-After，让客户端稍后重试
+ */
+@RestControllerAdvice
+public class LoadSheddingAdvice implements ResponseBodyAdvice<Object> {
+    @Value("${db.bulkhead.retry-after-seconds:1}")
+    private int retryAfterSeconds;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    // 控制器自己捕获了异常并返回了结果，这里根据请求标记改写为503
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest) || !isRejected(servletRequest.getServletRequest())) {
+            return body;
+        }
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        return body instanceof Map ? busyBody() : body;
+    }
+
+    // 异常没有被控制器捕获（例如瓦片接口）
+    @ExceptionHandler(DataAccessException.class)
+    public ResponseEntity<Map<String, Object>> handleDataAccess(DataAccessException e, HttpServletRequest request) {
+        if (!isRejected(request)) {
+            throw e;
+        }
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(busyBody());
+    }
+
+    private boolean isRejected(HttpServletRequest request) {
+        return Boolean.TRUE.equals(request.getAttribute(BulkheadDataSource.REJECTED_ATTRIBUTE));
+    }
+
+    private Map<String, Object> busyBody() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 503);
+        result.put("message", "服务繁忙，请稍后重试");
+        return result;
+    }
+}
@@ -3,6 +3,9 @@ package com.example.backend.config;
 import com.baomidou.mybatisplus.annotation.DbType;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.example.backend.interceptor.SqlTimingInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -16,4 +19,11 @@ public class MyBatisPlusConfig {
         interceptor.addInnerInterceptor(new PaginationInnerInterceptor(DbType.POSTGRE_SQL));
         return interceptor;
     }
+
+    // 注册SQL耗时插件
+    @Bean
+    public SqlTimingInterceptor sqlTimingInterceptor(MeterRegistry meterRegistry,
+                                                     @Value("${mybatis.slow-query-ms:200}") long slowQueryMillis) {
+        return new SqlTimingInterceptor(meterRegistry, slowQueryMillis);
+    }
 }
@@ -0,0 +1,65 @@
+package com.example.backend.config;
+
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 原生镜像运行时提示
+ * AOT处理（mvn -P aot / -P native）时执行，运行时不产生开销：
+ * 实体类由MyBatis-Plus反射读取字段和getter/setter，Mapper接口由MyBatis生成JDK动态代理，
+ * 实体类和vo类由Jackson序列化（接口返回Map，AOT无法从方法签名推断出这些类型）
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+public class NativeHintsConfig {
+    private static final String BASE_PACKAGE = "com.example.backend";
+
+    static class Hints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            BindingReflectionHintsRegistrar binding = new BindingReflectionHintsRegistrar();
+            for (Class<?> entity : scan(BASE_PACKAGE + ".entity", classLoader)) {
+                hints.reflection().registerType(entity, MemberCategory.values());
+                binding.registerReflectionHints(hints.reflection(), entity);
+            }
+            for (Class<?> mapper : scan(BASE_PACKAGE + ".mapper", classLoader)) {
+                hints.reflection().registerType(mapper, MemberCategory.INVOKE_PUBLIC_METHODS);
+                hints.proxies().registerJdkProxy(mapper);
+            }
+            for (Class<?> vo : scan(BASE_PACKAGE + ".vo", classLoader)) {
+                binding.registerReflectionHints(hints.reflection(), vo);
+            }
+            // MyBatis XML映射文件（mybatis-plus.mapper-locations）
+            hints.resources().registerPattern("mapper/*.xml");
+        }
+    }
+
+    // 列出包下的全部类（含接口和内部类），只在AOT处理时调用
+    static List<Class<?>> scan(String packageName, ClassLoader classLoader) {
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+        MetadataReaderFactory readerFactory = new CachingMetadataReaderFactory(resolver);
+        List<Class<?>> classes = new ArrayList<>();
+        try {
+            for (Resource resource : resolver.getResources("classpath*:" + ClassUtils.convertClassNameToResourcePath(packageName) + "/*.class")) {
+                String className = readerFactory.getMetadataReader(resource).getClassMetadata().getClassName();
+                classes.add(ClassUtils.forName(className, classLoader));
+            }
+        } catch (IOException | ClassNotFoundException e) {
+            throw new IllegalStateException("扫描" + packageName + "失败：" + e.getMessage(), e);
+        }
+        return classes;
+    }
+}
@@ -1,4 +1,5 @@
 package com.example.backend.config;
+import com.example.backend.interceptor.ConditionalGetInterceptor;
 import com.example.backend.interceptor.TokenInterceptor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -13,6 +14,11 @@ public class WebConfig implements WebMvcConfigurer {
         return new TokenInterceptor();
     }
 
+    @Bean
+    public ConditionalGetInterceptor conditionalGetInterceptor() {
+        return new ConditionalGetInterceptor();
+    }
+
     // 配置CORS
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -30,5 +36,8 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addInterceptor(tokenInterceptor())
                 .addPathPatterns("/**")
                 .excludePathPatterns("/users/login", "/users/register");
+        // 条件GET：在Token校验之后执行，未登录的请求不会得到304
+        registry.addInterceptor(conditionalGetInterceptor())
+                .addPathPatterns("/api/**");
     }
 }
@@ -0,0 +1,65 @@
+package com.example.backend.controller;
+
+import com.example.backend.service.PressureAlertService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 压力告警控制器
+ * 告警由上报的压力读数实时计算，这里只查询结果
+ */
+@RestController
+@RequestMapping("/api/alerts")
+@CrossOrigin
+public class AlertController {
+    @Autowired
+    private PressureAlertService pressureAlertService;
+
+    /**
+     * 当前未恢复的告警
+     * GET http://localhost:8080/api/alerts/active
+     * @return 告警列表，rule为low/high/change/stuck，按触发时间倒序
+     */
+    @GetMapping("/active")
+    public Map<String, Object> getActive() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 200);
+        result.put("message", "查询成功");
+        result.put("data", pressureAlertService.getActive());
+        return result;
+    }
+
+    /**
+     * 最近产生的告警（含已恢复的，resolvedTs为恢复时间）
+     * GET http://localhost:8080/api/alerts/recent?limit=100
+     */
+    @GetMapping("/recent")
+    public Map<String, Object> getRecent(@RequestParam(defaultValue = "100") int limit) {
+        Map<String, Object> result = new HashMap<>();
+        if (limit <= 0) {
+            result.put("code", 400);
+            result.put("message", "参数错误");
+            return result;
+        }
+        result.put("code", 200);
+        result.put("message", "查询成功");
+        result.put("data", pressureAlertService.getRecent(limit));
+        return result;
+    }
+
+    /**
+     * 运行状态（队列深度、处理数量、乱序/丢弃数量、产生/抑制的告警数量）
+     * GET http://localhost:8080/api/alerts/status
+     */
+    @GetMapping("/status")
+    public Map<String, Object> getStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 200);
+        result.put("message", "查询成功");
+        result.put("data", pressureAlertService.getStatus());
+        return result;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.backend.controller;
+
+import com.example.backend.service.ClusterSyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 集群控制器
+ * 查看本实例与其他实例之间的变更同步状态
+ */
+@RestController
+@RequestMapping("/api/cluster")
+@CrossOrigin
+public class ClusterController {
+    @Autowired
+    private ClusterSyncService clusterSyncService;
+
+    /**
+     * 同步状态（是否启用、是否连接、最后处理的事件序号、发送/接收数量）
+     * GET http://localhost:8080/api/cluster/status
+     */
+    @GetMapping("/status")
+    public Map<String, Object> getStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 200);
+        result.put("message", "查询成功");
+        result.put("data", clusterSyncService.getStatus());
+        return result;
+    }
+}
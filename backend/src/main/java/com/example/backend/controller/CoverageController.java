@@ -0,0 +1,100 @@
+package com.example.backend.controller;
+
+import com.example.backend.entity.Building;
+import com.example.backend.interceptor.VersionedResource;
+import com.example.backend.service.ClusterSyncService;
+import com.example.backend.service.CoverageService;
+import com.example.backend.utils.ResourceVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 覆盖分析控制器
+ * 提供建筑物消防栓覆盖率和未覆盖建筑物列表，供仪表盘展示
+ */
+@RestController
+@RequestMapping("/api/coverage")
+@CrossOrigin
+public class CoverageController {
+    @Autowired
+    private CoverageService coverageService;
+    @Autowired
+    private ClusterSyncService clusterSyncService;
+    @Value("${coverage.max-radius-m:1000}")
+    private double maxRadius; // 覆盖半径上限（米），过大的半径会让每栋建筑都查询大量消防栓
+
+    /**
+     * 覆盖率汇总
+     * GET http://localhost:8080/api/coverage/summary
+     */
+    @VersionedResource({ResourceVersions.HYDRANTS, ResourceVersions.BUILDINGS, ResourceVersions.COVERAGE})
+    @GetMapping("/summary")
+    public Map<String, Object> getSummary() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 200);
+        result.put("message", "查询成功");
+        result.put("data", coverageService.getSummary());
+        return result;
+    }
+
+    /**
+     * 未被覆盖的建筑物列表
+     * GET http://localhost:8080/api/coverage/uncovered
+     */
+    @VersionedResource({ResourceVersions.HYDRANTS, ResourceVersions.BUILDINGS, ResourceVersions.COVERAGE})
+    @GetMapping("/uncovered")
+    public Map<String, Object> getUncovered() {
+        Map<String, Object> result = new HashMap<>();
+        List<Building> uncovered = coverageService.getUncovered();
+        result.put("code", 200);
+        result.put("message", "查询成功");
+        result.put("data", uncovered);
+        return result;
+    }
+
+    /**
+     * 修改覆盖半径并重新计算
+     * POST http://localhost:8080/api/coverage/radius?radius=120
+     */
+    @PostMapping("/radius")
+    public Map<String, Object> setRadius(@RequestParam double radius) {
+        Map<String, Object> result = new HashMap<>();
+        // NaN与任何数比较都为false，需要用!(radius > 0)排除
+        if (!(radius > 0) || !Double.isFinite(radius) || radius > maxRadius) {
+            result.put("code", 400);
+            result.put("message", "参数错误：半径应大于0且不超过" + maxRadius + "米");
+            return result;
+        }
+        coverageService.setRadius(radius);
+        clusterSyncService.publish(ResourceVersions.COVERAGE, String.valueOf(radius)); // 其他节点使用相同半径
+        result.put("code", 200);
+        result.put("message", "计算完成");
+        result.put("data", coverageService.getSummary());
+        return result;
+    }
+
+    /**
+     * 建筑物图层编辑后重新加载并计算
+     * POST http://localhost:8080/api/coverage/reload
+     */
+    @PostMapping("/reload")
+    public Map<String, Object> reload() {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            coverageService.reloadBuildings();
+            clusterSyncService.publish(ResourceVersions.BUILDINGS, null);
+            result.put("code", 200);
+            result.put("message", "计算完成");
+            result.put("data", coverageService.getSummary());
+        } catch (Exception e) {
+            result.put("code", 500);
+            result.put("message", "加载失败：" + e.getMessage());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backend.controller;
+
+import com.example.backend.interceptor.VersionedResource;
+import com.example.backend.service.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 图层导出控制器
+ * 以流的方式输出GeoJSON，边查询边写出，支持gzip压缩
+ */
+@RestController
+@RequestMapping("/api/export")
+@CrossOrigin
+public class ExportController {
+    @Autowired
+    private ExportService exportService;
+
+    /**
+     * 导出图层为GeoJSON
+     * GET http://localhost:8080/api/export/sdjzdx_FireHydranty_Point?bbox=117.0,36.6,117.2,36.7&currentStatus=normal
+     * @param layer 图层名称
+     * @param params bbox为EPSG:4326经纬度范围；与图层字段同名的参数作为等值过滤条件，其他参数忽略
+     */
+    @VersionedResource("layer:{layer}")
+    @GetMapping("/{layer}")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String layer,
+                                                        @RequestParam Map<String, String> params,
+                                                        HttpServletRequest request) {
+        if (!exportService.isLayerAllowed(layer)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        Map<String, String> others = new HashMap<>(params);
+        String bboxParam = others.remove("bbox");
+        double[] bbox = null;
+        if (bboxParam != null) {
+            String[] parts = bboxParam.split(",");
+            if (parts.length != 4) {
+                return ResponseEntity.badRequest().build();
+            }
+            bbox = new double[4];
+            try {
+                for (int i = 0; i < 4; i++) {
+                    bbox[i] = Double.parseDouble(parts[i].trim());
+                }
+            } catch (NumberFormatException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        Map<String, String> filters;
+        try {
+            filters = exportService.resolveFilters(layer, others);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        boolean gzip = TilesetController.accepts(acceptEncoding, "gzip");
+        double[] finalBbox = bbox;
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                GZIPOutputStream gzipOut = new GZIPOutputStream(out, 8192);
+                exportService.writeGeoJson(layer, finalBbox, filters, gzipOut);
+                gzipOut.finish();
+            } else {
+                exportService.writeGeoJson(layer, finalBbox, filters, out);
+            }
+        };
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/geo+json"))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(body);
+    }
+}
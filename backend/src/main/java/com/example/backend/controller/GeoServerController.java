@@ -0,0 +1,109 @@
+package com.example.backend.controller;
+
+import com.example.backend.interceptor.VersionedResource;
+import com.example.backend.service.GeoServerProxyService;
+import com.example.backend.vo.LayerFeatures;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * GeoServer代理控制器
+ * 前端的WFS GetFeature和WFS-T请求改由后端转发，同一图层的并发请求合并、结果缓存，编辑后缓存自动失效
+ */
+@RestController
+@RequestMapping("/api/geoserver")
+@CrossOrigin
+public class GeoServerController {
+    @Autowired
+    private GeoServerProxyService geoServerProxyService;
+
+    /**
+     * 获取图层全部要素（GeoJSON，要素ID已去掉图层名前缀）
+     * GET http://localhost:8080/api/geoserver/sdjzdx_FireHydranty_Point/features
+     * @return 接受gzip时直接发送缓存的压缩内容；GeoServer不可用时返回502
+     */
+    @VersionedResource("layer:{layer}")
+    @GetMapping("/{layer}/features")
+    public ResponseEntity<byte[]> getFeatures(@PathVariable String layer, HttpServletRequest request) throws IOException {
+        if (!geoServerProxyService.isLayerAllowed(layer)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        LayerFeatures features;
+        try {
+            features = geoServerProxyService.getFeatures(layer);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        }
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (TilesetController.accepts(request.getHeader(HttpHeaders.ACCEPT_ENCODING), "gzip")) {
+            return builder.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(features.getGzip());
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(features.getGzip()))) {
+            return builder.body(in.readAllBytes());
+        }
+    }
+
+    /**
+     * 转发WFS-T事务，涉及图层的缓存随之失效，消防栓、道路、建筑物数据同步更新
+     * POST http://localhost:8080/api/geoserver/wfs
+     * 请求体：<wfs:Transaction service="WFS" version="1.0.0" ...>...</wfs:Transaction>
+     * @return GeoServer的事务响应；请求不合法时返回400，GeoServer不可用时返回502
+     */
+    @PostMapping(value = "/wfs", consumes = {MediaType.TEXT_XML_VALUE, MediaType.APPLICATION_XML_VALUE})
+    public ResponseEntity<String> transaction(@RequestBody String xml) {
+        try {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_XML)
+                    .body(geoServerProxyService.transaction(xml));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).contentType(MediaType.TEXT_PLAIN).body(e.getMessage());
+        }
+    }
+
+    /**
+     * 清除图层缓存（绕过代理直接修改了GeoServer数据时调用）
+     * DELETE http://localhost:8080/api/geoserver/sdjzdx_Road_Line
+     */
+    @DeleteMapping("/{layer}")
+    public Map<String, Object> evict(@PathVariable String layer) {
+        Map<String, Object> result = new HashMap<>();
+        if (!geoServerProxyService.isLayerAllowed(layer)) {
+            result.put("code", 404);
+            result.put("message", "图层不存在");
+            return result;
+        }
+        geoServerProxyService.evict(layer);
+        result.put("code", 200);
+        result.put("message", "清除成功");
+        return result;
+    }
+
+    /**
+     * 代理缓存状态（各图层大小、命中次数、合并的请求数）
+     * GET http://localhost:8080/api/geoserver/status
+     */
+    @GetMapping("/status")
+    public Map<String, Object> getStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 200);
+        result.put("message", "查询成功");
+        result.put("data", geoServerProxyService.getStatus());
+        return result;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.backend.controller;
+
+import com.example.backend.entity.Hydrant;
+import com.example.backend.interceptor.VersionedResource;
+import com.example.backend.service.HydrantClusterService;
+import com.example.backend.service.HydrantService;
+import com.example.backend.service.HydrantStatsService;
+import com.example.backend.service.HydrantStreamService;
+import com.example.backend.service.RoadNetworkService;
+import com.example.backend.utils.ResourceVersions;
+import com.example.backend.vo.HydrantCluster;
+import com.example.backend.vo.HydrantOperation;
+import com.example.backend.vo.HydrantOperationResult;
+import com.example.backend.vo.NearestHydrant;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 消防栓控制器
+ * 提供消防栓聚合查询等接口，减少前端一次性加载整个图层
+ */
+@RestController
+@RequestMapping("/api/hydrants")
+@CrossOrigin
+public class HydrantController {
+    @Autowired
+    private HydrantService hydrantService;
+    @Autowired
+    private HydrantClusterService hydrantClusterService;
+    @Autowired
+    private HydrantStatsService hydrantStatsService;
+    @Autowired
+    private HydrantStreamService hydrantStreamService;
+    @Autowired
+    private RoadNetworkService roadNetworkService;
+
+    /**
+     * 按范围和缩放级别查询聚合点
+     * GET http://localhost:8080/api/hydrants/clusters?minLng=117.0&minLat=36.6&maxLng=117.2&maxLat=36.7&zoom=15
+     * @return 聚合点列表，每个点带各状态数量
+     */
+    @VersionedResource(ResourceVersions.HYDRANTS)
+    @GetMapping("/clusters")
+    public Map<String, Object> getClusters(
+            @RequestParam(defaultValue = "-180") double minLng,
+            @RequestParam(defaultValue = "-90") double minLat,
+            @RequestParam(defaultValue = "180") double maxLng,
+            @RequestParam(defaultValue = "90") double maxLat,
+            @RequestParam Integer zoom) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            List<HydrantCluster> clusters = hydrantClusterService.getClusters(minLng, minLat, maxLng, maxLat, zoom);
+            result.put("code", 200);
+            result.put("message", "查询成功");
+            result.put("data", clusters);
+        } catch (Exception e) {
+            result.put("code", 500);
+            result.put("message", "查询失败：" + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 按路网距离查询最近的正常消防栓
+     * GET http://localhost:8080/api/hydrants/nearest?lng=117.1&lat=36.6&k=5&mode=walk
+     * @param mode 出行方式：walk步行，drive车行（只影响估算用时）
+     * @return 消防栓列表，按路网距离升序，distance单位米，duration单位秒
+     */
+    @VersionedResource({ResourceVersions.HYDRANTS, ResourceVersions.ROADS})
+    @GetMapping("/nearest")
+    public Map<String, Object> getNearest(@RequestParam double lng, @RequestParam double lat,
+                                          @RequestParam(defaultValue = "5") int k,
+                                          @RequestParam(defaultValue = RoadNetworkService.MODE_WALK) String mode) {
+        Map<String, Object> result = new HashMap<>();
+        if (k <= 0 || (!RoadNetworkService.MODE_WALK.equals(mode) && !RoadNetworkService.MODE_DRIVE.equals(mode))) {
+            result.put("code", 400);
+            result.put("message", "参数错误");
+            return result;
+        }
+        try {
+            List<NearestHydrant> nearest = roadNetworkService.findNearest(lng, lat, k, mode);
+            result.put("code", 200);
+            result.put("message", "查询成功");
+            result.put("data", nearest);
+        } catch (Exception e) {
+            result.put("code", 500);
+            result.put("message", "查询失败：" + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 仪表盘统计数据：状态数量、压力分布和平均压力
+     * GET http://localhost:8080/api/hydrants/stats
+     */
+    @VersionedResource(ResourceVersions.HYDRANTS)
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 200);
+        result.put("message", "查询成功");
+        result.put("data", hydrantStatsService.getStats());
+        return result;
+    }
+
+    /**
+     * 订阅消防栓变更（SSE），事件名hydrants，数据为增量变更数组；
+     * 事件名reset表示服务端全量重新加载过，客户端需重新获取全部消防栓
+     * GET http://localhost:8080/api/hydrants/stream
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream() {
+        return hydrantStreamService.subscribe();
+    }
+
+    /**
+     * 要素编辑后同步单个消防栓，聚合索引随之增量更新
+     * POST http://localhost:8080/api/hydrants/1/refresh
+     */
+    @PostMapping("/{id}/refresh")
+    public Map<String, Object> refresh(@PathVariable Integer id) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            Hydrant hydrant = hydrantService.refresh(id);
+            result.put("code", 200);
+            result.put("message", hydrant != null ? "同步成功" : "要素已删除");
+            result.put("data", hydrant);
+        } catch (Exception e) {
+            result.put("code", 500);
+            result.put("message", "同步失败：" + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 批量编辑消防栓：新增、修改、删除混合提交，一个事务内完成
+     * POST http://localhost:8080/api/hydrants/batch?atomic=false
+     * 请求体：[{ "op": "update", "id": 1, "version": 3, "currentStatus": "error" }, { "op": "insert", "name": "XF-01", "lng": 117.1, "lat": 36.6 }]
+     * @param atomic 为true时任一操作失败（校验失败、版本冲突或要素已删除）则全部不执行
+     * @return 每个操作的结果（status为ok/conflict/not_found/invalid/aborted）
+     */
+    @PostMapping("/batch")
+    public Map<String, Object> applyBatch(@RequestBody List<HydrantOperation> operations,
+                                          @RequestParam(defaultValue = "false") boolean atomic) {
+        Map<String, Object> result = new HashMap<>();
+        if (operations == null || operations.isEmpty()) {
+            result.put("code", 400);
+            result.put("message", "参数错误");
+            return result;
+        }
+        try {
+            List<HydrantOperationResult> results = hydrantService.applyBatch(operations, atomic);
+            long succeeded = results.stream().filter(r -> HydrantOperationResult.OK.equals(r.getStatus())).count();
+            result.put("code", 200);
+            result.put("message", "成功" + succeeded + "个，失败" + (results.size() - succeeded) + "个");
+            result.put("data", results);
+        } catch (Exception e) {
+            result.put("code", 500);
+            result.put("message", "批量编辑失败：" + e.getMessage());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.backend.controller;
+
+import com.example.backend.service.HydrantHistoryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 消防栓历史控制器
+ * 查询消防栓或整个图层在过去某一时刻的状态，用于事故回溯
+ */
+@RestController
+@RequestMapping("/api/hydrants/history")
+@CrossOrigin
+public class HydrantHistoryController {
+    @Autowired
+    private HydrantHistoryService hydrantHistoryService;
+
+    /**
+     * 查询整个图层在某时刻的状态
+     * GET http://localhost:8080/api/hydrants/history?ts=1760000000000
+     * @return 当时存在的全部消防栓，按id排序
+     */
+    @GetMapping
+    public Map<String, Object> getLayerAt(@RequestParam long ts) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            result.put("code", 200);
+            result.put("message", "查询成功");
+            result.put("data", hydrantHistoryService.getLayerAt(ts));
+        } catch (Exception e) {
+            result.put("code", 500);
+            result.put("message", "查询失败：" + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 查询单个消防栓在某时刻的状态
+     * GET http://localhost:8080/api/hydrants/history/1?ts=1760000000000
+     * @return 当时的属性，当时不存在（未安装或已删除）时data为null
+     */
+    @GetMapping("/{id}")
+    public Map<String, Object> getHydrantAt(@PathVariable Integer id, @RequestParam long ts) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            result.put("code", 200);
+            result.put("message", "查询成功");
+            result.put("data", hydrantHistoryService.getHydrantAt(id, ts));
+        } catch (Exception e) {
+            result.put("code", 500);
+            result.put("message", "查询失败：" + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 查询单个消防栓在时间范围内的变更记录
+     * GET http://localhost:8080/api/hydrants/history/1/changes?from=1760000000000&to=1760086400000&limit=100
+     * @return 变更列表，op为I新增/U修改/D删除，state为变更后的属性
+     */
+    @GetMapping("/{id}/changes")
+    public Map<String, Object> getChanges(@PathVariable Integer id,
+                                          @RequestParam long from,
+                                          @RequestParam long to,
+                                          @RequestParam(defaultValue = "100") int limit) {
+        Map<String, Object> result = new HashMap<>();
+        if (limit <= 0 || limit > 1000 || from > to) {
+            result.put("code", 400);
+            result.put("message", "参数错误");
+            return result;
+        }
+        try {
+            result.put("code", 200);
+            result.put("message", "查询成功");
+            result.put("data", hydrantHistoryService.getChanges(id, from, to, limit));
+        } catch (Exception e) {
+            result.put("code", 500);
+            result.put("message", "查询失败：" + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 日志写入状态（待写入数、累计写入数、丢弃数、快照数）
+     * GET http://localhost:8080/api/hydrants/history/status
+     */
+    @GetMapping("/status")
+    public Map<String, Object> getStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 200);
+        result.put("message", "查询成功");
+        result.put("data", hydrantHistoryService.getStatus());
+        return result;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.backend.controller;
+
+import com.example.backend.interceptor.VersionedResource;
+import com.example.backend.service.ClusterSyncService;
+import com.example.backend.service.RoadNetworkService;
+import com.example.backend.utils.ResourceVersions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 道路控制器
+ * 道路要素编辑后通知后端同步内存路网
+ */
+@RestController
+@RequestMapping("/api/roads")
+@CrossOrigin
+public class RoadController {
+    @Autowired
+    private RoadNetworkService roadNetworkService;
+    @Autowired
+    private ClusterSyncService clusterSyncService;
+
+    /**
+     * 要素编辑后同步单条道路，路网随之重建
+     * POST http://localhost:8080/api/roads/1/refresh
+     */
+    @PostMapping("/{id}/refresh")
+    public Map<String, Object> refresh(@PathVariable Integer id) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            roadNetworkService.refreshRoad(id);
+            clusterSyncService.publish(ResourceVersions.ROADS, String.valueOf(id)); // 其他节点同步重建
+            result.put("code", 200);
+            result.put("message", "同步成功");
+            result.put("data", roadNetworkService.getStatus());
+        } catch (Exception e) {
+            result.put("code", 500);
+            result.put("message", "同步失败：" + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 全量重新加载道路
+     * POST http://localhost:8080/api/roads/reload
+     */
+    @PostMapping("/reload")
+    public Map<String, Object> reload() {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            roadNetworkService.reload();
+            clusterSyncService.publish(ResourceVersions.ROADS, null);
+            result.put("code", 200);
+            result.put("message", "加载成功");
+            result.put("data", roadNetworkService.getStatus());
+        } catch (Exception e) {
+            result.put("code", 500);
+            result.put("message", "加载失败：" + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 路网规模：节点数、边数、道路数、已挂接的正常消防栓数
+     * GET http://localhost:8080/api/roads/status
+     */
+    @VersionedResource({ResourceVersions.HYDRANTS, ResourceVersions.ROADS})
+    @GetMapping("/status")
+    public Map<String, Object> getStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 200);
+        result.put("message", "查询成功");
+        result.put("data", roadNetworkService.getStatus());
+        return result;
+    }
+}
@@ -2,12 +2,27 @@ package com.example.backend.controller;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.example.backend.entity.SysUser;
+import com.example.backend.interceptor.TokenInterceptor;
+import com.example.backend.interceptor.VersionedResource;
 import com.example.backend.service.SysUserService;
+import com.example.backend.service.UserTransferService;
 import com.example.backend.utils.JwtUtils;
+import com.example.backend.utils.ResourceVersions;
+import com.example.backend.utils.TokenVerifier;
+import com.example.backend.vo.CursorPage;
+import com.example.backend.vo.UserImportResult;
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamSource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.InputStream;
 import java.util.HashMap;
 import java.util.Map;
 /**
@@ -20,8 +35,12 @@ import java.util.Map;
 public class SysUserController {
     @Autowired // 自动注入
     private JwtUtils jwtUtils; // 注入JWT工具类
+    @Autowired
+    private TokenVerifier tokenVerifier; // 注入Token校验组件（用于退出登录时吊销Token）
     @Autowired  // 自动注入用户服务（Spring自动帮我们创建实例）
     private SysUserService sysUserService;
+    @Autowired
+    private UserTransferService userTransferService; // 批量导入导出
 
     /**
      * 注册接口
@@ -66,7 +85,7 @@ public class SysUserController {
                 // 生成Token
                 String token = jwtUtils.generateToken(name);
                 // 使用httpOnlyCookie()方法将Token保存在Cookie中，并设置过期时间为7天
-                Cookie cookie = new Cookie("token", token);
+                Cookie cookie = new Cookie(JwtUtils.COOKIE_NAME, token);
                 cookie.setHttpOnly( true); // 设置Cookie为HttpOnly
                 cookie.setMaxAge(7200); // 设置Cookie的过期时间为2小时
                 cookie.setPath("/"); // 设置Cookie的生效路径为根目录
@@ -93,6 +112,7 @@ public class SysUserController {
      * 🔍 根据ID查询用户
      * GET http://localhost:8080/api/users/1
      */
+    @VersionedResource(ResourceVersions.USERS)
     @GetMapping("/{id}")
     public Map<String, Object> getUserById(@PathVariable Integer id) {
         Map<String, Object> result = new HashMap<>();
@@ -138,14 +158,20 @@ public class SysUserController {
     /**
      * 退出登录接口
      * Post http://localhost:8080/api/users/logout
+     * @param request 请求对象
      * @param response 响应对象
      * @return 退出结果
      */
     @PostMapping("/logout")
-    public Map<String, Object> logout(HttpServletResponse response) {
+    public Map<String, Object> logout(HttpServletRequest request, HttpServletResponse response) {
         Map<String, Object> result = new HashMap<>();
+        // 吊销当前Token，Cookie被复制到别处也无法继续使用
+        String token = TokenInterceptor.getToken(request);
+        if (token != null) {
+            tokenVerifier.revoke(token);
+        }
         // 清除Cookie（设置过期时间为0）
-        Cookie cookie = new Cookie("jwt-token", null);
+        Cookie cookie = new Cookie(JwtUtils.COOKIE_NAME, null);
         cookie.setPath("/");
         cookie.setMaxAge(0);
         response.addCookie(cookie);
@@ -159,16 +185,21 @@ public class SysUserController {
      * GET http://localhost:8080/api/users/page?pageNum=1&pageSize=10
      * @param pageNum 页码
      * @param pageSize 每页条数
+     * @param name 用户名（模糊匹配，可选）
+     * @param role 权限（可选）
      * @return 分页结果
      */
+    @VersionedResource(ResourceVersions.USERS)
     @GetMapping("/page")
     public Map<String, Object> getUserPage(
             @RequestParam(defaultValue = "1") Integer pageNum,
-            @RequestParam(defaultValue = "10") Integer pageSize) {
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String role) {
         Map<String, Object> result = new HashMap<>();
         try {
             Page<SysUser> page = new Page<>(pageNum, pageSize);
-            IPage<SysUser> userPage = sysUserService.getUserPage(page);
+            IPage<SysUser> userPage = sysUserService.getUserPage(page, name, role);
             result.put("code", 200);
             result.put("message", "查询成功");
             result.put("data", userPage.getRecords()); // 当前页数据
@@ -182,6 +213,56 @@ public class SysUserController {
         }
         return result;
     }
+    /**
+     * 游标分页查询用户（深页与第一页代价相同）
+     * GET http://localhost:8080/api/users/cursor?pageSize=10&cursor=上次返回的nextCursor或prevCursor&total=estimate
+     * @param cursor 游标，为空时查询第一页
+     * @param pageSize 每页条数
+     * @param name 用户名（模糊匹配，可选）
+     * @param role 权限（可选）
+     * @param total 总数模式：none不统计，exact精确统计，estimate按统计信息估算
+     * @return 分页结果
+     */
+    @VersionedResource(ResourceVersions.USERS)
+    @GetMapping("/cursor")
+    public Map<String, Object> getUserCursorPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") Integer pageSize,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String role,
+            @RequestParam(defaultValue = "none") String total) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            int size = Math.max(1, Math.min(pageSize, 100)); // 限制每页条数
+            CursorPage<SysUser> userPage = sysUserService.getUserCursorPage(cursor, size, name, role, total);
+            result.put("code", 200);
+            result.put("message", "查询成功");
+            result.put("data", userPage.getRecords()); // 当前页数据
+            result.put("nextCursor", userPage.getNextCursor()); // 下一页游标
+            result.put("prevCursor", userPage.getPrevCursor()); // 上一页游标
+            result.put("total", userPage.getTotal()); // 总条数（可能为空）
+            result.put("size", size); // 每页条数
+        } catch (IllegalArgumentException e) {
+            result.put("code", 400);
+            result.put("message", "参数错误：" + e.getMessage());
+        } catch (Exception e) {
+            result.put("code", 500);
+            result.put("message", "分页查询失败：" + e.getMessage());
+        }
+        return result;
+    }
+    /**
+     * 用户缓存统计
+     * GET http://localhost:8080/api/users/cache/stats
+     */
+    @GetMapping("/cache/stats")
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 200);
+        result.put("message", "查询成功");
+        result.put("data", sysUserService.getCacheStats());
+        return result;
+    }
     /**
      * 根据id修改用户信息
      * PUT http://localhost:8080/api/users/update
@@ -218,4 +299,52 @@ public class SysUserController {
         }
         return result;
     }
+    /**
+     * 批量导入用户（上传CSV文件）
+     * POST http://localhost:8080/api/users/import  表单字段file，表头：name,password,sex,birthDate,department,telephone,email,role
+     * @return 导入结果：总行数、成功数、失败数和出错行明细
+     */
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public Map<String, Object> importUsers(@RequestParam("file") MultipartFile file) {
+        return importFrom(file);
+    }
+    /**
+     * 批量导入用户（请求体直接为CSV，便于脚本调用）
+     * POST http://localhost:8080/api/users/import  Content-Type: text/csv
+     */
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public Map<String, Object> importUsersCsv(HttpServletRequest request) {
+        return importFrom(request::getInputStream);
+    }
+    /**
+     * 导出用户为CSV（不含密码）
+     * GET http://localhost:8080/api/users/export?name=张&role=USER
+     */
+    @VersionedResource(ResourceVersions.USERS)
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportUsers(@RequestParam(required = false) String name,
+                                                             @RequestParam(required = false) String role) {
+        StreamingResponseBody body = out -> userTransferService.exportCsv(name, role, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv;charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users.csv\"")
+                .body(body);
+    }
+
+    private Map<String, Object> importFrom(InputStreamSource source) {
+        Map<String, Object> result = new HashMap<>();
+        try (InputStream in = source.getInputStream()) {
+            UserImportResult importResult = userTransferService.importCsv(in);
+            result.put("code", 200);
+            result.put("message", "导入完成：成功" + importResult.getImported() + "条，失败" + importResult.getFailed() + "条");
+            result.put("data", importResult);
+        } catch (IllegalArgumentException e) {
+            result.put("code", 400);
+            result.put("message", "导入失败：" + e.getMessage());
+        } catch (Exception e) {
+            result.put("code", 500);
+            result.put("message", "导入失败：" + e.getMessage());
+        }
+        return result;
+    }
 }
@@ -0,0 +1,88 @@
+package com.example.backend.controller;
+
+import com.example.backend.entity.PressureReading;
+import com.example.backend.service.TelemetryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压力遥测控制器
+ * 接收传感器批量上报的压力读数，并提供降采样后的压力曲线
+ */
+@RestController
+@RequestMapping("/api/telemetry")
+@CrossOrigin
+public class TelemetryController {
+    @Autowired
+    private TelemetryService telemetryService;
+
+    /**
+     * 批量上报压力读数
+     * POST http://localhost:8080/api/telemetry/readings  请求体：[{ "hydrantId": 1, "ts": 1760000000000, "pressure": 0.32 }]
+     * @return 接收数量，缓冲区满时code为503，未接收的读数（accepted之后的部分）需重试；读数无效时code为400，整批未接收
+     */
+    @PostMapping("/readings")
+    public Map<String, Object> ingest(@RequestBody List<PressureReading> readings) {
+        Map<String, Object> result = new HashMap<>();
+        int accepted;
+        try {
+            accepted = telemetryService.ingest(readings);
+        } catch (IllegalArgumentException e) {
+            result.put("code", 400);
+            result.put("message", e.getMessage());
+            result.put("accepted", 0);
+            return result;
+        }
+        if (accepted < readings.size()) {
+            result.put("code", 503);
+            result.put("message", "缓冲区已满，部分读数未接收");
+        } else {
+            result.put("code", 200);
+            result.put("message", "接收成功");
+        }
+        result.put("accepted", accepted);
+        return result;
+    }
+
+    /**
+     * 查询压力曲线（不传hydrantId时为全部消防栓平均压力）
+     * GET http://localhost:8080/api/telemetry/series?hydrantId=1&from=1760000000000&to=1760086400000&resolution=auto
+     */
+    @GetMapping("/series")
+    public Map<String, Object> getSeries(
+            @RequestParam(required = false) Integer hydrantId,
+            @RequestParam long from,
+            @RequestParam long to,
+            @RequestParam(defaultValue = "auto") String resolution) {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            result.put("code", 200);
+            result.put("message", "查询成功");
+            result.put("data", telemetryService.getSeries(hydrantId, from, to, resolution));
+        } catch (IllegalArgumentException e) {
+            result.put("code", 400);
+            result.put("message", e.getMessage());
+        } catch (Exception e) {
+            result.put("code", 500);
+            result.put("message", "查询失败：" + e.getMessage());
+        }
+        return result;
+    }
+
+    /**
+     * 写入状态（缓冲区深度、接收/拒绝/写入数量、最近一次写入耗时）
+     * GET http://localhost:8080/api/telemetry/status
+     */
+    @GetMapping("/status")
+    public Map<String, Object> getStatus() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("code", 200);
+        result.put("message", "查询成功");
+        result.put("data", telemetryService.getStatus());
+        return result;
+    }
+}
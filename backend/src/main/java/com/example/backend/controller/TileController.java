@@ -0,0 +1,69 @@
+package com.example.backend.controller;
+
+import com.example.backend.interceptor.VersionedResource;
+import com.example.backend.service.TileService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 矢量瓦片控制器
+ * 地图只下载可视范围内的瓦片，替代一次性加载整个图层的GeoJSON
+ */
+@RestController
+@RequestMapping("/api/tiles")
+@CrossOrigin
+public class TileController {
+    private static final MediaType MVT = MediaType.parseMediaType("application/vnd.mapbox-vector-tile");
+
+    @Autowired
+    private TileService tileService;
+
+    /**
+     * 获取矢量瓦片
+     * GET http://localhost:8080/api/tiles/sdjzdx_Buildings_Point/16/54000/25000.mvt
+     * @return 瓦片内容，无要素时返回204
+     */
+    @VersionedResource("layer:{layer}")
+    @GetMapping("/{layer}/{z}/{x}/{y}.mvt")
+    public ResponseEntity<byte[]> getTile(@PathVariable String layer, @PathVariable int z,
+                                          @PathVariable int x, @PathVariable int y) {
+        if (!tileService.isLayerAllowed(layer) || z < 0 || z > 30 || x < 0 || y < 0 || x >= (1 << z) || y >= (1 << z)) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+        }
+        byte[] tile = tileService.getTile(layer, z, x, y);
+        if (tile.length == 0) {
+            return ResponseEntity.noContent().build();
+        }
+        // 要素编辑后瓦片会变化，浏览器缓存时间不宜过长
+        return ResponseEntity.ok()
+                .contentType(MVT)
+                .cacheControl(CacheControl.maxAge(60, TimeUnit.SECONDS))
+                .body(tile);
+    }
+
+    /**
+     * 清除图层缓存（道路、建筑等图层数据更新后调用）
+     * DELETE http://localhost:8080/api/tiles/sdjzdx_Road_Line
+     */
+    @DeleteMapping("/{layer}")
+    public Map<String, Object> evictLayer(@PathVariable String layer) {
+        Map<String, Object> result = new HashMap<>();
+        if (!tileService.isLayerAllowed(layer)) {
+            result.put("code", 404);
+            result.put("message", "图层不存在");
+            return result;
+        }
+        tileService.evictLayer(layer);
+        result.put("code", 200);
+        result.put("message", "清除成功");
+        return result;
+    }
+}
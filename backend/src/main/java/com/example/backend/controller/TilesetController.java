@@ -0,0 +1,194 @@
+package com.example.backend.controller;
+
+import com.example.backend.service.TilesetService;
+import com.example.backend.vo.TilesetFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 3D Tiles控制器
+ * 发送tileset.json和瓦片内容：按Accept-Encoding选择压缩版本，支持ETag协商缓存和Range分段请求
+ */
+@RestController
+@RequestMapping(TilesetController.PREFIX)
+@CrossOrigin
+public class TilesetController {
+    static final String PREFIX = "/api/3dtiles";
+
+    @Autowired
+    private TilesetService tilesetService;
+
+    @Value("${tiles3d.max-age:2592000}")
+    private long maxAge; // 带版本号（?v=内容哈希）请求的浏览器缓存时间（秒）
+
+    /**
+     * 获取3D Tiles文件
+     * GET http://localhost:8080/api/3dtiles/tileset.json
+     * GET http://localhost:8080/api/3dtiles/data/RC1.glb
+     * GET http://localhost:8080/api/3dtiles/data/RC1.glb?v=内容哈希
+     */
+    @GetMapping("/**")
+    public void getFile(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (!tilesetService.isReady()) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+        String uri = request.getRequestURI().substring(request.getContextPath().length() + PREFIX.length());
+        TilesetFile file = tilesetService.find(UriUtils.decode(uri.startsWith("/") ? uri.substring(1) : uri, StandardCharsets.UTF_8));
+        if (file == null) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setContentType(file.getContentType());
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // tileset.json中引用的是固定文件名，内容更新后地址不变，只能每次协商；
+        // 地址带当前内容哈希（?v=）时内容不会变化，可以长期缓存
+        response.setHeader(HttpHeaders.CACHE_CONTROL, file.getHash().equals(request.getParameter("v"))
+                ? "public, max-age=" + maxAge + ", immutable" : "no-cache");
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        Path path = file.getFile();
+        long size = file.getSize();
+        String encoding = null;
+        if (file.getBrotliFile() != null && accepts(acceptEncoding, "br")) {
+            path = file.getBrotliFile();
+            size = file.getBrotliSize();
+            encoding = "br";
+        } else if (file.getGzipFile() != null && accepts(acceptEncoding, "gzip")) {
+            path = file.getGzipFile();
+            size = file.getGzipSize();
+            encoding = "gzip";
+        }
+
+        // 304时返回匹配到的ETag（客户端缓存的可能是gzip/br版本）
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        String matched = ifNoneMatch == null ? null : file.match(ifNoneMatch, encoding);
+        if (matched != null) {
+            response.setHeader(HttpHeaders.ETAG, matched);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        // Range只针对原始内容；If-Range不匹配时忽略Range返回完整内容
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(file.getEtag(null)))) {
+            long[] bounds = parseRange(range, file.getSize());
+            if (bounds != null) {
+                response.setHeader(HttpHeaders.ETAG, file.getEtag(null));
+                if (bounds.length == 0) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + file.getSize());
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE,
+                        "bytes " + bounds[0] + "-" + (bounds[1] - 1) + "/" + file.getSize());
+                tilesetService.transfer(file.getFile(), file.getSize(), bounds[0], bounds[1] - bounds[0], request, response);
+                return;
+            }
+        }
+
+        if (encoding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        response.setHeader(HttpHeaders.ETAG, file.getEtag(encoding));
+        tilesetService.transfer(path, size, 0, size, request, response);
+    }
+
+    /**
+     * 瓦片重新生成后重新扫描目录
+     * POST http://localhost:8080/api/3dtiles/reload
+     */
+    @PostMapping("/reload")
+    public Map<String, Object> reload() {
+        Map<String, Object> result = new HashMap<>();
+        try {
+            tilesetService.reload();
+            result.put("code", 200);
+            result.put("message", "扫描完成");
+            result.put("data", tilesetService.getStatus());
+        } catch (Exception e) {
+            result.put("code", 500);
+            result.put("message", "扫描失败：" + e.getMessage());
+        }
+        return result;
+    }
+
+    // 判断Accept-Encoding是否接受指定编码（q=0表示不接受，无法解析的q值按1处理）
+    static boolean accepts(String acceptEncoding, String encoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            String[] tokens = part.trim().split(";");
+            if (tokens[0].trim().equalsIgnoreCase(encoding)) {
+                for (int i = 1; i < tokens.length; i++) {
+                    String param = tokens[i].trim();
+                    if (param.startsWith("q=") && quality(param.substring(2)) == 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static double quality(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return 1;
+        }
+    }
+
+    /**
+     * 解析单段Range（bytes=a-b、bytes=a-、bytes=-n）
+     * @return [start, end)；多段或格式不支持时返回null（按完整内容处理），范围无效时返回空数组
+     */
+    static long[] parseRange(String range, long size) {
+        if (!range.startsWith("bytes=") || range.contains(",")) {
+            return null;
+        }
+        String spec = range.substring(6).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last); // 最后n个字节
+                if (suffix <= 0) {
+                    return new long[0];
+                }
+                start = Math.max(0, size - suffix);
+                end = size;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size : Math.min(size, Long.parseLong(last) + 1);
+            }
+            return start >= size || start >= end ? new long[0] : new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.backend.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * 建筑物实体类
+ * 对应GeoServer发布的建筑物图层（sdjzdx_Buildings_Point），几何拆分为代表点和外包矩形（EPSG:4326）
+ */
+public class Building {
+    // 要素ID
+    private Integer id;
+
+    // 建筑物名称：对应Name字段
+    private String name;
+
+    // 代表点经纬度（点图层即为点本身，面图层为面内一点）
+    private double lng;
+    private double lat;
+
+    // 外包矩形，覆盖分析按消防栓到外包矩形的距离计算
+    private double minLng;
+    private double minLat;
+    private double maxLng;
+    private double maxLat;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public double getLng() {
+        return lng;
+    }
+
+    public void setLng(double lng) {
+        this.lng = lng;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public void setLat(double lat) {
+        this.lat = lat;
+    }
+
+    @JsonIgnore
+    public double getMinLng() {
+        return minLng;
+    }
+
+    public void setMinLng(double minLng) {
+        this.minLng = minLng;
+    }
+
+    @JsonIgnore
+    public double getMinLat() {
+        return minLat;
+    }
+
+    public void setMinLat(double minLat) {
+        this.minLat = minLat;
+    }
+
+    @JsonIgnore
+    public double getMaxLng() {
+        return maxLng;
+    }
+
+    public void setMaxLng(double maxLng) {
+        this.maxLng = maxLng;
+    }
+
+    @JsonIgnore
+    public double getMaxLat() {
+        return maxLat;
+    }
+
+    public void setMaxLat(double maxLat) {
+        this.maxLat = maxLat;
+    }
+}
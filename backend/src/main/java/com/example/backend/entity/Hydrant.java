@@ -0,0 +1,147 @@
+package com.example.backend.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Objects;
+
+/**
+ * 消防栓实体类
+ * 对应GeoServer发布的消防栓点图层（sdjzdx_FireHydranty_Point），几何字段拆分为经纬度
+ */
+public class Hydrant {
+    // 状态常量：与前端currentStatus取值保持一致
+    public static final String STATUS_NORMAL = "normal";
+    public static final String STATUS_ERROR = "error";
+    public static final String STATUS_REPAIRING = "repairing";
+
+    // 要素ID：对应WFS中 图层名.id 的id部分
+    private Integer id;
+
+    // 消防栓编号：对应Name字段
+    private String name;
+
+    // 设备状态：normal/error/repairing
+    private String currentStatus;
+
+    // 当前压力（MPa）
+    private Double currentPressure;
+
+    // 管理单位
+    private String managementUnit;
+
+    // 安装日期
+    private String installationDate;
+
+    // 经度（EPSG:4326）
+    private double lng;
+
+    // 纬度（EPSG:4326）
+    private double lat;
+
+    // 版本号：对应version列，每次UPDATE由触发器加1（见db/hydrant_version.sql）
+    private long version;
+
+    public Hydrant() {
+    }
+
+    // 拷贝构造：内存快照只读，修改时先拷贝
+    public Hydrant(Hydrant other) {
+        this.id = other.id;
+        this.name = other.name;
+        this.currentStatus = other.currentStatus;
+        this.currentPressure = other.currentPressure;
+        this.managementUnit = other.managementUnit;
+        this.installationDate = other.installationDate;
+        this.lng = other.lng;
+        this.lat = other.lat;
+        this.version = other.version;
+    }
+
+    // 判断两个快照的位置是否相同
+    @JsonIgnore
+    public boolean isSameLocation(Hydrant other) {
+        return other != null && lng == other.lng && lat == other.lat;
+    }
+
+    // 判断两个快照的属性和位置是否完全相同（不比较版本号）
+    @JsonIgnore
+    public boolean isSameState(Hydrant other) {
+        return isSameLocation(other) && Objects.equals(id, other.id) && Objects.equals(name, other.name)
+                && Objects.equals(currentStatus, other.currentStatus)
+                && Objects.equals(currentPressure, other.currentPressure)
+                && Objects.equals(managementUnit, other.managementUnit)
+                && Objects.equals(installationDate, other.installationDate);
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public void setCurrentStatus(String currentStatus) {
+        this.currentStatus = currentStatus;
+    }
+
+    public Double getCurrentPressure() {
+        return currentPressure;
+    }
+
+    public void setCurrentPressure(Double currentPressure) {
+        this.currentPressure = currentPressure;
+    }
+
+    public String getManagementUnit() {
+        return managementUnit;
+    }
+
+    public void setManagementUnit(String managementUnit) {
+        this.managementUnit = managementUnit;
+    }
+
+    public String getInstallationDate() {
+        return installationDate;
+    }
+
+    public void setInstallationDate(String installationDate) {
+        this.installationDate = installationDate;
+    }
+
+    public double getLng() {
+        return lng;
+    }
+
+    public void setLng(double lng) {
+        this.lng = lng;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public void setLat(double lat) {
+        this.lat = lat;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.backend.entity;
+
+/**
+ * 压力遥测读数
+ * 对应hydrant_pressure表中的一行
+ */
+public class PressureReading {
+    // 消防栓ID
+    private Integer hydrantId;
+
+    // 采集时间（毫秒时间戳），为0时按接收时间记录
+    private long ts;
+
+    // 压力值（MPa），用包装类型以区分请求中缺少该字段
+    private Double pressure;
+
+    public PressureReading() {
+    }
+
+    public PressureReading(Integer hydrantId, long ts, Double pressure) {
+        this.hydrantId = hydrantId;
+        this.ts = ts;
+        this.pressure = pressure;
+    }
+
+    public Integer getHydrantId() {
+        return hydrantId;
+    }
+
+    public void setHydrantId(Integer hydrantId) {
+        this.hydrantId = hydrantId;
+    }
+
+    public long getTs() {
+        return ts;
+    }
+
+    public void setTs(long ts) {
+        this.ts = ts;
+    }
+
+    public Double getPressure() {
+        return pressure;
+    }
+
+    public void setPressure(Double pressure) {
+        this.pressure = pressure;
+    }
+}
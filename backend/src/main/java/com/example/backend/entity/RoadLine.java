@@ -0,0 +1,29 @@
+package com.example.backend.entity;
+
+/**
+ * 道路实体类
+ * 对应GeoServer发布的道路线图层（sdjzdx_Road_Line），几何以GeoJSON文本返回
+ */
+public class RoadLine {
+    // 要素ID
+    private Integer id;
+
+    // 几何（EPSG:4326下的GeoJSON，LineString或MultiLineString）
+    private String geometry;
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getGeometry() {
+        return geometry;
+    }
+
+    public void setGeometry(String geometry) {
+        this.geometry = geometry;
+    }
+}
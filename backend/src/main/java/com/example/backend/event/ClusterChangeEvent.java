@@ -0,0 +1,41 @@
+package com.example.backend.event;
+
+/**
+ * 其他节点的数据变更事件
+ * 由集群同步服务收到通知后在本节点发布，监听者据此失效缓存或重新读取数据
+ * key为null表示该类数据全部失效；topic为ALL表示所有数据全部失效（如断线过久、事件已被清理）
+ */
+public class ClusterChangeEvent {
+    public static final String ALL = "*";
+
+    private final String topic; // 数据类型，取值同ResourceVersions中的资源名称，Token吊销为TokenVerifier.TOPIC
+    private final String key; // 变更数据的主键
+
+    public ClusterChangeEvent(String topic, String key) {
+        this.topic = topic;
+        this.key = key;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    // 是否涉及某类数据
+    public boolean matches(String topic) {
+        return ALL.equals(this.topic) || this.topic.equals(topic);
+    }
+
+    // 是否需要整体失效
+    public boolean isAll() {
+        return key == null;
+    }
+
+    // 主键转换为整数ID，整体失效时返回null
+    public Integer getId() {
+        return key == null ? null : Integer.valueOf(key);
+    }
+}
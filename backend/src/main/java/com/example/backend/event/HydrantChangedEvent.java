@@ -0,0 +1,38 @@
+package com.example.backend.event;
+
+import com.example.backend.entity.Hydrant;
+
+/**
+ * 单个消防栓变更事件
+ * 新增时before为null，删除时after为null，监听者据此做增量更新
+ */
+public class HydrantChangedEvent {
+    private final Hydrant before; // 变更前快照
+    private final Hydrant after; // 变更后快照
+
+    public HydrantChangedEvent(Hydrant before, Hydrant after) {
+        this.before = before;
+        this.after = after;
+    }
+
+    public Hydrant getBefore() {
+        return before;
+    }
+
+    public Hydrant getAfter() {
+        return after;
+    }
+
+    // 变更的要素ID
+    public Integer getId() {
+        return after != null ? after.getId() : before.getId();
+    }
+
+    public boolean isInsert() {
+        return before == null;
+    }
+
+    public boolean isDelete() {
+        return after == null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.backend.event;
+
+import com.example.backend.entity.Hydrant;
+
+import java.util.Collection;
+
+/**
+ * 消防栓全量加载事件
+ * 启动或全量同步后发布，监听者据此重建自己的内存结构
+ */
+public class HydrantsReloadedEvent {
+    private final Collection<Hydrant> hydrants; // 全量快照（只读）
+
+    public HydrantsReloadedEvent(Collection<Hydrant> hydrants) {
+        this.hydrants = hydrants;
+    }
+
+    public Collection<Hydrant> getHydrants() {
+        return hydrants;
+    }
+}
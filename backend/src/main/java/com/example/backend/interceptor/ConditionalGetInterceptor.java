@@ -0,0 +1,93 @@
+package com.example.backend.interceptor;
+
+import com.example.backend.utils.ResourceVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Map;
+
+/**
+ * 条件GET拦截器
+ * 在进入处理方法前比较If-None-Match与当前ETag，一致时直接返回304
+ * ETag在读取数据前生成：读取期间数据又变化时，客户端下次请求会因版本号不同重新获取，不会误用旧数据
+ * 响应头中的ETag由ConditionalGetAdvice在处理成功时写出，失败的结果（code不为200）不能被缓存
+ */
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+    public static final String ETAG_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".etag";
+
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)
+                || !("GET".equals(request.getMethod()) || "HEAD".equals(request.getMethod()))) {
+            return true;
+        }
+        VersionedResource annotation = handlerMethod.getMethodAnnotation(VersionedResource.class);
+        if (annotation == null) {
+            return true;
+        }
+        String etag = resourceVersions.etag(resolve(annotation.value(), request));
+        if (isStreaming(handlerMethod)) {
+            // 流式响应不经过ResponseBodyAdvice，只能在这里写出；这类接口出错时返回4xx/5xx状态码，不会被当作成功结果缓存
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        } else {
+            request.setAttribute(ETAG_ATTRIBUTE, etag);
+        }
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null && matches(ifNoneMatch, etag)) {
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isStreaming(HandlerMethod handlerMethod) {
+        MethodParameter returnType = handlerMethod.getReturnType();
+        Class<?> type = ResponseEntity.class.equals(returnType.getParameterType())
+                ? returnType.nested().getNestedParameterType() : returnType.getParameterType();
+        return StreamingResponseBody.class.isAssignableFrom(type);
+    }
+
+    // 把资源名称中的{变量}替换为路径变量的值
+    @SuppressWarnings("unchecked")
+    private static String[] resolve(String[] resources, HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String[] resolved = resources.clone();
+        if (variables != null) {
+            for (int i = 0; i < resolved.length; i++) {
+                for (Map.Entry<String, String> variable : variables.entrySet()) {
+                    resolved[i] = resolved[i].replace("{" + variable.getKey() + "}", variable.getValue());
+                }
+            }
+        }
+        return resolved;
+    }
+
+    // 弱比较：忽略W/前缀
+    private static boolean matches(String ifNoneMatch, String etag) {
+        String opaque = etag.substring(2);
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if ("*".equals(value) || value.equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.backend.interceptor;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL耗时拦截器
+ * 按Mapper方法记录执行耗时（mybatis.statement），超过阈值的记录慢查询日志
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query", args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class SqlTimingInterceptor implements Interceptor {
+    private static final Logger log = LoggerFactory.getLogger(SqlTimingInterceptor.class);
+
+    private final MeterRegistry meterRegistry;
+    private final long slowNanos; // 慢查询阈值（纳秒）
+    // 每个Mapper方法一个Timer，创建后复用，记录时不再分配对象
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public SqlTimingInterceptor(MeterRegistry meterRegistry, long slowQueryMillis) {
+        this.meterRegistry = meterRegistry;
+        this.slowNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        long start = System.nanoTime();
+        try {
+            return invocation.proceed();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+            Timer timer = timers.get(ms.getId());
+            if (timer == null) {
+                timer = timers.computeIfAbsent(ms.getId(), this::createTimer);
+            }
+            timer.record(elapsed, TimeUnit.NANOSECONDS);
+            if (elapsed >= slowNanos) {
+                Object parameter = invocation.getArgs()[1];
+                log.warn("慢查询 {} 耗时{}ms：{}", ms.getId(), TimeUnit.NANOSECONDS.toMillis(elapsed),
+                        ms.getBoundSql(parameter).getSql().replaceAll("\\s+", " "));
+            }
+        }
+    }
+
+    private Timer createTimer(String statement) {
+        return Timer.builder("mybatis.statement")
+                .description("MyBatis语句执行耗时")
+                .tag("statement", statement)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
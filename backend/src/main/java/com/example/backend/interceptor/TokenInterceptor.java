@@ -1,16 +1,41 @@
 package com.example.backend.interceptor;
 import com.example.backend.utils.JwtUtils;
+import com.example.backend.utils.TokenVerifier;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.servlet.HandlerInterceptor;
 
-import javax.servlet.http.Cookie;
-import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpServletResponse;
 import java.io.PrintWriter;
+import java.util.concurrent.TimeUnit;
 
 public class TokenInterceptor implements HandlerInterceptor {
+    // 校验通过后Claims存放在请求属性中，处理方法可直接读取，无需再次解析
+    public static final String CLAIMS_ATTRIBUTE = "jwtClaims";
+
+    @Autowired
+    private TokenVerifier tokenVerifier;
     @Autowired
-    private JwtUtils jwtUtils;
+    private MeterRegistry meterRegistry;
+
+    // Token校验耗时，按结果区分
+    private Timer validTimer;
+    private Timer invalidTimer;
+
+    @PostConstruct
+    public void initMetrics() {
+        validTimer = Timer.builder("auth.token.verify").description("Token校验耗时")
+                .tag("result", "valid").publishPercentileHistogram().register(meterRegistry);
+        invalidTimer = Timer.builder("auth.token.verify").description("Token校验耗时")
+                .tag("result", "invalid").publishPercentileHistogram().register(meterRegistry);
+    }
+
+    @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
         // 排除登录和注册接口
         String path = request.getRequestURI();
@@ -21,18 +46,13 @@ public class TokenInterceptor implements HandlerInterceptor {
         // 从请求头获取Token
 //        String token = request.getHeader("Authorization");
         // 从Cookie获取Token（替代从Header获取）
-        String token = null;
-        Cookie[] cookies = request.getCookies();
-        if (cookies != null) {
-            for (Cookie cookie : cookies) {
-                if ("jwt-token".equals(cookie.getName())) {
-                    token = cookie.getValue();
-                    break;
-                }
-            }
-        }
-        if (token == null || !jwtUtils.validateToken(token)) {
+        long start = System.nanoTime();
+        String token = getToken(request);
+        Claims claims = token == null ? null : tokenVerifier.verify(token);
+        (claims == null ? invalidTimer : validTimer).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (claims == null) {
             // Token无效或不存在，返回401
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
             response.setContentType("application/json;charset=UTF-8");
             PrintWriter out = response.getWriter();
             out.write("{\"code\":401,\"message\":\"未授权访问，请先登录\"}");
@@ -40,6 +60,20 @@ public class TokenInterceptor implements HandlerInterceptor {
             out.close();
             return false;
         }
+        request.setAttribute(CLAIMS_ATTRIBUTE, claims);
         return true;
     }
+
+    // 从Cookie中取出Token，不存在时返回null
+    public static String getToken(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (JwtUtils.COOKIE_NAME.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
 }
@@ -0,0 +1,16 @@
+package com.example.backend.interceptor;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标注GET接口依赖的资源，由ConditionalGetInterceptor按资源版本号生成ETag并处理If-None-Match
+ * 资源名称可以引用路径变量，如 "layer:{layer}"
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface VersionedResource {
+    String[] value();
+}
@@ -0,0 +1,24 @@
+package com.example.backend.mapper;
+
+import com.example.backend.entity.Building;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 建筑物Mapper
+ * 点图层和面图层通用：代表点用ST_PointOnSurface，外包矩形用ST_XMin等函数
+ */
+@Mapper
+public interface BuildingMapper {
+    // 图层对应的数据表（GeoServer图层sdjzdx_Buildings_Point，大小写敏感需加引号）
+    String TABLE = "\"sdjzdx_Buildings_Point\"";
+
+    // 查询全部建筑物
+    @Select("SELECT id, name, ST_X(ST_PointOnSurface(g)) AS lng, ST_Y(ST_PointOnSurface(g)) AS lat, "
+            + "ST_XMin(g) AS minLng, ST_YMin(g) AS minLat, ST_XMax(g) AS maxLng, ST_YMax(g) AS maxLat "
+            + "FROM (SELECT \"id\" AS id, \"Name\" AS name, ST_Transform(geom, 4326) AS g FROM " + TABLE
+            + " WHERE geom IS NOT NULL) t")
+    List<Building> selectAll();
+}
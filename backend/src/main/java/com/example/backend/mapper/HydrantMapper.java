@@ -0,0 +1,33 @@
+package com.example.backend.mapper;
+
+import com.example.backend.entity.Hydrant;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 消防栓Mapper
+ * 消防栓表带PostGIS几何字段，不能直接用BaseMapper，这里手写SQL把geom拆成经纬度
+ */
+@Mapper
+public interface HydrantMapper {
+    // 图层对应的数据表（GeoServer图层sdjzdx_FireHydranty_Point，大小写敏感需加引号）
+    String TABLE = "\"sdjzdx_FireHydranty_Point\"";
+
+    // 查询字段：统一转换到EPSG:4326
+    String COLUMNS = "\"id\" AS id, \"Name\" AS name, \"currentStatus\" AS currentStatus, "
+            + "\"currentPressure\" AS currentPressure, \"managementUnit\" AS managementUnit, "
+            + "\"installationDate\"::text AS installationDate, "
+            + "ST_X(ST_Transform(geom, 4326)) AS lng, ST_Y(ST_Transform(geom, 4326)) AS lat, "
+            + "\"version\" AS version";
+
+    // 查询全部消防栓
+    @Select("SELECT " + COLUMNS + " FROM " + TABLE)
+    List<Hydrant> selectAll();
+
+    // 根据ID查询消防栓
+    @Select("SELECT " + COLUMNS + " FROM " + TABLE + " WHERE \"id\" = #{id}")
+    Hydrant selectById(@Param("id") Integer id);
+}
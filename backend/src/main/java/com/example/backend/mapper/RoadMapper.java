@@ -0,0 +1,28 @@
+package com.example.backend.mapper;
+
+import com.example.backend.entity.RoadLine;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 道路Mapper
+ * 道路表带PostGIS几何字段，手写SQL把geom转成GeoJSON
+ */
+@Mapper
+public interface RoadMapper {
+    // 图层对应的数据表（GeoServer图层sdjzdx_Road_Line，大小写敏感需加引号）
+    String TABLE = "\"sdjzdx_Road_Line\"";
+
+    String COLUMNS = "\"id\" AS id, ST_AsGeoJSON(ST_Transform(geom, 4326)) AS geometry";
+
+    // 查询全部道路
+    @Select("SELECT " + COLUMNS + " FROM " + TABLE + " WHERE geom IS NOT NULL")
+    List<RoadLine> selectAll();
+
+    // 根据ID查询道路
+    @Select("SELECT " + COLUMNS + " FROM " + TABLE + " WHERE \"id\" = #{id} AND geom IS NOT NULL")
+    RoadLine selectById(@Param("id") Integer id);
+}
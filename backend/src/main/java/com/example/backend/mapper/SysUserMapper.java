@@ -3,9 +3,13 @@ package com.example.backend.mapper;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.example.backend.entity.SysUser;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Select;
 
 @Mapper
 public interface SysUserMapper extends BaseMapper<SysUser> {
-    // 不需要写任何方法！
-    // BaseMapper已经提供了增删改查的所有基本方法
+    // 基本的增删改查由BaseMapper提供
+
+    // 根据PostgreSQL统计信息估算总行数，无需扫描全表（未ANALYZE时返回-1）
+    @Select("SELECT reltuples::bigint FROM pg_class WHERE oid = 'sys_user'::regclass")
+    Long estimateCount();
 }
@@ -0,0 +1,16 @@
+package com.example.backend.service;
+
+import java.util.Map;
+
+/**
+ * 集群同步服务
+ * 多个后端实例之间通过PostgreSQL的LISTEN/NOTIFY互相通知数据变更，各节点据此失效本地缓存
+ */
+public interface ClusterSyncService {
+    // 通知其他节点某条数据已变更，key为null表示该类数据全部变更；未启用集群同步时不做任何事
+    void publish(String topic, String key);
+    // 当前线程是否正在处理其他节点的变更（此时产生的本地事件不应再广播或重复记录）
+    boolean isApplyingRemote();
+    // 运行状态：是否连接、最后处理的序号、发送/接收数量等
+    Map<String, Object> getStatus();
+}
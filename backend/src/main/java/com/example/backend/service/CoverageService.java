@@ -0,0 +1,21 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Building;
+import com.example.backend.vo.CoverageSummary;
+
+import java.util.List;
+
+/**
+ * 建筑物覆盖分析服务
+ * 统计每个建筑物半径内的正常消防栓数量，消防栓变更时只重新计算受影响的建筑物
+ */
+public interface CoverageService {
+    // 从数据库重新加载建筑物并全量计算
+    void reloadBuildings();
+    // 修改覆盖半径（米）并全量计算
+    void setRadius(double radius);
+    // 覆盖率汇总
+    CoverageSummary getSummary();
+    // 未被覆盖的建筑物列表
+    List<Building> getUncovered();
+}
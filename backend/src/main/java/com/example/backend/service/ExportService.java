@@ -0,0 +1,18 @@
+package com.example.backend.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+
+/**
+ * 图层导出服务
+ * 用数据库游标逐行读取要素并直接写出GeoJSON，内存占用与图层大小无关
+ */
+public interface ExportService {
+    // 判断图层是否允许导出
+    boolean isLayerAllowed(String layer);
+    // 从请求参数中取出图层字段对应的过滤条件，其他参数（如防缓存的_）忽略；值与字段类型不符时抛出IllegalArgumentException
+    Map<String, String> resolveFilters(String layer, Map<String, String> params);
+    // 导出图层为GeoJSON FeatureCollection，bbox为EPSG:4326的[minLng, minLat, maxLng, maxLat]（可为null），filters为resolveFilters的结果
+    void writeGeoJson(String layer, double[] bbox, Map<String, String> filters, OutputStream out) throws IOException;
+}
@@ -0,0 +1,23 @@
+package com.example.backend.service;
+
+import com.example.backend.vo.LayerFeatures;
+
+import java.util.Map;
+
+/**
+ * GeoServer代理服务
+ * 前端的WFS请求经后端转发：同一图层的并发GetFeature只向GeoServer请求一次，结果压缩后缓存；
+ * 经代理提交的WFS-T事务使涉及图层的缓存失效，并同步消防栓、道路、建筑物等内存数据
+ */
+public interface GeoServerProxyService {
+    // 判断图层是否允许代理
+    boolean isLayerAllowed(String layer);
+    // 获取图层全部要素（要素ID已去掉图层名前缀）
+    LayerFeatures getFeatures(String layer);
+    // 转发WFS-T事务，返回GeoServer的响应；事务涉及未允许的图层时抛出IllegalArgumentException
+    String transaction(String xml);
+    // 清除图层缓存并更新图层版本号（绕过代理修改了GeoServer数据时调用）
+    void evict(String layer);
+    // 缓存状态：各图层大小、命中、合并请求数等
+    Map<String, Object> getStatus();
+}
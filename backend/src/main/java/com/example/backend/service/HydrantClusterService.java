@@ -0,0 +1,14 @@
+package com.example.backend.service;
+
+import com.example.backend.vo.HydrantCluster;
+
+import java.util.List;
+
+/**
+ * 消防栓聚合服务
+ * 按缩放级别预先聚合消防栓，返回数据量只与视野大小有关，与消防栓总数无关
+ */
+public interface HydrantClusterService {
+    // 查询范围内指定缩放级别的聚合点
+    List<HydrantCluster> getClusters(double minLng, double minLat, double maxLng, double maxLat, int zoom);
+}
@@ -0,0 +1,22 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Hydrant;
+import com.example.backend.vo.HydrantChange;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 消防栓历史服务
+ * 变更只追加写入日志，定期生成全图层快照；查询某时刻状态时从最近的快照开始重放之后的变更
+ */
+public interface HydrantHistoryService {
+    // 查询单个消防栓在某时刻的状态，当时不存在时返回null
+    Hydrant getHydrantAt(Integer id, long ts);
+    // 查询整个图层在某时刻的状态，按id排序
+    List<Hydrant> getLayerAt(long ts);
+    // 查询单个消防栓在时间范围内的变更记录，按时间升序，最多limit条
+    List<HydrantChange> getChanges(Integer id, long from, long to, int limit);
+    // 写入状态：待写入变更数、累计写入数、快照数量等
+    Map<String, Object> getStatus();
+}
@@ -0,0 +1,26 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.Hydrant;
+import com.example.backend.vo.HydrantOperation;
+import com.example.backend.vo.HydrantOperationResult;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 消防栓服务
+ * 在内存中维护消防栓快照，并在变更时发布事件供聚合、统计等模块增量更新
+ */
+public interface HydrantService {
+    // 全量重新加载
+    void reload();
+    // 查询全部消防栓（只读快照）
+    Collection<Hydrant> list();
+    // 根据ID查询消防栓
+    Hydrant getById(Integer id);
+    // 从数据库重新读取单个消防栓，用于要素编辑后同步
+    Hydrant refresh(Integer id);
+    // 批量编辑：在一个事务内批量执行新增、修改、删除，返回每个操作的结果
+    // atomic为true时任一操作校验失败则全部不执行
+    List<HydrantOperationResult> applyBatch(List<HydrantOperation> operations, boolean atomic);
+}
@@ -0,0 +1,12 @@
+package com.example.backend.service;
+
+import com.example.backend.vo.HydrantStats;
+
+/**
+ * 消防栓统计服务
+ * 统计值在内存中随消防栓增删改增量维护，查询时不再扫描全部数据
+ */
+public interface HydrantStatsService {
+    // 获取当前统计结果
+    HydrantStats getStats();
+}
@@ -0,0 +1,14 @@
+package com.example.backend.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * 消防栓变更推送服务
+ * 通过SSE把消防栓增量变更推送给订阅的客户端，替代前端定时轮询
+ */
+public interface HydrantStreamService {
+    // 新建订阅
+    SseEmitter subscribe();
+    // 当前订阅数
+    int getSubscriberCount();
+}
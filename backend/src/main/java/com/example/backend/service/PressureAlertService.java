@@ -0,0 +1,22 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.PressureReading;
+import com.example.backend.vo.PressureAlert;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压力告警服务
+ * 对每个消防栓的读数做滑动窗口规则判断：压力越限、压力突变、读数长时间不变
+ */
+public interface PressureAlertService {
+    // 提交一条读数，按消防栓分配到对应的告警线程，队列满时丢弃并返回false
+    boolean submit(PressureReading reading);
+    // 当前未恢复的告警，按触发时间倒序
+    List<PressureAlert> getActive();
+    // 最近产生的告警（含已恢复），按触发时间倒序，最多limit条
+    List<PressureAlert> getRecent(int limit);
+    // 运行状态：队列深度、处理数量、产生/抑制的告警数量等
+    Map<String, Object> getStatus();
+}
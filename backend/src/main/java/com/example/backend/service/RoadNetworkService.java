@@ -0,0 +1,25 @@
+package com.example.backend.service;
+
+import com.example.backend.vo.NearestHydrant;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 道路网服务
+ * 在内存中维护校园道路图，按路网距离查询最近的正常消防栓
+ */
+public interface RoadNetworkService {
+    // 出行方式
+    String MODE_WALK = "walk";
+    String MODE_DRIVE = "drive";
+
+    // 从数据库重新加载全部道路并重建路网
+    void reload();
+    // 道路编辑后同步单条道路（已删除的道路从路网中移除）
+    void refreshRoad(Integer id);
+    // 查询距离指定位置最近的k个正常消防栓，按路网距离升序
+    List<NearestHydrant> findNearest(double lng, double lat, int k, String mode);
+    // 路网规模：节点数、边数、道路数、已挂接的消防栓数
+    Map<String, Object> getStatus();
+}
@@ -4,6 +4,9 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.IService;
 import com.example.backend.entity.SysUser;
+import com.example.backend.vo.CursorPage;
+
+import java.util.Map;
 
 public interface SysUserService extends IService<SysUser> {
 // 暂时不需要额外功能，基础功能已足够
@@ -11,6 +14,14 @@ public interface SysUserService extends IService<SysUser> {
     boolean register(SysUser user);
     // 登录接口
     SysUser login(String name, String password);
+    // 根据用户名查询
+    SysUser getByName(String name);
+    // 用户缓存统计（命中、未命中、淘汰次数）
+    Map<String, Object> getCacheStats();
     // 分页查询
     IPage<SysUser> getUserPage(Page<SysUser> page);
+    // 分页查询（带筛选条件，name模糊匹配、role精确匹配，为空时不筛选）
+    IPage<SysUser> getUserPage(Page<SysUser> page, String name, String role);
+    // 游标分页查询，totalMode为none/exact/estimate
+    CursorPage<SysUser> getUserCursorPage(String cursor, int pageSize, String name, String role, String totalMode);
 }
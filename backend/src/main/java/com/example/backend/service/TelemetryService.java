@@ -0,0 +1,20 @@
+package com.example.backend.service;
+
+import com.example.backend.entity.PressureReading;
+import com.example.backend.vo.PressurePoint;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压力遥测服务
+ * 读数先进入内存缓冲区，由后台线程批量写入分区表并累加1分钟/1小时/1天降采样表
+ */
+public interface TelemetryService {
+    // 接收一批读数，返回成功进入缓冲区的数量（缓冲区满时其余读数被拒绝）；有无效读数时抛出IllegalArgumentException，整批不接收
+    int ingest(List<PressureReading> readings);
+    // 查询压力曲线，hydrantId为空时返回全部消防栓的平均值；resolution为1m/1h/1d/auto
+    List<PressurePoint> getSeries(Integer hydrantId, long from, long to, String resolution);
+    // 写入状态：缓冲区深度、累计接收/拒绝/写入数量等
+    Map<String, Object> getStatus();
+}
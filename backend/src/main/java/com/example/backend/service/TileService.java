@@ -0,0 +1,14 @@
+package com.example.backend.service;
+
+/**
+ * 矢量瓦片服务
+ * 由PostGIS（ST_AsMVT）生成Mapbox矢量瓦片，内存LRU + 磁盘两级缓存
+ */
+public interface TileService {
+    // 判断图层是否允许出瓦片
+    boolean isLayerAllowed(String layer);
+    // 获取瓦片，无要素时返回空数组
+    byte[] getTile(String layer, int z, int x, int y);
+    // 清除图层的全部缓存瓦片（图层数据批量变更后调用）
+    void evictLayer(String layer);
+}
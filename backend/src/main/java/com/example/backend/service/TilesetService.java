@@ -0,0 +1,27 @@
+package com.example.backend.service;
+
+import com.example.backend.vo.TilesetFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * 3D Tiles文件服务
+ * 启动时扫描瓦片目录、计算内容哈希并生成压缩版本，请求时以零拷贝方式发送文件
+ */
+public interface TilesetService {
+    // 重新扫描瓦片目录（瓦片重新生成后调用）
+    void reload() throws IOException;
+    // 扫描是否已完成
+    boolean isReady();
+    // 按相对路径（如data/RC1.glb）查找文件，不存在时返回null
+    TilesetFile find(String path);
+    // 发送文件的[start, start + length)部分，已设置好状态码和其他响应头
+    void transfer(Path file, long size, long start, long length,
+                  HttpServletRequest request, HttpServletResponse response) throws IOException;
+    // 文件数、压缩版本数、内存映射缓存占用
+    Map<String, Object> getStatus();
+}
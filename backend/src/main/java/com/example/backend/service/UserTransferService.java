@@ -0,0 +1,18 @@
+package com.example.backend.service;
+
+import com.example.backend.vo.UserImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * 用户批量导入导出服务
+ * CSV流式读写，内存占用与文件大小无关
+ */
+public interface UserTransferService {
+    // 从CSV导入用户，按表头名称识别列（name和password必填），出错的行记录在结果中，其余行照常导入
+    UserImportResult importCsv(InputStream in) throws IOException;
+    // 导出用户为CSV（不含密码），name模糊匹配、role精确匹配，为空时不筛选
+    void exportCsv(String name, String role, OutputStream out) throws IOException;
+}
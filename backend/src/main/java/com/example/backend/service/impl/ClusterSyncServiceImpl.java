@@ -0,0 +1,341 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.event.ClusterChangeEvent;
+import com.example.backend.event.HydrantChangedEvent;
+import com.example.backend.service.ClusterSyncService;
+import com.example.backend.utils.ResourceVersions;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 集群同步服务实现类
+ * 发送：变更先进入发件箱，发送线程把积压的变更合并成一个事务写入cluster_event表并NOTIFY；
+ *      写入前持有事务级咨询锁，序号分配和提交顺序一致，各节点按序号处理即保证同一主键的顺序
+ * 接收：监听线程用独立连接LISTEN（不占用连接池），收到通知后按序号读取新事件并在本节点发布ClusterChangeEvent；
+ *      重连后从上次处理的序号继续读取，补齐断线期间的事件；事件已被清理时让所有数据整体失效
+ */
+@Service
+public class ClusterSyncServiceImpl implements ClusterSyncService {
+    private static final Logger log = LoggerFactory.getLogger(ClusterSyncServiceImpl.class);
+
+    private static final String CHANNEL = "cluster_event";
+    private static final long LOCK_ID = 0x636c757374657200L; // 发送事务的咨询锁ID
+    private static final String INSERT = "INSERT INTO cluster_event (topic, key, origin) VALUES (?, ?, ?)";
+    private static final String SELECT_AFTER =
+            "SELECT seq, topic, key, origin FROM cluster_event WHERE seq > ? ORDER BY seq LIMIT 1000";
+    private static final long PURGE_INTERVAL_MS = 3_600_000L; // 清理过期事件的间隔
+
+    // 当前线程正在处理其他节点的变更
+    private static final ThreadLocal<Boolean> APPLYING = new ThreadLocal<>();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final int pollMs; // 等待通知的超时时间
+    private final long reconnectMs; // 断线或写入失败后的重试间隔
+    private final int retentionHours; // 事件保留时长
+    private final String origin = Long.toHexString(ThreadLocalRandom.current().nextLong()); // 本节点标识
+    private final BlockingQueue<ClusterChangeEvent> outbox;
+    private final AtomicBoolean overflowed = new AtomicBoolean(); // 发件箱曾经溢出
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+
+    // 以下字段只由监听线程写入
+    private volatile long lastSeq = -1; // 最后处理的事件序号，-1表示尚未确定起点
+    private volatile boolean connected;
+    private long lastPurge;
+
+    // 运行计数
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong received = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+
+    public ClusterSyncServiceImpl(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${cluster.sync.enabled:false}") boolean enabled,
+                                  @Value("${spring.datasource.url}") String url,
+                                  @Value("${spring.datasource.username}") String username,
+                                  @Value("${spring.datasource.password}") String password,
+                                  @Value("${cluster.sync.poll-ms:500}") int pollMs,
+                                  @Value("${cluster.sync.reconnect-ms:1000}") long reconnectMs,
+                                  @Value("${cluster.sync.retention-hours:24}") int retentionHours,
+                                  @Value("${cluster.sync.outbox-capacity:10000}") int outboxCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.pollMs = pollMs;
+        this.reconnectMs = reconnectMs;
+        this.retentionHours = retentionHours;
+        this.outbox = new LinkedBlockingQueue<>(outboxCapacity);
+        if (enabled) {
+            // 在各服务加载数据之前确定起点，加载期间其他节点的变更会在启动后重放
+            try {
+                lastSeq = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(seq), 0) FROM cluster_event", Long.class);
+            } catch (Exception e) {
+                log.warn("读取集群事件起点失败，连接后重试：{}", e.getMessage());
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        threads.add(new Thread(this::sendLoop, "cluster-sync-send"));
+        threads.add(new Thread(this::listenLoop, "cluster-sync-listen"));
+        for (Thread thread : threads) {
+            thread.setDaemon(true);
+            thread.start();
+        }
+        log.info("集群同步已启动，节点标识{}", origin);
+    }
+
+    // 消防栓变更由服务发布的本地事件转发，其他节点收到后重新读取该消防栓
+    @EventListener
+    public void onHydrantChanged(HydrantChangedEvent event) {
+        if (!isApplyingRemote()) {
+            publish(ResourceVersions.HYDRANTS, String.valueOf(event.getId()));
+        }
+    }
+
+    @Override
+    public void publish(String topic, String key) {
+        if (!enabled || isApplyingRemote()) {
+            return;
+        }
+        if (!outbox.offer(new ClusterChangeEvent(topic, key))) {
+            overflowed.set(true); // 发送积压过多，下次发送时改为通知所有数据整体失效
+        }
+    }
+
+    @Override
+    public boolean isApplyingRemote() {
+        return Boolean.TRUE.equals(APPLYING.get());
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("enabled", enabled);
+        status.put("origin", origin);
+        status.put("connected", connected);
+        status.put("lastSeq", lastSeq);
+        status.put("queued", outbox.size());
+        status.put("published", published.get());
+        status.put("received", received.get());
+        status.put("resyncs", resyncs.get());
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+    }
+
+    // 发送线程：一次取出发件箱中积压的全部变更，同一主键只发送一次
+    private void sendLoop() {
+        while (running) {
+            Map<String, ClusterChangeEvent> batch = new LinkedHashMap<>();
+            try {
+                ClusterChangeEvent first = outbox.take();
+                List<ClusterChangeEvent> drained = new ArrayList<>();
+                drained.add(first);
+                outbox.drainTo(drained);
+                if (overflowed.getAndSet(false)) {
+                    batch.put(ClusterChangeEvent.ALL, new ClusterChangeEvent(ClusterChangeEvent.ALL, null));
+                }
+                for (ClusterChangeEvent event : drained) {
+                    batch.putIfAbsent(event.getTopic() + ":" + event.getKey(), event);
+                }
+                send(new ArrayList<>(batch.values()));
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // 写入失败时持续重试同一批，保证本节点发出的事件顺序不变
+    private void send(List<ClusterChangeEvent> batch) throws InterruptedException {
+        while (running) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + LOCK_ID + ")");
+                    jdbcTemplate.batchUpdate(INSERT, batch, batch.size(), (ps, event) -> {
+                        ps.setString(1, event.getTopic());
+                        ps.setString(2, event.getKey());
+                        ps.setString(3, origin);
+                    });
+                    // 同一事务内的通知在提交时才送达，监听方读到的一定是已提交的事件
+                    jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, origin);
+                });
+                published.addAndGet(batch.size());
+                return;
+            } catch (Exception e) {
+                log.warn("发送集群事件失败，{}毫秒后重试：{}", reconnectMs, e.getMessage());
+                Thread.sleep(reconnectMs);
+            }
+        }
+    }
+
+    // 监听线程：断线后自动重连，重连后先补齐断线期间的事件
+    private void listenLoop() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                connected = true;
+                catchUp(connection);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(pollMs);
+                    if (notifications != null && fromOthers(notifications)) {
+                        catchUp(connection);
+                    }
+                    purge(connection);
+                }
+            } catch (SQLException e) {
+                log.warn("集群同步连接断开，{}毫秒后重连：{}", reconnectMs, e.getMessage());
+            } finally {
+                connected = false;
+            }
+            try {
+                Thread.sleep(reconnectMs);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    // 只有本节点自己发出的通知时不需要读取
+    private boolean fromOthers(PGNotification[] notifications) {
+        for (PGNotification notification : notifications) {
+            if (!origin.equals(notification.getParameter())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 按序号读取上次之后的全部事件并在本节点发布
+    private void catchUp(Connection connection) throws SQLException {
+        if (lastSeq < 0) {
+            lastSeq = queryLong(connection, "SELECT COALESCE(MAX(seq), 0) FROM cluster_event");
+            return;
+        }
+        // 最早的事件序号已超过上次处理的序号，说明中间的事件已被清理，只能整体失效
+        long min = queryLong(connection, "SELECT COALESCE(MIN(seq), 0) FROM cluster_event");
+        if (min > lastSeq + 1) {
+            resyncs.incrementAndGet();
+            log.warn("集群事件已被清理（上次序号{}，最早序号{}），全部数据重新加载", lastSeq, min);
+            apply(new ClusterChangeEvent(ClusterChangeEvent.ALL, null));
+            lastSeq = min - 1;
+        }
+        while (true) {
+            Set<String> seen = new LinkedHashSet<>();
+            List<ClusterChangeEvent> events = new ArrayList<>();
+            int rows = 0;
+            long seq = lastSeq;
+            try (PreparedStatement ps = connection.prepareStatement(SELECT_AFTER)) {
+                ps.setLong(1, lastSeq);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        seq = rs.getLong(1);
+                        String topic = rs.getString(2);
+                        String key = rs.getString(3);
+                        // 跳过本节点发出的事件；同一批内同一主键只处理一次（处理时总是重新读取最新数据）
+                        if (!origin.equals(rs.getString(4)) && seen.add(topic + ":" + key)) {
+                            events.add(new ClusterChangeEvent(topic, key));
+                        }
+                    }
+                }
+            }
+            for (ClusterChangeEvent event : events) {
+                apply(event);
+            }
+            received.addAndGet(events.size());
+            lastSeq = seq;
+            if (rows < 1000) {
+                return;
+            }
+        }
+    }
+
+    // 在本节点发布事件，处理期间产生的本地事件不再广播
+    private void apply(ClusterChangeEvent event) {
+        APPLYING.set(Boolean.TRUE);
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (Exception e) {
+            log.warn("处理集群事件{}:{}失败：{}", event.getTopic(), event.getKey(), e.getMessage());
+        } finally {
+            APPLYING.remove();
+        }
+    }
+
+    // 定期清理过期事件，各节点都会执行，重复执行无妨
+    private void purge(Connection connection) throws SQLException {
+        long now = System.currentTimeMillis();
+        if (now - lastPurge < PURGE_INTERVAL_MS) {
+            return;
+        }
+        lastPurge = now;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "DELETE FROM cluster_event WHERE created < now() - ? * interval '1 hour'")) {
+            ps.setInt(1, retentionHours);
+            ps.executeUpdate();
+        }
+    }
+
+    private static long queryLong(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.entity.Building;
+import com.example.backend.entity.Hydrant;
+import com.example.backend.event.ClusterChangeEvent;
+import com.example.backend.event.HydrantChangedEvent;
+import com.example.backend.event.HydrantsReloadedEvent;
+import com.example.backend.mapper.BuildingMapper;
+import com.example.backend.service.CoverageService;
+import com.example.backend.utils.RTree;
+import com.example.backend.utils.ResourceVersions;
+import com.example.backend.vo.CoverageSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 建筑物覆盖分析服务实现类
+ * 全量计算：对正常消防栓建R树，用fork/join把建筑物分段并行统计；
+ * 增量计算：对建筑物建R树，消防栓变更时只查出旧位置和新位置半径内的建筑物，计数减一或加一
+ */
+@Service
+public class CoverageServiceImpl implements CoverageService {
+    private static final Logger log = LoggerFactory.getLogger(CoverageServiceImpl.class);
+
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * 6371008.8; // 每度纬度的米数
+    private static final int TASK_THRESHOLD = 256; // fork/join每个子任务处理的建筑物数
+
+    @Autowired
+    private BuildingMapper buildingMapper;
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    // 以下字段由读写锁保护
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private double radius; // 覆盖半径（米）
+    private List<Building> buildings = Collections.emptyList();
+    private RTree buildingTree = buildTree(buildings);
+    private int[] counts = new int[0]; // 与buildings一一对应：半径内正常消防栓数量
+    private int covered; // counts中大于0的个数
+    private final Map<Integer, Hydrant> hydrants = new HashMap<>();
+
+    public CoverageServiceImpl(@Value("${coverage.radius-m:150}") double radius) {
+        this.radius = radius;
+    }
+
+    // 应用启动完成后加载，数据库不可用时只记录日志，不影响启动
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reloadBuildings();
+        } catch (Exception e) {
+            log.warn("加载建筑物数据失败：{}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onReloaded(HydrantsReloadedEvent event) {
+        lock.writeLock().lock();
+        try {
+            hydrants.clear();
+            for (Hydrant hydrant : event.getHydrants()) {
+                hydrants.put(hydrant.getId(), hydrant);
+            }
+            recompute();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 单个消防栓变更：只影响旧位置和新位置半径内的建筑物
+    @EventListener
+    public void onChanged(HydrantChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            Hydrant after = event.getAfter();
+            Hydrant before = after == null ? hydrants.remove(event.getId()) : hydrants.put(after.getId(), after);
+            if (before != null && after != null && isNormal(before) == isNormal(after) && before.isSameLocation(after)) {
+                return; // 只改了压力等属性，覆盖关系不变
+            }
+            apply(before, -1);
+            apply(after, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 其他节点重新加载了建筑物或修改了覆盖半径（key为新半径）
+    @EventListener
+    public void onClusterChange(ClusterChangeEvent event) {
+        if (event.matches(ResourceVersions.BUILDINGS)) {
+            reloadBuildings();
+        }
+        if (ResourceVersions.COVERAGE.equals(event.getTopic()) && !event.isAll()) {
+            setRadius(Double.parseDouble(event.getKey()));
+        }
+    }
+
+    @Override
+    public void reloadBuildings() {
+        List<Building> loaded = buildingMapper.selectAll();
+        RTree tree = buildTree(loaded);
+        lock.writeLock().lock();
+        try {
+            buildings = loaded;
+            buildingTree = tree;
+            recompute();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        resourceVersions.bump(ResourceVersions.BUILDINGS);
+    }
+
+    @Override
+    public void setRadius(double radius) {
+        lock.writeLock().lock();
+        try {
+            this.radius = radius;
+            recompute();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        resourceVersions.bump(ResourceVersions.COVERAGE);
+    }
+
+    @Override
+    public CoverageSummary getSummary() {
+        lock.readLock().lock();
+        try {
+            return new CoverageSummary(buildings.size(), covered, radius);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<Building> getUncovered() {
+        lock.readLock().lock();
+        try {
+            List<Building> result = new ArrayList<>(buildings.size() - covered);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    result.add(buildings.get(i));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 全量计算（需持有写锁）
+    private void recompute() {
+        long begin = System.currentTimeMillis();
+        List<Hydrant> normal = new ArrayList<>();
+        for (Hydrant hydrant : hydrants.values()) {
+            if (isNormal(hydrant)) {
+                normal.add(hydrant);
+            }
+        }
+        double[] xs = new double[normal.size()];
+        double[] ys = new double[normal.size()];
+        for (int i = 0; i < xs.length; i++) {
+            xs[i] = normal.get(i).getLng();
+            ys[i] = normal.get(i).getLat();
+        }
+        int[] result = new int[buildings.size()];
+        ForkJoinPool.commonPool().invoke(
+                new CountTask(buildings, new RTree(xs, ys, xs, ys), xs, ys, radius, result, 0, result.length));
+        int coveredCount = 0;
+        for (int count : result) {
+            if (count > 0) {
+                coveredCount++;
+            }
+        }
+        counts = result;
+        covered = coveredCount;
+        log.info("覆盖分析完成：{}个建筑物，{}个正常消防栓，覆盖{}个，耗时{}ms",
+                result.length, normal.size(), coveredCount, System.currentTimeMillis() - begin);
+    }
+
+    // 把一个消防栓计入（sign=1）或移出（sign=-1）半径内建筑物的计数（需持有写锁）
+    private void apply(Hydrant hydrant, int sign) {
+        if (hydrant == null || !isNormal(hydrant)) {
+            return;
+        }
+        double dLat = searchMargin(radius);
+        double dLng = dLat / Math.cos(Math.toRadians(hydrant.getLat()));
+        buildingTree.search(hydrant.getLng() - dLng, hydrant.getLat() - dLat,
+                hydrant.getLng() + dLng, hydrant.getLat() + dLat, i -> {
+                    if (distance(buildings.get(i), hydrant.getLng(), hydrant.getLat()) > radius) {
+                        return;
+                    }
+                    if (sign > 0) {
+                        if (counts[i]++ == 0) {
+                            covered++;
+                        }
+                    } else if (--counts[i] == 0) {
+                        covered--;
+                    }
+                });
+    }
+
+    private static boolean isNormal(Hydrant hydrant) {
+        return Hydrant.STATUS_NORMAL.equals(hydrant.getCurrentStatus());
+    }
+
+    private static RTree buildTree(List<Building> buildings) {
+        int n = buildings.size();
+        double[] minX = new double[n];
+        double[] minY = new double[n];
+        double[] maxX = new double[n];
+        double[] maxY = new double[n];
+        for (int i = 0; i < n; i++) {
+            Building building = buildings.get(i);
+            minX[i] = building.getMinLng();
+            minY[i] = building.getMinLat();
+            maxX[i] = building.getMaxLng();
+            maxY[i] = building.getMaxLat();
+        }
+        return new RTree(minX, minY, maxX, maxY);
+    }
+
+    // 半径对应的纬度差，略微放大保证不漏查，精确判断由distance完成
+    private static double searchMargin(double radius) {
+        return radius / METERS_PER_DEGREE * 1.01;
+    }
+
+    // 点到建筑物外包矩形的距离（米），点在矩形内为0
+    private static double distance(Building building, double lng, double lat) {
+        double dx = Math.max(0, Math.max(building.getMinLng() - lng, lng - building.getMaxLng()))
+                * METERS_PER_DEGREE * Math.cos(Math.toRadians(building.getLat()));
+        double dy = Math.max(0, Math.max(building.getMinLat() - lat, lat - building.getMaxLat())) * METERS_PER_DEGREE;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
+    // 并行统计[from, to)区间内每个建筑物半径内的正常消防栓数，各任务只写自己的区间
+    private static final class CountTask extends RecursiveAction {
+        private final List<Building> buildings;
+        private final RTree hydrantTree;
+        private final double[] xs;
+        private final double[] ys;
+        private final double radius;
+        private final int[] result;
+        private final int from;
+        private final int to;
+
+        CountTask(List<Building> buildings, RTree hydrantTree, double[] xs, double[] ys,
+                  double radius, int[] result, int from, int to) {
+            this.buildings = buildings;
+            this.hydrantTree = hydrantTree;
+            this.xs = xs;
+            this.ys = ys;
+            this.radius = radius;
+            this.result = result;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > TASK_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new CountTask(buildings, hydrantTree, xs, ys, radius, result, from, mid),
+                        new CountTask(buildings, hydrantTree, xs, ys, radius, result, mid, to));
+                return;
+            }
+            double dLat = searchMargin(radius);
+            int[] count = new int[1];
+            for (int i = from; i < to; i++) {
+                Building building = buildings.get(i);
+                double dLng = dLat / Math.cos(Math.toRadians(building.getLat()));
+                count[0] = 0;
+                hydrantTree.search(building.getMinLng() - dLng, building.getMinLat() - dLat,
+                        building.getMaxLng() + dLng, building.getMaxLat() + dLat, j -> {
+                            if (distance(building, xs[j], ys[j]) <= radius) {
+                                count[0]++;
+                            }
+                        });
+                result[i] = count[0];
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.service.ExportService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 图层导出服务实现类
+ * PostgreSQL只有在事务内且设置fetchSize时才使用服务端游标，这里用只读事务包住查询
+ * 过滤条件只接受数据表中的实际字段，按字段类型比较，可以使用字段上的索引；bbox转换到几何字段的坐标系后再比较
+ */
+@Service
+public class ExportServiceImpl implements ExportService {
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate; // 独立实例，设置了fetchSize
+    private final TransactionTemplate transactionTemplate;
+    private final Set<String> layers; // 允许导出的图层（即数据表名）
+    // 图层的字段和坐标系，首次导出时从数据库读取（表结构变化后需重启）
+    private final Map<String, LayerSchema> schemas = new ConcurrentHashMap<>();
+
+    public ExportServiceImpl(ObjectMapper objectMapper, DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${export.layers}") List<String> layers,
+                             @Value("${export.fetch-size:1000}") int fetchSize) {
+        this.objectMapper = objectMapper;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.layers = new HashSet<>(layers);
+    }
+
+    @Override
+    public boolean isLayerAllowed(String layer) {
+        return layers.contains(layer);
+    }
+
+    @Override
+    public Map<String, String> resolveFilters(String layer, Map<String, String> params) {
+        Map<String, String> columns = schema(layer).columns;
+        Map<String, String> filters = new LinkedHashMap<>();
+        StringBuilder check = new StringBuilder("SELECT 1");
+        for (Map.Entry<String, String> param : params.entrySet()) {
+            String type = columns.get(param.getKey());
+            if (type != null) {
+                filters.put(param.getKey(), param.getValue());
+                check.append(", CAST(? AS ").append(type).append(')');
+            }
+        }
+        // 导出开始后响应头已发出，无法再返回400，所以先让数据库检查一遍值能否转换为字段类型
+        if (!filters.isEmpty()) {
+            try {
+                jdbcTemplate.queryForList(check.toString(), filters.values().toArray());
+            } catch (DataAccessException e) {
+                throw new IllegalArgumentException("过滤条件的值与字段类型不符：" + filters.keySet());
+            }
+        }
+        return filters;
+    }
+
+    @Override
+    public void writeGeoJson(String layer, double[] bbox, Map<String, String> filters, OutputStream out) throws IOException {
+        LayerSchema schema = schema(layer);
+        // 几何和属性在数据库中直接转成JSON文本，Java端原样写出，不再解析
+        StringBuilder sql = new StringBuilder("SELECT to_jsonb(t) ->> 'id' AS fid, ST_AsGeoJSON(ST_Transform(t.geom, 4326)) AS geometry, "
+                + "(to_jsonb(t) - 'geom')::text AS properties FROM \"" + layer + "\" t WHERE true");
+        List<Object> args = new ArrayList<>();
+        if (bbox != null) {
+            sql.append(schema.srid == 4326 ? " AND t.geom && ST_MakeEnvelope(?, ?, ?, ?, 4326)"
+                    : " AND t.geom && ST_Transform(ST_MakeEnvelope(?, ?, ?, ?, 4326), " + schema.srid + ")");
+            for (double v : bbox) {
+                args.add(v);
+            }
+        }
+        for (Map.Entry<String, String> filter : filters.entrySet()) {
+            // 字段名和类型来自数据库的表结构，不是用户输入
+            String type = schema.columns.get(filter.getKey());
+            sql.append(" AND t.\"").append(filter.getKey()).append("\" = CAST(? AS ").append(type).append(')');
+            args.add(filter.getValue());
+        }
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+        gen.writeStartObject();
+        gen.writeStringField("type", "FeatureCollection");
+        gen.writeArrayFieldStart("features");
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.query(sql.toString(), rs -> {
+                try {
+                    gen.writeStartObject();
+                    gen.writeStringField("type", "Feature");
+                    String fid = rs.getString(1);
+                    if (fid != null) {
+                        gen.writeStringField("id", fid); // 与前端处理后的GetFeaturesAPI结果一致，不带图层名前缀
+                    }
+                    gen.writeFieldName("geometry");
+                    String geometry = rs.getString(2);
+                    if (geometry == null) {
+                        gen.writeNull();
+                    } else {
+                        gen.writeRawValue(geometry);
+                    }
+                    gen.writeFieldName("properties");
+                    gen.writeRawValue(rs.getString(3));
+                    gen.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // 客户端断开时终止查询
+                }
+            }, args.toArray()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+        gen.close();
+    }
+
+    private LayerSchema schema(String layer) {
+        return schemas.computeIfAbsent(layer, this::loadSchema);
+    }
+
+    // 读取图层的非几何字段及类型，以及geom字段的SRID（未声明时取一行数据的SRID，没有数据时按4326处理）
+    private LayerSchema loadSchema(String layer) {
+        Map<String, String> columns = new HashMap<>();
+        int[] srid = new int[1];
+        jdbcTemplate.query("SELECT a.attname, format_type(a.atttypid, NULL), "
+                        + "CASE WHEN a.attname = 'geom' THEN postgis_typmod_srid(a.atttypmod) END "
+                        + "FROM pg_attribute a WHERE a.attrelid = to_regclass(?) AND a.attnum > 0 AND NOT a.attisdropped",
+                (RowCallbackHandler) rs -> {
+                    String type = rs.getString(2);
+                    if ("geom".equals(rs.getString(1))) {
+                        srid[0] = rs.getInt(3);
+                    } else if (!"geometry".equals(type) && !"geography".equals(type)) {
+                        columns.put(rs.getString(1), type);
+                    }
+                }, "\"" + layer + "\"");
+        if (srid[0] <= 0) {
+            List<Integer> found = jdbcTemplate.queryForList("SELECT ST_SRID(geom) FROM \"" + layer
+                    + "\" WHERE geom IS NOT NULL LIMIT 1", Integer.class);
+            srid[0] = found.isEmpty() || found.get(0) == null || found.get(0) <= 0 ? 4326 : found.get(0);
+        }
+        return new LayerSchema(srid[0], columns);
+    }
+
+    // 图层表结构：字段名 -> 类型（用于CAST），几何字段的SRID
+    private static final class LayerSchema {
+        final int srid;
+        final Map<String, String> columns;
+
+        LayerSchema(int srid, Map<String, String> columns) {
+            this.srid = srid;
+            this.columns = columns;
+        }
+    }
+}
@@ -0,0 +1,600 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.event.ClusterChangeEvent;
+import com.example.backend.event.HydrantChangedEvent;
+import com.example.backend.event.HydrantsReloadedEvent;
+import com.example.backend.service.ClusterSyncService;
+import com.example.backend.service.CoverageService;
+import com.example.backend.service.GeoServerProxyService;
+import com.example.backend.service.HydrantService;
+import com.example.backend.service.RoadNetworkService;
+import com.example.backend.service.TileService;
+import com.example.backend.utils.ResourceVersions;
+import com.example.backend.vo.LayerFeatures;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * GeoServer代理服务实现类
+ * GetFeature：缓存未命中时，同一图层同一时刻只有一个请求（发起者）访问GeoServer，其他请求等待其结果；
+ *            响应边解析边去掉要素ID前缀边压缩，内存中只保留gzip版本，按总字节数LRU淘汰；
+ *            缓存过期后重新获取的内容与之前不同（绕过代理修改了GeoServer数据）时更新图层版本号，使客户端的ETag失效
+ * WFS-T：转发前解析涉及的图层和要素ID，转发后（无论成败）清除这些图层的缓存，
+ *       再同步内存数据：消防栓按ID刷新（变更事件继续清除瓦片、记录历史、通知其他节点），道路、建筑物重新加载
+ */
+@Service
+public class GeoServerProxyServiceImpl implements GeoServerProxyService {
+    private static final Logger log = LoggerFactory.getLogger(GeoServerProxyServiceImpl.class);
+
+    private static final String HYDRANT_LAYER = "sdjzdx_FireHydranty_Point";
+    private static final String ROAD_LAYER = "sdjzdx_Road_Line";
+    private static final String BUILDING_LAYER = "sdjzdx_Buildings_Point";
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final XMLInputFactory XML = XMLInputFactory.newFactory();
+
+    static {
+        // 事务XML来自客户端，禁止DTD和外部实体
+        XML.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        XML.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    }
+
+    private final HydrantService hydrantService;
+    private final RoadNetworkService roadNetworkService;
+    private final CoverageService coverageService;
+    private final TileService tileService;
+    private final ClusterSyncService clusterSyncService;
+    private final ResourceVersions resourceVersions;
+    private final HttpClient httpClient;
+    private final String wfsUrl; // GeoServer的WFS地址
+    private final String workspace; // 工作区名称
+    private final Set<String> layers; // 允许代理的图层
+    private final long maxBytes; // 缓存上限（压缩后字节数）
+    private final long ttlMs; // 缓存存活时间，覆盖绕过代理直接修改GeoServer数据的情况
+    private final Duration timeout; // 请求GeoServer的超时时间
+
+    // 图层缓存：按访问顺序LRU（加锁访问）
+    private final LinkedHashMap<String, LayerFeatures> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cacheBytes;
+    // 缓存代数：每次失效加1，获取期间发生失效的结果不写入缓存（与失效在同一把锁内判断）
+    private long generation;
+    // 正在进行的GetFeature请求：图层名 -> 结果，同一图层的并发请求共用一个
+    private final Map<String, CompletableFuture<LayerFeatures>> inflight = new ConcurrentHashMap<>();
+
+    // 运行计数
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong fetches = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong transactions = new AtomicLong();
+
+    public GeoServerProxyServiceImpl(HydrantService hydrantService,
+                                     RoadNetworkService roadNetworkService,
+                                     CoverageService coverageService,
+                                     TileService tileService,
+                                     ClusterSyncService clusterSyncService,
+                                     ResourceVersions resourceVersions,
+                                     @Value("${geoserver.url}") String url,
+                                     @Value("${geoserver.workspace:sdjzdx}") String workspace,
+                                     @Value("${geoserver.proxy.layers}") List<String> layers,
+                                     @Value("${geoserver.proxy.cache-max-bytes:67108864}") long maxBytes,
+                                     @Value("${geoserver.proxy.ttl-ms:300000}") long ttlMs,
+                                     @Value("${geoserver.proxy.timeout-ms:30000}") long timeoutMs) {
+        this.hydrantService = hydrantService;
+        this.roadNetworkService = roadNetworkService;
+        this.coverageService = coverageService;
+        this.tileService = tileService;
+        this.clusterSyncService = clusterSyncService;
+        this.resourceVersions = resourceVersions;
+        this.wfsUrl = url + "/wfs";
+        this.workspace = workspace;
+        this.layers = new HashSet<>(layers);
+        this.maxBytes = maxBytes;
+        this.ttlMs = ttlMs;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(Math.min(timeoutMs, 5000)))
+                .build();
+    }
+
+    @Override
+    public boolean isLayerAllowed(String layer) {
+        return layers.contains(layer);
+    }
+
+    @Override
+    public LayerFeatures getFeatures(String layer) {
+        LayerFeatures cached = getCached(layer);
+        if (cached != null) {
+            hits.incrementAndGet();
+            return cached;
+        }
+        CompletableFuture<LayerFeatures> future = new CompletableFuture<>();
+        CompletableFuture<LayerFeatures> running = inflight.putIfAbsent(layer, future);
+        if (running != null) {
+            coalesced.incrementAndGet();
+            return await(running);
+        }
+        try {
+            // 上一个发起者可能刚写入缓存并退出
+            LayerFeatures features = getCached(layer);
+            if (features == null) {
+                long gen;
+                LayerFeatures expired; // 已过期但尚未替换的缓存（被失效清除时为null，由失效方更新版本号）
+                synchronized (cache) {
+                    gen = generation;
+                    expired = cache.get(layer);
+                }
+                features = fetch(layer);
+                fetches.incrementAndGet();
+                putCached(layer, features, gen);
+                if (expired != null && !expired.getHash().equals(features.getHash())) {
+                    resourceVersions.bump(ResourceVersions.layer(layer));
+                }
+            }
+            future.complete(features);
+            return features;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inflight.remove(layer, future);
+        }
+    }
+
+    @Override
+    public String transaction(String xml) {
+        Targets targets = parseTransaction(xml);
+        for (String layer : targets.layers.keySet()) {
+            if (!isLayerAllowed(layer)) {
+                throw new IllegalArgumentException("图层不允许编辑：" + layer);
+            }
+        }
+        transactions.incrementAndGet();
+        String body = null;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(wfsUrl))
+                    .timeout(timeout)
+                    .header("Content-Type", "text/xml;charset=UTF-8")
+                    .POST(HttpRequest.BodyPublishers.ofString(xml, StandardCharsets.UTF_8))
+                    .build();
+            HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("GeoServer返回状态码" + response.statusCode());
+            }
+            body = response.body();
+            return body;
+        } catch (IOException e) {
+            throw new IllegalStateException("请求GeoServer失败：" + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("请求GeoServer被中断", e);
+        } finally {
+            // 超时等情况下GeoServer可能已经提交，失败时也同步一次
+            collectInserted(body, targets);
+            sync(targets);
+        }
+    }
+
+    @Override
+    public void evict(String layer) {
+        drop(layer);
+        resourceVersions.bump(ResourceVersions.layer(layer));
+    }
+
+    // 只清除缓存，版本号由引起变更的模块更新
+    private void drop(String layer) {
+        inflight.remove(layer); // 之后的请求不再等待失效前发出的请求
+        synchronized (cache) {
+            generation++;
+            LayerFeatures removed = cache.remove(layer);
+            if (removed != null) {
+                cacheBytes -= removed.getGzip().length;
+            }
+        }
+    }
+
+    // 消防栓经批量接口、要素同步等途径变更后，GeoServer返回的数据也随之变化
+    @EventListener
+    public void onHydrantChanged(HydrantChangedEvent event) {
+        drop(HYDRANT_LAYER);
+    }
+
+    @EventListener
+    public void onHydrantsReloaded(HydrantsReloadedEvent event) {
+        drop(HYDRANT_LAYER);
+    }
+
+    // 其他节点经代理编辑了图层：清除本节点的代理缓存和瓦片缓存（消防栓由变更事件处理）
+    @EventListener
+    public void onClusterChange(ClusterChangeEvent event) {
+        for (String layer : layers) {
+            if (HYDRANT_LAYER.equals(layer)) {
+                continue;
+            }
+            if (event.matches(topic(layer))) {
+                drop(layer);
+                evictTiles(layer);
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        List<Map<String, Object>> cached = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            for (Map.Entry<String, LayerFeatures> entry : cache.entrySet()) {
+                LayerFeatures features = entry.getValue();
+                cached.add(Map.of("layer", entry.getKey(), "features", features.getCount(), "bytes", features.getSize(),
+                        "gzipBytes", features.getGzip().length, "ageMs", now - features.getFetchedAt()));
+            }
+            status.put("cacheBytes", cacheBytes);
+        }
+        status.put("maxBytes", maxBytes);
+        status.put("layers", cached);
+        status.put("hits", hits.get());
+        status.put("fetches", fetches.get());
+        status.put("coalesced", coalesced.get());
+        status.put("inflight", inflight.size());
+        status.put("transactions", transactions.get());
+        return status;
+    }
+
+    // 过期的缓存不返回，但保留到重新获取后替换，用于比较内容是否变化
+    private LayerFeatures getCached(String layer) {
+        synchronized (cache) {
+            LayerFeatures features = cache.get(layer);
+            if (features != null && ttlMs > 0 && System.currentTimeMillis() - features.getFetchedAt() > ttlMs) {
+                return null;
+            }
+            return features;
+        }
+    }
+
+    private void putCached(String layer, LayerFeatures features, long gen) {
+        int length = features.getGzip().length;
+        synchronized (cache) {
+            if (generation != gen || length > maxBytes) {
+                return;
+            }
+            LayerFeatures old = cache.put(layer, features);
+            cacheBytes += length - (old == null ? 0 : old.getGzip().length);
+            // 超出上限时淘汰最久未访问的图层
+            Iterator<LayerFeatures> it = cache.values().iterator();
+            while (cacheBytes > maxBytes && it.hasNext()) {
+                cacheBytes -= it.next().getGzip().length;
+                it.remove();
+            }
+        }
+    }
+
+    // 等待发起者的结果，发起者失败时抛出同样的异常
+    private static LayerFeatures await(CompletableFuture<LayerFeatures> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+    }
+
+    private LayerFeatures fetch(String layer) {
+        String url = wfsUrl + "?service=WFS&version=1.1.0&request=GetFeature&typeName=" + workspace + ":" + layer
+                + "&outputFormat=application/json&srsName=urn:ogc:def:crs:EPSG::4326";
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .timeout(timeout)
+                .header("Accept-Encoding", "gzip")
+                .GET()
+                .build();
+        try {
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            try (InputStream body = response.body()) {
+                if (response.statusCode() != 200) {
+                    throw new IllegalStateException("GeoServer返回状态码" + response.statusCode());
+                }
+                boolean gzip = "gzip".equalsIgnoreCase(response.headers().firstValue("Content-Encoding").orElse(""));
+                return rewrite(gzip ? new GZIPInputStream(body, 65536) : body);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("请求GeoServer失败：" + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("请求GeoServer被中断", e);
+        }
+    }
+
+    // 逐个事件复制GeoJSON并压缩，要素ID由 图层名.id 改为 id，数值原样保留
+    static LayerFeatures rewrite(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(1 << 16);
+        long[] size = new long[1];
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        OutputStream counting = new FilterOutputStream(new GZIPOutputStream(buffer, 65536)) {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+                digest.update((byte) b);
+                size[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+                digest.update(b, off, len);
+                size[0] += len;
+            }
+        };
+        int count = 0;
+        try (JsonParser parser = JSON.createParser(in);
+             JsonGenerator generator = JSON.createGenerator(counting, JsonEncoding.UTF8)) {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME && isFeatureId(parser)) {
+                    generator.writeFieldName("id");
+                    if (parser.nextToken() == JsonToken.VALUE_STRING) {
+                        String id = parser.getText();
+                        generator.writeString(id.substring(id.indexOf('.') + 1));
+                    } else {
+                        generator.copyCurrentStructure(parser);
+                    }
+                    count++;
+                    continue;
+                }
+                generator.copyCurrentEventExact(parser);
+            }
+        }
+        String hash = HexFormat.of().formatHex(Arrays.copyOf(digest.digest(), 16));
+        return new LayerFeatures(buffer.toByteArray(), size[0], count, hash, System.currentTimeMillis());
+    }
+
+    // 当前字段是否为 features[i].id
+    private static boolean isFeatureId(JsonParser parser) throws IOException {
+        if (!"id".equals(parser.currentName())) {
+            return false;
+        }
+        JsonStreamContext array = parser.getParsingContext().getParent();
+        JsonStreamContext root = array == null ? null : array.getParent();
+        return array.inArray() && root != null && root.inObject() && root.getParent().inRoot()
+                && "features".equals(root.getCurrentName());
+    }
+
+    // 解析事务请求：Update/Delete按typeName和FeatureId确定图层和要素，Insert按要素元素名确定图层
+    static Targets parseTransaction(String xml) {
+        Targets targets = new Targets();
+        try {
+            XMLStreamReader reader = XML.createXMLStreamReader(new StringReader(xml));
+            int depth = 0;
+            String layer = null; // 当前Update/Delete操作的图层
+            boolean insert = false;
+            boolean byId = false;
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                    String name = reader.getLocalName();
+                    if (depth == 1 && !"Transaction".equals(name)) {
+                        throw new IllegalArgumentException("不是WFS-T事务请求");
+                    }
+                    if (depth == 2) {
+                        insert = "Insert".equals(name);
+                        layer = null;
+                        byId = false;
+                        if ("Update".equals(name) || "Delete".equals(name)) {
+                            String typeName = reader.getAttributeValue(null, "typeName");
+                            if (typeName == null) {
+                                throw new IllegalArgumentException(name + "缺少typeName");
+                            }
+                            layer = typeName.substring(typeName.indexOf(':') + 1);
+                            targets.touch(layer);
+                        }
+                    } else if (depth == 3 && insert) {
+                        targets.touch(name);
+                        targets.inserts.add(name);
+                    } else if (layer != null && "FeatureId".equals(name)) {
+                        Integer id = parseFid(reader.getAttributeValue(null, "fid"));
+                        if (id == null) {
+                            targets.all(layer);
+                        } else {
+                            targets.add(layer, id);
+                        }
+                        byId = true;
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (depth == 2 && layer != null && !byId) {
+                        targets.all(layer); // 按属性条件过滤，无法确定涉及哪些要素
+                    }
+                    depth--;
+                }
+            }
+            reader.close();
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException("事务XML格式错误：" + e.getMessage());
+        }
+        if (targets.layers.isEmpty()) {
+            throw new IllegalArgumentException("事务中没有操作");
+        }
+        return targets;
+    }
+
+    // 从事务响应中读取新增要素的ID；响应缺失或读不到ID时新增所在图层整体同步
+    private static void collectInserted(String body, Targets targets) {
+        if (targets.inserts.isEmpty()) {
+            return;
+        }
+        Set<String> found = new HashSet<>();
+        boolean failed = false;
+        if (body != null) {
+            try {
+                XMLStreamReader reader = XML.createXMLStreamReader(new StringReader(body));
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    String name = reader.getLocalName();
+                    if (name.endsWith("ExceptionReport")) {
+                        failed = true; // 事务整体回滚，没有新增要素
+                    } else if ("FeatureId".equals(name)) {
+                        String fid = reader.getAttributeValue(null, "fid");
+                        Integer id = parseFid(fid);
+                        String layer = fid == null || fid.indexOf('.') < 0 ? null : fid.substring(0, fid.indexOf('.'));
+                        if (id != null && targets.inserts.contains(layer)) {
+                            targets.add(layer, id);
+                            found.add(layer);
+                        }
+                    }
+                }
+                reader.close();
+            } catch (XMLStreamException e) {
+                log.warn("解析WFS-T响应失败：{}", e.getMessage());
+            }
+        }
+        for (String layer : targets.inserts) {
+            if (!failed && !found.contains(layer)) {
+                targets.all(layer);
+            }
+        }
+    }
+
+    // fid格式为 图层名.id
+    private static Integer parseFid(String fid) {
+        if (fid == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(fid.substring(fid.lastIndexOf('.') + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // 事务之后清除缓存并同步内存数据，单个图层失败不影响其他图层
+    private void sync(Targets targets) {
+        for (Map.Entry<String, Set<Integer>> entry : targets.layers.entrySet()) {
+            String layer = entry.getKey();
+            Set<Integer> ids = entry.getValue();
+            drop(layer);
+            try {
+                if (HYDRANT_LAYER.equals(layer)) {
+                    // 变更事件会继续清除瓦片、记录历史并逐个通知其他节点
+                    if (ids == null) {
+                        hydrantService.reload();
+                        clusterSyncService.publish(ResourceVersions.HYDRANTS, null);
+                    } else {
+                        ids.forEach(hydrantService::refresh);
+                    }
+                } else if (ROAD_LAYER.equals(layer)) {
+                    if (ids == null) {
+                        roadNetworkService.reload();
+                        clusterSyncService.publish(ResourceVersions.ROADS, null);
+                    } else {
+                        for (Integer id : ids) {
+                            roadNetworkService.refreshRoad(id);
+                            clusterSyncService.publish(ResourceVersions.ROADS, String.valueOf(id));
+                        }
+                    }
+                    evictTiles(layer);
+                } else if (BUILDING_LAYER.equals(layer)) {
+                    coverageService.reloadBuildings();
+                    clusterSyncService.publish(ResourceVersions.BUILDINGS, null);
+                    evictTiles(layer);
+                } else {
+                    clusterSyncService.publish(topic(layer), null);
+                    evictTiles(layer);
+                }
+            } catch (Exception e) {
+                log.warn("WFS-T事务后同步图层{}失败：{}", layer, e.getMessage());
+            }
+        }
+    }
+
+    // 清除图层的矢量瓦片；不出瓦片的图层只更新版本号，使代理接口的ETag变化
+    private void evictTiles(String layer) {
+        if (tileService.isLayerAllowed(layer)) {
+            tileService.evictLayer(layer);
+        } else {
+            resourceVersions.bump(ResourceVersions.layer(layer));
+        }
+    }
+
+    // 图层对应的集群同步主题：已有内存数据的图层沿用其资源名称
+    private static String topic(String layer) {
+        return switch (layer) {
+            case HYDRANT_LAYER -> ResourceVersions.HYDRANTS;
+            case ROAD_LAYER -> ResourceVersions.ROADS;
+            case BUILDING_LAYER -> ResourceVersions.BUILDINGS;
+            default -> ResourceVersions.layer(layer);
+        };
+    }
+
+    // 事务涉及的图层和要素ID，ID集合为null表示无法确定，整个图层同步
+    static final class Targets {
+        final Map<String, Set<Integer>> layers = new LinkedHashMap<>();
+        final Set<String> inserts = new HashSet<>(); // 有新增要素的图层
+
+        void touch(String layer) {
+            if (!layers.containsKey(layer)) {
+                layers.put(layer, new LinkedHashSet<>());
+            }
+        }
+
+        void add(String layer, int id) {
+            touch(layer);
+            Set<Integer> ids = layers.get(layer);
+            if (ids != null) {
+                ids.add(id);
+            }
+        }
+
+        void all(String layer) {
+            layers.put(layer, null);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.entity.Hydrant;
+import com.example.backend.event.HydrantChangedEvent;
+import com.example.backend.event.HydrantsReloadedEvent;
+import com.example.backend.service.HydrantClusterService;
+import com.example.backend.vo.HydrantCluster;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 消防栓聚合服务实现类
+ * 每个缩放级别一张网格表（Web墨卡托下每格约64像素），消防栓变更时只修改各级别中受影响的网格
+ */
+@Service
+public class HydrantClusterServiceImpl implements HydrantClusterService {
+    // 每个网格占的像素位数：瓦片256像素 / 网格64像素 = 2^2
+    private static final int CELL_BITS = 2;
+
+    private final int maxZoom; // 最大聚合级别，更大的缩放级别按此级别返回
+    private final List<Map<Long, Cell>> levels = new ArrayList<>(); // 第z项为z级网格表
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public HydrantClusterServiceImpl(@Value("${hydrant.cluster.max-zoom:18}") int maxZoom) {
+        this.maxZoom = maxZoom;
+        for (int z = 0; z <= maxZoom; z++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    // 全量加载后重建所有级别
+    @EventListener
+    public void onReloaded(HydrantsReloadedEvent event) {
+        lock.writeLock().lock();
+        try {
+            for (Map<Long, Cell> level : levels) {
+                level.clear();
+            }
+            for (Hydrant hydrant : event.getHydrants()) {
+                apply(hydrant, 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 单个消防栓变更：先减去旧快照，再加上新快照
+    @EventListener
+    public void onChanged(HydrantChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getBefore() != null) {
+                apply(event.getBefore(), -1);
+            }
+            if (event.getAfter() != null) {
+                apply(event.getAfter(), 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<HydrantCluster> getClusters(double minLng, double minLat, double maxLng, double maxLat, int zoom) {
+        int z = Math.max(0, Math.min(zoom, maxZoom));
+        int bits = z + CELL_BITS;
+        int x0 = cellIndex(mercatorX(minLng), bits);
+        int x1 = cellIndex(mercatorX(maxLng), bits);
+        int y0 = cellIndex(mercatorY(maxLat), bits); // 纬度越大y越小
+        int y1 = cellIndex(mercatorY(minLat), bits);
+        List<HydrantCluster> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            Map<Long, Cell> level = levels.get(z);
+            long span = (long) (x1 - x0 + 1) * (y1 - y0 + 1);
+            if (span <= level.size()) {
+                // 视野内网格数少于非空网格数：逐格查找
+                for (int x = x0; x <= x1; x++) {
+                    for (int y = y0; y <= y1; y++) {
+                        Cell cell = level.get(key(x, y));
+                        if (cell != null) {
+                            result.add(cell.toCluster());
+                        }
+                    }
+                }
+            } else {
+                // 否则遍历非空网格并过滤
+                for (Map.Entry<Long, Cell> entry : level.entrySet()) {
+                    int x = (int) (entry.getKey() >>> 32);
+                    int y = (int) (long) entry.getKey();
+                    if (x >= x0 && x <= x1 && y >= y0 && y <= y1) {
+                        result.add(entry.getValue().toCluster());
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    // 把一个消防栓计入（sign=1）或移出（sign=-1）每个级别的网格
+    private void apply(Hydrant hydrant, int sign) {
+        double mx = mercatorX(hydrant.getLng());
+        double my = mercatorY(hydrant.getLat());
+        for (int z = 0; z <= maxZoom; z++) {
+            int bits = z + CELL_BITS;
+            long key = key(cellIndex(mx, bits), cellIndex(my, bits));
+            Map<Long, Cell> level = levels.get(z);
+            Cell cell = level.get(key);
+            if (cell == null) {
+                if (sign < 0) {
+                    continue; // 旧快照不在索引中，忽略
+                }
+                cell = new Cell();
+                level.put(key, cell);
+            }
+            cell.add(hydrant, sign);
+            if (cell.count == 0) {
+                level.remove(key);
+            }
+        }
+    }
+
+    // 经度 -> 墨卡托x（0~1）
+    private static double mercatorX(double lng) {
+        return (lng + 180.0) / 360.0;
+    }
+
+    // 纬度 -> 墨卡托y（0~1，北边为0）
+    private static double mercatorY(double lat) {
+        double clamped = Math.max(-85.05112878, Math.min(85.05112878, lat));
+        double sin = Math.sin(Math.toRadians(clamped));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+
+    private static int cellIndex(double v, int bits) {
+        long size = 1L << bits;
+        long index = (long) Math.floor(v * size);
+        return (int) Math.max(0, Math.min(size - 1, index));
+    }
+
+    private static long key(int x, int y) {
+        return ((long) x << 32) | (y & 0xffffffffL);
+    }
+
+    // 网格聚合值，全部用基本类型累加，增删都是O(1)
+    private static final class Cell {
+        int count;
+        int normal;
+        int error;
+        int repairing;
+        double sumLng;
+        double sumLat;
+        int idXor; // 所有ID的异或值，count为1时就是唯一消防栓的ID
+
+        void add(Hydrant hydrant, int sign) {
+            count += sign;
+            String status = hydrant.getCurrentStatus();
+            if (Hydrant.STATUS_NORMAL.equals(status)) {
+                normal += sign;
+            } else if (Hydrant.STATUS_ERROR.equals(status)) {
+                error += sign;
+            } else if (Hydrant.STATUS_REPAIRING.equals(status)) {
+                repairing += sign;
+            }
+            sumLng += sign * hydrant.getLng();
+            sumLat += sign * hydrant.getLat();
+            idXor ^= hydrant.getId();
+        }
+
+        HydrantCluster toCluster() {
+            return new HydrantCluster(sumLng / count, sumLat / count, count,
+                    normal, error, repairing, count == 1 ? idXor : null);
+        }
+    }
+}
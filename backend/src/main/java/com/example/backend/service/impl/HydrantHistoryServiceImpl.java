@@ -0,0 +1,429 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.entity.Hydrant;
+import com.example.backend.event.HydrantChangedEvent;
+import com.example.backend.event.HydrantsReloadedEvent;
+import com.example.backend.service.ClusterSyncService;
+import com.example.backend.service.HydrantHistoryService;
+import com.example.backend.vo.HydrantChange;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 消防栓历史服务实现类
+ * 变更事件只进入内存队列，由单个后台线程与上次记录的状态比较后批量追加到日志表；
+ * 每追加snapshot-every条生成一次全图层快照，因此任意时刻的查询最多重放snapshot-every条日志；
+ * 快照由上一个快照和数据库中的日志生成，多个节点同时写日志时也与日志顺序一致
+ * 日志每行保存变更后的完整属性，单个消防栓的历史状态一次索引查询即可取到
+ */
+@Service
+public class HydrantHistoryServiceImpl implements HydrantHistoryService {
+    private static final Logger log = LoggerFactory.getLogger(HydrantHistoryServiceImpl.class);
+
+    private static final String INSERT_CHANGE =
+            "INSERT INTO hydrant_change (hydrant_id, ts, op, state) VALUES (?, ?, ?, ?::jsonb)";
+    private static final String INSERT_SNAPSHOT =
+            "INSERT INTO hydrant_snapshot (ts, last_seq, count, data) VALUES (?, ?, ?, ?)";
+    // 本连接最后生成的日志序号（与插入在同一事务内执行）
+    private static final String LAST_SEQ = "SELECT currval(pg_get_serial_sequence('hydrant_change', 'seq'))";
+    private static final String CHANGE_COLUMNS = "SELECT seq, hydrant_id, ts, op, state FROM hydrant_change";
+    private static final TypeReference<List<Hydrant>> SNAPSHOT_TYPE = new TypeReference<>() {
+    };
+    private static final int SNAPSHOT_CACHE_SIZE = 4; // 解压后的快照缓存个数
+    // 快照咨询锁ID：写日志的事务持有共享锁，生成快照时持有排他锁，保证序号不超过快照的日志都已提交
+    private static final long SNAPSHOT_LOCK_ID = 0x68736e6170000000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ClusterSyncService clusterSyncService;
+    private final BlockingQueue<Entry> queue; // 待写入的变更
+    private final int snapshotEvery; // 每追加多少条日志生成一次快照
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "hydrant-history");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 以下字段只由写线程访问
+    private Map<Integer, Hydrant> logged; // 日志中记录的最新状态，首次写入前从数据库恢复
+    private final List<Entry> pending = new ArrayList<>(); // 已出队但尚未写入成功的变更
+    private long lastSeq; // 本节点最后一条日志的序号
+    private long sinceSnapshot; // 最近一次快照之后追加的日志条数（本节点计数，生成快照前按数据库核对）
+
+    // 解压后的快照：快照id -> 全图层状态（只读）
+    private final Map<Long, Map<Integer, Hydrant>> snapshotCache =
+            new LinkedHashMap<>(SNAPSHOT_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Map<Integer, Hydrant>> eldest) {
+                    return size() > SNAPSHOT_CACHE_SIZE;
+                }
+            };
+
+    // 运行计数
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong snapshots = new AtomicLong();
+
+    public HydrantHistoryServiceImpl(JdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     ObjectMapper objectMapper,
+                                     ClusterSyncService clusterSyncService,
+                                     @Value("${hydrant.history.queue-capacity:100000}") int queueCapacity,
+                                     @Value("${hydrant.history.snapshot-every:5000}") int snapshotEvery,
+                                     @Value("${hydrant.history.flush-interval-ms:1000}") long flushIntervalMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.clusterSyncService = clusterSyncService;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+        this.snapshotEvery = snapshotEvery;
+        writer.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // 全量加载：与日志中的状态比较，补记期间在其他地方（如GeoServer直接编辑）发生的变更
+    @EventListener
+    public void onHydrantsReloaded(HydrantsReloadedEvent event) {
+        enqueue(new Entry(System.currentTimeMillis(), null, null, new ArrayList<>(event.getHydrants()), record()));
+    }
+
+    @EventListener
+    public void onHydrantChanged(HydrantChangedEvent event) {
+        enqueue(new Entry(System.currentTimeMillis(), event.getId(), event.getAfter(), null, record()));
+    }
+
+    // 其他节点的变更已由发起节点记录，本节点只更新内存中的状态，不重复写日志
+    private boolean record() {
+        return !clusterSyncService.isApplyingRemote();
+    }
+
+    // 队列满时丢弃：丢失的变更在下次全量加载时会按差异补记
+    private void enqueue(Entry entry) {
+        if (!queue.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    // 把队列中的变更写入日志，失败时保留在pending中下次重试
+    private synchronized void flush() {
+        try {
+            if (logged == null) {
+                recover();
+            }
+            if (pending.isEmpty()) {
+                queue.drainTo(pending); // 上一批未写入成功时先重试上一批，新变更留在队列中
+            }
+            if (!pending.isEmpty()) {
+                append();
+            }
+            if (sinceSnapshot >= snapshotEvery) {
+                snapshot();
+            }
+        } catch (Exception e) {
+            log.warn("写入消防栓变更日志失败，{}条待重试：{}", pending.size(), e.getMessage());
+        }
+    }
+
+    // 从最近的快照和之后的日志恢复日志中的最新状态
+    private void recover() {
+        Snapshot snapshot = latestSnapshot(null);
+        Map<Integer, Hydrant> state = new HashMap<>();
+        long seq = 0;
+        if (snapshot != null) {
+            state.putAll(loadSnapshot(snapshot.id));
+            seq = snapshot.lastSeq;
+        }
+        List<HydrantChange> changes = jdbcTemplate.query(CHANGE_COLUMNS + " WHERE seq > ? ORDER BY seq",
+                this::mapChange, seq);
+        for (HydrantChange change : changes) {
+            apply(state, change.getHydrantId(), change.getState());
+            seq = change.getSeq();
+        }
+        logged = state;
+        lastSeq = seq;
+        sinceSnapshot = changes.size();
+        log.info("已恢复消防栓变更日志，最新序号{}", lastSeq);
+    }
+
+    // 与日志中的状态逐个比较，只追加真正发生变化的要素
+    private void append() {
+        Map<Integer, Hydrant> overlay = new HashMap<>(); // 本批次内的新状态，删除时值为null
+        List<Object[]> rows = new ArrayList<>();
+        for (Entry entry : pending) {
+            if (entry.all == null) {
+                diff(overlay, entry.record ? rows : null, entry.ts, entry.id, entry.state);
+                continue;
+            }
+            List<Object[]> target = entry.record ? rows : null;
+            Map<Integer, Hydrant> current = new HashMap<>();
+            for (Hydrant hydrant : entry.all) {
+                current.put(hydrant.getId(), hydrant);
+                diff(overlay, target, entry.ts, hydrant.getId(), hydrant);
+            }
+            List<Integer> known = new ArrayList<>(logged.keySet());
+            known.addAll(overlay.keySet());
+            for (Integer id : known) {
+                if (!current.containsKey(id)) {
+                    diff(overlay, target, entry.ts, id, null);
+                }
+            }
+        }
+        if (!rows.isEmpty()) {
+            Long seq = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("SELECT pg_advisory_xact_lock_shared(" + SNAPSHOT_LOCK_ID + ")");
+                jdbcTemplate.batchUpdate(INSERT_CHANGE, rows);
+                return jdbcTemplate.queryForObject(LAST_SEQ, Long.class);
+            });
+            lastSeq = seq != null ? seq : lastSeq;
+            sinceSnapshot += rows.size();
+            written.addAndGet(rows.size());
+        }
+        for (Map.Entry<Integer, Hydrant> change : overlay.entrySet()) {
+            apply(logged, change.getKey(), change.getValue());
+        }
+        pending.clear();
+    }
+
+    // 比较一个要素的新状态与已记录状态，不同时生成一行日志（rows为null时只更新状态）
+    private void diff(Map<Integer, Hydrant> overlay, List<Object[]> rows, long ts, Integer id, Hydrant state) {
+        Hydrant previous = overlay.containsKey(id) ? overlay.get(id) : logged.get(id);
+        if (state == null ? previous == null : previous != null && state.isSameState(previous)) {
+            return;
+        }
+        Hydrant copy = null;
+        String op = HydrantChange.DELETE;
+        if (state != null) {
+            copy = new Hydrant(state);
+            copy.setVersion(0); // 版本号只用于乐观锁，不写入日志
+            op = previous == null ? HydrantChange.INSERT : HydrantChange.UPDATE;
+        }
+        overlay.put(id, copy);
+        if (rows != null) {
+            rows.add(new Object[]{id, new Timestamp(ts), op, copy == null ? null : toJson(copy)});
+        }
+    }
+
+    // 在排他咨询锁内，用上一个快照重放之后已提交的全部日志生成新快照
+    // 不使用本节点内存中的状态：其他节点的变更经集群同步到达，与日志序号的先后不一定一致
+    private void snapshot() {
+        Long since = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("SELECT pg_advisory_xact_lock(" + SNAPSHOT_LOCK_ID + ")");
+            Snapshot previous = latestSnapshot(null);
+            Map<Integer, Hydrant> state = new HashMap<>();
+            long[] last = {0, 0, 0}; // 最后一条日志的序号、时间，重放条数
+            if (previous != null) {
+                state.putAll(loadSnapshot(previous.id));
+                last[0] = previous.lastSeq;
+            }
+            long from = last[0];
+            jdbcTemplate.query(CHANGE_COLUMNS + " WHERE seq > ? ORDER BY seq", rs -> {
+                HydrantChange change = mapChange(rs, 0);
+                apply(state, change.getHydrantId(), change.getState());
+                last[0] = change.getSeq();
+                last[1] = change.getTs();
+                last[2]++;
+            }, from);
+            if (last[2] < snapshotEvery) {
+                return last[2]; // 其他节点刚生成过快照，或各节点合计尚不足snapshot-every条
+            }
+            List<Hydrant> hydrants = new ArrayList<>(state.values());
+            hydrants.sort(Comparator.comparing(Hydrant::getId));
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (OutputStream out = new GZIPOutputStream(bytes)) {
+                objectMapper.writeValue(out, hydrants);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            jdbcTemplate.update(INSERT_SNAPSHOT, new Timestamp(last[1]), last[0], hydrants.size(), bytes.toByteArray());
+            snapshots.incrementAndGet();
+            log.info("已生成消防栓快照：{}个要素，序号{}，{}字节", hydrants.size(), last[0], bytes.size());
+            return 0L;
+        });
+        sinceSnapshot = since != null ? since : 0;
+    }
+
+    @Override
+    public Hydrant getHydrantAt(Integer id, long ts) {
+        Timestamp at = new Timestamp(ts);
+        // 当时最近的一次变更即为当时的状态
+        List<HydrantChange> changes = jdbcTemplate.query(CHANGE_COLUMNS
+                + " WHERE hydrant_id = ? AND ts <= ? ORDER BY ts DESC, seq DESC LIMIT 1", this::mapChange, id, at);
+        if (!changes.isEmpty()) {
+            return changes.get(0).getState();
+        }
+        // 没有日志时只可能来自快照（日志开始前已存在且之后未变化）
+        Snapshot snapshot = latestSnapshot(at);
+        return snapshot == null ? null : loadSnapshot(snapshot.id).get(id);
+    }
+
+    @Override
+    public List<Hydrant> getLayerAt(long ts) {
+        Timestamp at = new Timestamp(ts);
+        Snapshot snapshot = latestSnapshot(at);
+        Map<Integer, Hydrant> state = new HashMap<>();
+        long seq = 0;
+        if (snapshot != null) {
+            state.putAll(loadSnapshot(snapshot.id));
+            seq = snapshot.lastSeq;
+        }
+        // 重放快照之后、指定时刻之前的变更（最多snapshot-every条）
+        jdbcTemplate.query(CHANGE_COLUMNS + " WHERE seq > ? AND ts <= ? ORDER BY seq", rs -> {
+            HydrantChange change = mapChange(rs, 0);
+            apply(state, change.getHydrantId(), change.getState());
+        }, seq, at);
+        List<Hydrant> result = new ArrayList<>(state.values());
+        result.sort(Comparator.comparing(Hydrant::getId));
+        return result;
+    }
+
+    @Override
+    public List<HydrantChange> getChanges(Integer id, long from, long to, int limit) {
+        return jdbcTemplate.query(CHANGE_COLUMNS + " WHERE hydrant_id = ? AND ts >= ? AND ts < ? ORDER BY ts, seq LIMIT ?",
+                this::mapChange, id, new Timestamp(from), new Timestamp(to), limit);
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("queued", queue.size());
+        status.put("written", written.get());
+        status.put("dropped", dropped.get());
+        status.put("snapshots", snapshots.get());
+        return status;
+    }
+
+    // 关闭前把队列中剩余的变更写完
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        writer.shutdown();
+        writer.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    // 查找不晚于指定时刻的最近快照，at为null时取最新快照
+    private Snapshot latestSnapshot(Timestamp at) {
+        String sql = "SELECT id, ts, last_seq FROM hydrant_snapshot"
+                + (at == null ? "" : " WHERE ts <= ?") + " ORDER BY ts DESC, id DESC LIMIT 1";
+        Object[] args = at == null ? new Object[0] : new Object[]{at};
+        List<Snapshot> result = jdbcTemplate.query(sql,
+                (rs, i) -> new Snapshot(rs.getLong(1), rs.getTimestamp(2).getTime(), rs.getLong(3)), args);
+        return result.isEmpty() ? null : result.get(0);
+    }
+
+    // 读取并解压快照，最近用过的几个快照缓存在内存中
+    private Map<Integer, Hydrant> loadSnapshot(long id) {
+        synchronized (snapshotCache) {
+            Map<Integer, Hydrant> cached = snapshotCache.get(id);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        byte[] data = jdbcTemplate.queryForObject("SELECT data FROM hydrant_snapshot WHERE id = ?", byte[].class, id);
+        Map<Integer, Hydrant> state = new HashMap<>();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            for (Hydrant hydrant : objectMapper.readValue(in, SNAPSHOT_TYPE)) {
+                state.put(hydrant.getId(), hydrant);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Map<Integer, Hydrant> result = Collections.unmodifiableMap(state);
+        synchronized (snapshotCache) {
+            snapshotCache.put(id, result);
+        }
+        return result;
+    }
+
+    private HydrantChange mapChange(ResultSet rs, int rowNum) throws SQLException {
+        String json = rs.getString(5);
+        Hydrant state = null;
+        if (json != null) {
+            try {
+                state = objectMapper.readValue(json, Hydrant.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return new HydrantChange(rs.getLong(1), rs.getInt(2), rs.getTimestamp(3).getTime(), rs.getString(4).trim(), state);
+    }
+
+    private String toJson(Hydrant hydrant) {
+        try {
+            return objectMapper.writeValueAsString(hydrant);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void apply(Map<Integer, Hydrant> state, Integer id, Hydrant hydrant) {
+        if (hydrant == null) {
+            state.remove(id);
+        } else {
+            state.put(id, hydrant);
+        }
+    }
+
+    // 队列中的一项：单个要素变更（all为null）或一次全量加载
+    private static final class Entry {
+        final long ts;
+        final Integer id;
+        final Hydrant state;
+        final Collection<Hydrant> all;
+        final boolean record; // 是否写入日志
+
+        Entry(long ts, Integer id, Hydrant state, Collection<Hydrant> all, boolean record) {
+            this.ts = ts;
+            this.id = id;
+            this.state = state;
+            this.all = all;
+            this.record = record;
+        }
+    }
+
+    private static final class Snapshot {
+        final long id;
+        final long ts;
+        final long lastSeq;
+
+        Snapshot(long id, long ts, long lastSeq) {
+            this.id = id;
+            this.ts = ts;
+            this.lastSeq = lastSeq;
+        }
+    }
+}
@@ -0,0 +1,424 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.entity.Hydrant;
+import com.example.backend.event.ClusterChangeEvent;
+import com.example.backend.event.HydrantChangedEvent;
+import com.example.backend.event.HydrantsReloadedEvent;
+import com.example.backend.mapper.HydrantMapper;
+import com.example.backend.service.HydrantService;
+import com.example.backend.utils.ResourceVersions;
+import com.example.backend.vo.HydrantOperation;
+import com.example.backend.vo.HydrantOperationResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 消防栓服务实现类
+ * 快照对象创建后不再修改，变更时整体替换，读操作无需加锁
+ */
+@Service
+public class HydrantServiceImpl implements HydrantService {
+    private static final Logger log = LoggerFactory.getLogger(HydrantServiceImpl.class);
+
+    private static final String HYDRANT_LAYER = "sdjzdx_FireHydranty_Point";
+
+    // 批量编辑SQL：前端提交EPSG:4326经纬度，写入时转换到geom字段的SRID（%d，首次编辑时读取）
+    private static final String NEXT_IDS = "SELECT nextval(pg_get_serial_sequence('" + HydrantMapper.TABLE
+            + "', 'id')) FROM generate_series(1, ?)";
+    private static final String INSERT = "INSERT INTO " + HydrantMapper.TABLE
+            + " (\"id\", \"Name\", \"currentStatus\", \"currentPressure\", \"managementUnit\", \"installationDate\", geom)"
+            + " VALUES (?, ?, ?, ?, ?, ?, ST_Transform(ST_SetSRID(ST_MakePoint(?, ?), 4326), %d))";
+    // 为null的字段保持原值；版本号为null时不校验，version列由触发器加1（见db/hydrant_version.sql）
+    private static final String UPDATE = "UPDATE " + HydrantMapper.TABLE + " SET"
+            + " \"Name\" = COALESCE(?, \"Name\"),"
+            + " \"currentStatus\" = COALESCE(?, \"currentStatus\"),"
+            + " \"currentPressure\" = COALESCE(?, \"currentPressure\"),"
+            + " \"managementUnit\" = COALESCE(?, \"managementUnit\"),"
+            + " \"installationDate\" = COALESCE(?, \"installationDate\"),"
+            + " geom = COALESCE(ST_Transform(ST_SetSRID(ST_MakePoint(?, ?), 4326), %d), geom)"
+            + " WHERE \"id\" = ? AND \"version\" = COALESCE(?, \"version\")";
+    private static final String DELETE = "DELETE FROM " + HydrantMapper.TABLE
+            + " WHERE \"id\" = ? AND \"version\" = COALESCE(?, \"version\")";
+    private static final String SELECT_VERSIONS = "SELECT \"id\", \"version\" FROM " + HydrantMapper.TABLE
+            + " WHERE \"id\" = ANY(?)";
+
+    @Autowired
+    private HydrantMapper hydrantMapper;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private ResourceVersions resourceVersions;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // 内存快照：id -> 消防栓
+    private final Map<Integer, Hydrant> hydrants = new ConcurrentHashMap<>();
+    // geom字段的SRID，0表示尚未读取
+    private volatile int srid;
+
+    // 应用启动完成后加载，数据库不可用时只记录日志，不影响启动
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("加载消防栓数据失败：{}", e.getMessage());
+        }
+    }
+
+    // 其他节点编辑了消防栓：重新读取，本地的聚合、统计等随之更新
+    @EventListener
+    public void onClusterChange(ClusterChangeEvent event) {
+        if (!event.matches(ResourceVersions.HYDRANTS)) {
+            return;
+        }
+        if (event.isAll()) {
+            reload();
+        } else {
+            refresh(event.getId());
+        }
+    }
+
+    @Override
+    public synchronized void reload() {
+        List<Hydrant> rows = hydrantMapper.selectAll();
+        hydrants.clear();
+        for (Hydrant hydrant : rows) {
+            hydrants.put(hydrant.getId(), hydrant);
+        }
+        publish(new HydrantsReloadedEvent(list()));
+        log.info("已加载消防栓{}个", hydrants.size());
+    }
+
+    @Override
+    public Collection<Hydrant> list() {
+        return Collections.unmodifiableCollection(hydrants.values());
+    }
+
+    @Override
+    public Hydrant getById(Integer id) {
+        return hydrants.get(id);
+    }
+
+    @Override
+    public synchronized Hydrant refresh(Integer id) {
+        Hydrant before = hydrants.get(id);
+        Hydrant after = hydrantMapper.selectById(id);
+        if (after == null) {
+            if (before == null) {
+                return null; // 内存和数据库都不存在，无需发布事件
+            }
+            hydrants.remove(id);
+        } else {
+            hydrants.put(id, after);
+        }
+        publish(new HydrantChangedEvent(before, after));
+        return after;
+    }
+
+    @Override
+    public synchronized List<HydrantOperationResult> applyBatch(List<HydrantOperation> operations, boolean atomic) {
+        List<HydrantOperationResult> results = new ArrayList<>();
+        List<Integer> inserts = new ArrayList<>(); // 通过校验的操作下标
+        List<Integer> updates = new ArrayList<>();
+        List<Integer> deletes = new ArrayList<>();
+        Set<Integer> touched = new HashSet<>(); // 同一批次内每个要素只允许一个操作
+        boolean rejected = false;
+        // 1. 校验参数和存在性（版本号在数据库中校验，内存快照可能落后于其他节点或GeoServer的修改）
+        for (int i = 0; i < operations.size(); i++) {
+            HydrantOperation operation = operations.get(i);
+            HydrantOperationResult result = new HydrantOperationResult(i, operation.getOp(), operation.getId());
+            results.add(result);
+            String error = validate(operation, result, touched);
+            if (error != null) {
+                rejected = true;
+                continue;
+            }
+            switch (operation.getOp()) {
+                case HydrantOperation.INSERT -> inserts.add(i);
+                case HydrantOperation.UPDATE -> updates.add(i);
+                default -> deletes.add(i);
+            }
+        }
+        if (rejected && atomic) {
+            for (HydrantOperationResult result : results) {
+                if (result.getStatus() == null) {
+                    result.fail(HydrantOperationResult.ABORTED, "同批次其他操作失败");
+                }
+            }
+            return results;
+        }
+        if (inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty()) {
+            return results;
+        }
+        // 2. 一次取出新增要素所需的全部ID
+        if (!inserts.isEmpty()) {
+            List<Integer> ids = jdbcTemplate.queryForList(NEXT_IDS, Integer.class, inserts.size());
+            for (int k = 0; k < inserts.size(); k++) {
+                results.get(inserts.get(k)).setId(ids.get(k));
+            }
+        }
+        // 3. 一个事务内按类型批量执行；修改和删除带版本号条件，执行后读取相关要素的当前版本号
+        int[] updateCounts = new int[0];
+        int[] deleteCounts = new int[0];
+        Map<Integer, Long> versions = new HashMap<>();
+        List<int[]> counts = new TransactionTemplate(transactionManager).execute(status -> {
+            List<int[]> list = new ArrayList<>();
+            int geomSrid = srid();
+            list.add(batch(String.format(INSERT, geomSrid), inserts, (ps, i) -> {
+                HydrantOperation o = operations.get(i);
+                ps.setInt(1, results.get(i).getId());
+                bindProperties(ps, 2, o);
+                ps.setDouble(7, o.getLng());
+                ps.setDouble(8, o.getLat());
+            }));
+            list.add(batch(String.format(UPDATE, geomSrid), updates, (ps, i) -> {
+                HydrantOperation o = operations.get(i);
+                bindProperties(ps, 1, o);
+                ps.setObject(6, o.getLng(), Types.DOUBLE);
+                ps.setObject(7, o.getLat(), Types.DOUBLE);
+                ps.setInt(8, o.getId());
+                ps.setObject(9, o.getVersion(), Types.BIGINT);
+            }));
+            list.add(batch(DELETE, deletes, (ps, i) -> {
+                HydrantOperation o = operations.get(i);
+                ps.setInt(1, o.getId());
+                ps.setObject(2, o.getVersion(), Types.BIGINT);
+            }));
+            List<Integer> ids = new ArrayList<>();
+            for (int i : updates) {
+                ids.add(operations.get(i).getId());
+            }
+            for (int i : deletes) {
+                ids.add(operations.get(i).getId());
+            }
+            versions.putAll(selectVersions(ids));
+            // 整批模式下有修改或删除未生效（版本冲突或已被删除）时全部回滚
+            if (atomic && (containsZero(list.get(1)) || containsZero(list.get(2)))) {
+                status.setRollbackOnly();
+            }
+            return list;
+        });
+        if (counts != null) {
+            updateCounts = counts.get(1);
+            deleteCounts = counts.get(2);
+        }
+        boolean rolledBack = atomic && (containsZero(updateCounts) || containsZero(deleteCounts));
+        // 4. 提交成功后更新内存快照并发布变更事件
+        for (int i : inserts) {
+            HydrantOperationResult result = results.get(i);
+            if (rolledBack) {
+                result.fail(HydrantOperationResult.ABORTED, "同批次其他操作失败");
+                continue;
+            }
+            Hydrant after = new Hydrant();
+            after.setId(result.getId());
+            overlay(after, operations.get(i));
+            after.setVersion(1);
+            commit(null, after, result);
+        }
+        for (int k = 0; k < updates.size(); k++) {
+            int i = updates.get(k);
+            HydrantOperationResult result = results.get(i);
+            if (k < updateCounts.length && updateCounts[k] == 0) {
+                failStale(result, versions);
+                continue;
+            }
+            if (rolledBack) {
+                result.fail(HydrantOperationResult.ABORTED, "同批次其他操作失败");
+                continue;
+            }
+            Hydrant before = hydrants.get(result.getId());
+            Hydrant after = new Hydrant(before);
+            overlay(after, operations.get(i));
+            after.setVersion(versions.getOrDefault(result.getId(), before.getVersion() + 1));
+            commit(before, after, result);
+        }
+        for (int k = 0; k < deletes.size(); k++) {
+            int i = deletes.get(k);
+            HydrantOperationResult result = results.get(i);
+            if (k < deleteCounts.length && deleteCounts[k] == 0) {
+                failStale(result, versions);
+                continue;
+            }
+            if (rolledBack) {
+                result.fail(HydrantOperationResult.ABORTED, "同批次其他操作失败");
+                continue;
+            }
+            result.setStatus(HydrantOperationResult.OK);
+            Hydrant before = hydrants.remove(result.getId());
+            if (before != null) {
+                publish(new HydrantChangedEvent(before, null));
+            }
+        }
+        return results;
+    }
+
+    // 修改或删除未生效：要素仍存在说明版本号不一致，返回当前版本号并按数据库刷新快照；否则要素已被其他途径删除
+    private void failStale(HydrantOperationResult result, Map<Integer, Long> versions) {
+        Integer id = result.getId();
+        Long version = versions.get(id);
+        if (version != null) {
+            result.fail(HydrantOperationResult.CONFLICT, "要素已被修改");
+            result.setVersion(version);
+            Hydrant current = hydrants.get(id);
+            if (current == null || current.getVersion() != version) {
+                refresh(id);
+            }
+            return;
+        }
+        result.fail(HydrantOperationResult.NOT_FOUND, "要素不存在");
+        Hydrant before = hydrants.remove(id);
+        if (before != null) {
+            publish(new HydrantChangedEvent(before, null));
+        }
+    }
+
+    // 读取要素在数据库中的当前版本号，已不存在的要素不在结果中
+    private Map<Integer, Long> selectVersions(List<Integer> ids) {
+        Map<Integer, Long> versions = new HashMap<>();
+        if (ids.isEmpty()) {
+            return versions;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(SELECT_VERSIONS);
+            ps.setArray(1, connection.createArrayOf("integer", ids.toArray()));
+            return ps;
+        }, (RowCallbackHandler) rs -> versions.put(rs.getInt(1), rs.getLong(2)));
+        return versions;
+    }
+
+    private static boolean containsZero(int[] counts) {
+        for (int count : counts) {
+            if (count == 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // 校验单个操作，失败时写入结果并返回错误信息
+    private String validate(HydrantOperation operation, HydrantOperationResult result, Set<Integer> touched) {
+        String op = operation.getOp();
+        String error = null;
+        String status = HydrantOperationResult.INVALID;
+        if (HydrantOperation.INSERT.equals(op)) {
+            if (operation.getLng() == null || operation.getLat() == null) {
+                error = "新增要素缺少坐标";
+            }
+        } else if (HydrantOperation.UPDATE.equals(op) || HydrantOperation.DELETE.equals(op)) {
+            Hydrant current = operation.getId() == null ? null : hydrants.get(operation.getId());
+            if (operation.getId() == null) {
+                error = "缺少要素ID";
+            } else if (!touched.add(operation.getId())) {
+                error = "同一批次内重复操作同一要素";
+            } else if (current == null) {
+                status = HydrantOperationResult.NOT_FOUND;
+                error = "要素不存在";
+            } else if ((operation.getLng() == null) != (operation.getLat() == null)) {
+                error = "经纬度需同时提供";
+            }
+        } else {
+            error = "不支持的操作类型：" + op;
+        }
+        if (error != null) {
+            result.fail(status, error);
+        }
+        return error;
+    }
+
+    // 按下标批量执行一类操作
+    // 读取geom字段声明的SRID（未声明时取一行数据的SRID，没有数据时按4326处理），与导出服务一致
+    private int srid() {
+        int value = srid;
+        if (value == 0) {
+            List<Integer> declared = jdbcTemplate.queryForList("SELECT postgis_typmod_srid(a.atttypmod) FROM pg_attribute a "
+                    + "WHERE a.attrelid = to_regclass(?) AND a.attname = 'geom'", Integer.class, HydrantMapper.TABLE);
+            value = declared.isEmpty() || declared.get(0) == null ? 0 : declared.get(0);
+            if (value <= 0) {
+                List<Integer> found = jdbcTemplate.queryForList("SELECT ST_SRID(geom) FROM " + HydrantMapper.TABLE
+                        + " WHERE geom IS NOT NULL LIMIT 1", Integer.class);
+                value = found.isEmpty() || found.get(0) == null || found.get(0) <= 0 ? 4326 : found.get(0);
+            }
+            srid = value;
+        }
+        return value;
+    }
+
+    private int[] batch(String sql, List<Integer> indexes, IndexSetter setter) {
+        if (indexes.isEmpty()) {
+            return new int[0];
+        }
+        return jdbcTemplate.execute(sql, (PreparedStatement ps) -> {
+            for (int i : indexes) {
+                setter.set(ps, i);
+                ps.addBatch();
+            }
+            return ps.executeBatch();
+        });
+    }
+
+    // 绑定5个属性字段，安装日期按未知类型发送，由数据库按列类型转换
+    private static void bindProperties(PreparedStatement ps, int start, HydrantOperation o) throws SQLException {
+        ps.setString(start, o.getName());
+        ps.setString(start + 1, o.getCurrentStatus());
+        ps.setObject(start + 2, o.getCurrentPressure(), Types.DOUBLE);
+        ps.setString(start + 3, o.getManagementUnit());
+        ps.setObject(start + 4, o.getInstallationDate(), Types.OTHER);
+    }
+
+    // 把操作中不为null的字段覆盖到快照上
+    private static void overlay(Hydrant hydrant, HydrantOperation o) {
+        if (o.getName() != null) hydrant.setName(o.getName());
+        if (o.getCurrentStatus() != null) hydrant.setCurrentStatus(o.getCurrentStatus());
+        if (o.getCurrentPressure() != null) hydrant.setCurrentPressure(o.getCurrentPressure());
+        if (o.getManagementUnit() != null) hydrant.setManagementUnit(o.getManagementUnit());
+        if (o.getInstallationDate() != null) hydrant.setInstallationDate(o.getInstallationDate());
+        if (o.getLng() != null) hydrant.setLng(o.getLng());
+        if (o.getLat() != null) hydrant.setLat(o.getLat());
+    }
+
+    // 替换快照并发布事件
+    private void commit(Hydrant before, Hydrant after, HydrantOperationResult result) {
+        hydrants.put(after.getId(), after);
+        result.setStatus(HydrantOperationResult.OK);
+        result.setVersion(after.getVersion());
+        publish(new HydrantChangedEvent(before, after));
+    }
+
+    @FunctionalInterface
+    private interface IndexSetter {
+        void set(PreparedStatement ps, int index) throws SQLException;
+    }
+
+    // 发布事件后再更新版本号：监听器是同步执行的，此时聚合、统计等已更新完毕，新ETag不会对应旧数据
+    private void publish(Object event) {
+        eventPublisher.publishEvent(event);
+        resourceVersions.bump(ResourceVersions.HYDRANTS);
+        resourceVersions.bump(ResourceVersions.layer(HYDRANT_LAYER));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.entity.Hydrant;
+import com.example.backend.event.HydrantChangedEvent;
+import com.example.backend.event.HydrantsReloadedEvent;
+import com.example.backend.service.HydrantStatsService;
+import com.example.backend.vo.HydrantStats;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+
+/**
+ * 消防栓统计服务实现类
+ * 全部使用基本类型计数器，每次变更先减去旧值再加上新值
+ */
+@Service
+public class HydrantStatsServiceImpl implements HydrantStatsService {
+    // 压力区间（与前端PRESSURE_RANGES一致，区间左闭右开）
+    private static final double[] PRESSURE_BOUNDS = {0.15, 0.3, 0.6};
+    private static final String[] PRESSURE_LABELS = {"<0.15", "0.15-0.3", "0.3-0.6", ">0.6"};
+
+    private long total;
+    private long normal;
+    private long error;
+    private long repairing;
+    private final long[] pressureCounts = new long[PRESSURE_LABELS.length];
+    private long pressureSamples; // 有压力值的消防栓数量
+    private double pressureSum; // 压力总和
+
+    @EventListener
+    public synchronized void onReloaded(HydrantsReloadedEvent event) {
+        total = normal = error = repairing = pressureSamples = 0;
+        pressureSum = 0;
+        Arrays.fill(pressureCounts, 0);
+        for (Hydrant hydrant : event.getHydrants()) {
+            apply(hydrant, 1);
+        }
+    }
+
+    @EventListener
+    public synchronized void onChanged(HydrantChangedEvent event) {
+        if (event.getBefore() != null) {
+            apply(event.getBefore(), -1);
+        }
+        if (event.getAfter() != null) {
+            apply(event.getAfter(), 1);
+        }
+    }
+
+    @Override
+    public synchronized HydrantStats getStats() {
+        double avg = pressureSamples == 0 ? 0 : Math.round(pressureSum / pressureSamples * 100) / 100.0;
+        return new HydrantStats(total, normal, error, repairing,
+                PRESSURE_LABELS, pressureCounts.clone(), avg);
+    }
+
+    // 计入（sign=1）或移出（sign=-1）一个消防栓
+    private void apply(Hydrant hydrant, int sign) {
+        total += sign;
+        String status = hydrant.getCurrentStatus();
+        if (Hydrant.STATUS_NORMAL.equals(status)) {
+            normal += sign;
+        } else if (Hydrant.STATUS_ERROR.equals(status)) {
+            error += sign;
+        } else if (Hydrant.STATUS_REPAIRING.equals(status)) {
+            repairing += sign;
+        }
+        Double pressure = hydrant.getCurrentPressure();
+        if (pressure != null) {
+            pressureCounts[pressureBucket(pressure)] += sign;
+            pressureSamples += sign;
+            pressureSum += sign * pressure;
+        }
+    }
+
+    private static int pressureBucket(double pressure) {
+        int i = 0;
+        while (i < PRESSURE_BOUNDS.length && pressure >= PRESSURE_BOUNDS[i]) {
+            i++;
+        }
+        return i;
+    }
+}
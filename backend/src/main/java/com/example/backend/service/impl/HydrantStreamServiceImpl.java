@@ -0,0 +1,176 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.entity.Hydrant;
+import com.example.backend.event.HydrantChangedEvent;
+import com.example.backend.event.HydrantsReloadedEvent;
+import com.example.backend.service.HydrantStreamService;
+import com.example.backend.vo.HydrantDelta;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 消防栓变更推送服务实现类
+ * 变更先在合并窗口内按要素ID合并，窗口结束时只序列化一次，再发给所有订阅者；
+ * 全量重新加载后无法逐个计算差异，改为发送reset事件，客户端收到后重新获取全部数据
+ */
+@Service
+public class HydrantStreamServiceImpl implements HydrantStreamService {
+    private static final Logger log = LoggerFactory.getLogger(HydrantStreamServiceImpl.class);
+
+    private final ObjectMapper objectMapper;
+    private final long timeoutMs; // 单个连接超时时间，超时后浏览器EventSource会自动重连
+    private final List<SseEmitter> subscribers = new CopyOnWriteArrayList<>();
+    private Map<Integer, HydrantDelta> pending = new LinkedHashMap<>(); // 合并窗口内的变更（加锁访问）
+    private boolean reset; // 合并窗口内发生过全量重新加载（加锁访问）
+    private long sequence; // 消息序号，作为SSE事件ID
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "hydrant-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public HydrantStreamServiceImpl(ObjectMapper objectMapper,
+                                    @Value("${hydrant.stream.coalesce-ms:200}") long coalesceMs,
+                                    @Value("${hydrant.stream.heartbeat-ms:30000}") long heartbeatMs,
+                                    @Value("${hydrant.stream.timeout-ms:1800000}") long timeoutMs) {
+        this.objectMapper = objectMapper;
+        this.timeoutMs = timeoutMs;
+        scheduler.scheduleWithFixedDelay(this::flush, coalesceMs, coalesceMs, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::heartbeat, heartbeatMs, heartbeatMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        emitter.onCompletion(() -> subscribers.remove(emitter));
+        emitter.onTimeout(() -> subscribers.remove(emitter));
+        emitter.onError(e -> subscribers.remove(emitter));
+        subscribers.add(emitter);
+        return emitter;
+    }
+
+    @Override
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    // 计算变更前后的差异字段，放入合并窗口
+    @EventListener
+    public void onChanged(HydrantChangedEvent event) {
+        Hydrant before = event.getBefore();
+        Hydrant after = event.getAfter();
+        HydrantDelta delta = new HydrantDelta(event.getId());
+        if (after == null) {
+            delta.setDeleted(true);
+        } else {
+            delta.setVersion(after.getVersion());
+            if (before == null || !Objects.equals(before.getCurrentStatus(), after.getCurrentStatus())) {
+                delta.setStatus(after.getCurrentStatus());
+            }
+            if (before == null || !Objects.equals(before.getCurrentPressure(), after.getCurrentPressure())) {
+                delta.setPressure(after.getCurrentPressure());
+            }
+            if (!after.isSameLocation(before)) {
+                delta.setLng(after.getLng());
+                delta.setLat(after.getLat());
+            }
+        }
+        synchronized (this) {
+            HydrantDelta existing = pending.get(delta.getId());
+            if (existing == null) {
+                pending.put(delta.getId(), delta);
+            } else {
+                existing.merge(delta);
+            }
+        }
+    }
+
+    // 全量重新加载：之前未发送的变更已包含在客户端重新获取的数据中，直接丢弃
+    @EventListener
+    public synchronized void onReloaded(HydrantsReloadedEvent event) {
+        pending = new LinkedHashMap<>();
+        reset = true;
+    }
+
+    // 合并窗口结束：先发送reset（如有），变更序列化一次，发给全部订阅者
+    private void flush() {
+        Map<Integer, HydrantDelta> batch;
+        long resetId = 0;
+        long id;
+        synchronized (this) {
+            if (pending.isEmpty() && !reset) {
+                return;
+            }
+            if (reset) {
+                resetId = ++sequence;
+                reset = false;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            id = batch.isEmpty() ? 0 : ++sequence;
+        }
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        if (resetId > 0) {
+            for (SseEmitter emitter : subscribers) {
+                send(emitter, SseEmitter.event().id(String.valueOf(resetId)).name("reset").data("{}"));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(new ArrayList<>(batch.values()));
+        } catch (JsonProcessingException e) {
+            log.warn("序列化消防栓变更失败：{}", e.getMessage());
+            return;
+        }
+        for (SseEmitter emitter : subscribers) {
+            send(emitter, SseEmitter.event().id(String.valueOf(id)).name("hydrants").data(json));
+        }
+    }
+
+    // 定期发送注释行，保持连接并及时清理断开的客户端
+    private void heartbeat() {
+        for (SseEmitter emitter : subscribers) {
+            send(emitter, SseEmitter.event().comment("ping"));
+        }
+    }
+
+    private void send(SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            subscribers.remove(emitter); // 客户端已断开
+            emitter.completeWithError(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (SseEmitter emitter : subscribers) {
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,308 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.entity.PressureReading;
+import com.example.backend.service.PressureAlertService;
+import com.example.backend.utils.PressureWindow;
+import com.example.backend.vo.PressureAlert;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 压力告警服务实现类
+ * 消防栓按ID分配到固定的告警线程，每个线程独占自己负责的滑动窗口和告警状态，处理读数时不需要加锁
+ * 同一消防栓同一规则在恢复前只告警一次；恢复后冷却时间内再次触发不告警，防止抖动；
+ * 每个线程另有令牌桶限制告警速率，避免大面积停水时告警风暴
+ */
+@Service
+public class PressureAlertServiceImpl implements PressureAlertService {
+    private static final Logger log = LoggerFactory.getLogger(PressureAlertServiceImpl.class);
+
+    // 规则下标，对应HydrantState中数组的位置
+    private static final String[] RULES = {PressureAlert.RULE_LOW, PressureAlert.RULE_HIGH,
+            PressureAlert.RULE_CHANGE, PressureAlert.RULE_STUCK};
+    private static final int LOW = 0;
+    private static final int HIGH = 1;
+    private static final int CHANGE = 2;
+    private static final int STUCK = 3;
+    private static final int RECENT_CAPACITY = 1000; // 最近告警保留条数
+
+    private final int windowSize; // 每个消防栓保留的读数条数
+    private final double lowPressure; // 压力下限（MPa）
+    private final double highPressure; // 压力上限（MPa）
+    private final long changeWindowMs; // 突变判断的时间窗口
+    private final double maxChange; // 时间窗口内允许的最大压力变化（MPa）
+    private final long stuckMs; // 读数不变超过该时长视为传感器卡死
+    private final int stuckMinReadings; // 卡死判断至少需要的读数条数
+    private final double stuckEpsilon; // 差值小于该值视为读数相同
+    private final long cooldownMs; // 恢复后再次告警的最短间隔
+    private final Worker[] workers;
+
+    // 未恢复的告警：消防栓ID<<2 | 规则下标 -> 告警
+    private final Map<Long, PressureAlert> active = new ConcurrentHashMap<>();
+    private final Deque<PressureAlert> recent = new ArrayDeque<>();
+
+    // 运行计数
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder emitted = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+
+    public PressureAlertServiceImpl(@Value("${alert.workers:0}") int workerCount,
+                                    @Value("${alert.queue-capacity:65536}") int queueCapacity,
+                                    @Value("${alert.window-size:64}") int windowSize,
+                                    @Value("${alert.low-pressure:0.14}") double lowPressure,
+                                    @Value("${alert.high-pressure:1.0}") double highPressure,
+                                    @Value("${alert.change-window-ms:60000}") long changeWindowMs,
+                                    @Value("${alert.max-change:0.2}") double maxChange,
+                                    @Value("${alert.stuck-ms:1800000}") long stuckMs,
+                                    @Value("${alert.stuck-min-readings:10}") int stuckMinReadings,
+                                    @Value("${alert.stuck-epsilon:0.0001}") double stuckEpsilon,
+                                    @Value("${alert.cooldown-ms:600000}") long cooldownMs,
+                                    @Value("${alert.max-per-minute:600}") int maxPerMinute) {
+        this.windowSize = windowSize;
+        this.lowPressure = lowPressure;
+        this.highPressure = highPressure;
+        this.changeWindowMs = changeWindowMs;
+        this.maxChange = maxChange;
+        this.stuckMs = stuckMs;
+        this.stuckMinReadings = stuckMinReadings;
+        this.stuckEpsilon = stuckEpsilon;
+        this.cooldownMs = cooldownMs;
+        if (workerCount <= 0) {
+            workerCount = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        }
+        this.workers = new Worker[workerCount];
+        // 告警速率上限平均分给各线程
+        double perWorker = Math.max(1.0, (double) maxPerMinute / workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers[i] = new Worker(queueCapacity / workerCount + 1, perWorker);
+            Thread thread = new Thread(workers[i], "pressure-alert-" + i);
+            thread.setDaemon(true);
+            workers[i].thread = thread;
+            thread.start();
+        }
+    }
+
+    @Override
+    public boolean submit(PressureReading reading) {
+        Worker worker = workers[Math.floorMod(reading.getHydrantId(), workers.length)];
+        if (!worker.queue.offer(reading)) {
+            dropped.increment();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public List<PressureAlert> getActive() {
+        List<PressureAlert> result = new ArrayList<>(active.values());
+        result.sort(Comparator.comparingLong(PressureAlert::getTs).reversed());
+        return result;
+    }
+
+    @Override
+    public List<PressureAlert> getRecent(int limit) {
+        List<PressureAlert> result = new ArrayList<>(Math.min(limit, RECENT_CAPACITY));
+        synchronized (recent) {
+            for (PressureAlert alert : recent) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                result.add(alert);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        long queued = 0;
+        long processed = 0;
+        long late = 0;
+        for (Worker worker : workers) {
+            queued += worker.queue.size();
+            processed += worker.processed;
+            late += worker.late;
+        }
+        Map<String, Object> status = new HashMap<>();
+        status.put("workers", workers.length);
+        status.put("queued", queued);
+        status.put("processed", processed);
+        status.put("late", late);
+        status.put("dropped", dropped.sum());
+        status.put("emitted", emitted.sum());
+        status.put("suppressed", suppressed.sum());
+        status.put("active", active.size());
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Worker worker : workers) {
+            worker.thread.interrupt();
+        }
+    }
+
+    // 记录新告警，最近告警列表超出容量时丢弃最旧的
+    private void emit(long key, PressureAlert alert) {
+        active.put(key, alert);
+        synchronized (recent) {
+            recent.addFirst(alert);
+            if (recent.size() > RECENT_CAPACITY) {
+                recent.removeLast();
+            }
+        }
+        emitted.increment();
+        log.info("消防栓{}压力告警：{}", alert.getHydrantId(), alert.getMessage());
+    }
+
+    // 单个消防栓的窗口和各规则的告警状态
+    private final class HydrantState {
+        final PressureWindow window = new PressureWindow(windowSize);
+        final PressureAlert[] alerts = new PressureAlert[RULES.length]; // 未恢复的告警
+        final long[] lastFired = new long[RULES.length]; // 上次告警的读数时间，0表示从未告警
+        double runValue; // 当前连续不变的读数值
+        long runSince; // 从何时开始不变
+        int runCount; // 连续不变的读数条数
+    }
+
+    // 告警线程：独占一个队列和其中消防栓的全部状态
+    private final class Worker implements Runnable {
+        final BlockingQueue<PressureReading> queue;
+        final Map<Integer, HydrantState> states = new HashMap<>();
+        final double capacity; // 令牌桶容量（每分钟告警数）
+        double tokens;
+        long refilledAt = System.currentTimeMillis();
+        Thread thread;
+        // 只由本线程写入，状态查询读到稍旧的值无妨
+        volatile long processed;
+        volatile long late;
+
+        Worker(int queueCapacity, double perMinute) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.capacity = perMinute;
+            this.tokens = perMinute;
+        }
+
+        @Override
+        public void run() {
+            List<PressureReading> batch = new ArrayList<>(1024);
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    return;
+                }
+                queue.drainTo(batch, 1023);
+                for (PressureReading reading : batch) {
+                    try {
+                        process(reading);
+                    } catch (Exception e) {
+                        log.warn("处理压力读数失败：{}", e.getMessage());
+                    }
+                }
+                processed += batch.size();
+                batch.clear();
+            }
+        }
+
+        private void process(PressureReading reading) {
+            HydrantState state = states.computeIfAbsent(reading.getHydrantId(), id -> new HydrantState());
+            PressureWindow window = state.window;
+            long ts = reading.getTs();
+            double value = reading.getPressure();
+            if (ts < window.latestTime()) {
+                late++; // 乱序到达的旧读数不参与判断
+                return;
+            }
+            window.add(ts, value);
+            // 从新到旧扫描突变窗口内的读数，取与最新读数的最大差值
+            double change = 0;
+            for (int age = 1; age < window.size(); age++) {
+                if (window.time(age) < ts - changeWindowMs) {
+                    break;
+                }
+                change = Math.max(change, Math.abs(value - window.value(age)));
+            }
+            // 读数不变的持续时间单独累计，不受窗口长度限制
+            if (state.runCount > 0 && Math.abs(value - state.runValue) <= stuckEpsilon) {
+                state.runCount++;
+            } else {
+                state.runValue = value;
+                state.runSince = ts;
+                state.runCount = 1;
+            }
+            long unchanged = ts - state.runSince;
+            Integer id = reading.getHydrantId();
+            update(state, id, LOW, value < lowPressure, ts, value, 0);
+            update(state, id, HIGH, value > highPressure, ts, value, 0);
+            update(state, id, CHANGE, change > maxChange, ts, value, change);
+            update(state, id, STUCK, state.runCount >= stuckMinReadings && unchanged >= stuckMs, ts, value, unchanged);
+        }
+
+        // 根据规则是否触发更新告警状态：持续触发去重，恢复后冷却，超出速率时抑制
+        // detail为规则相关的数值（突变幅度、不变时长），只在产生告警时用于生成说明
+        private void update(HydrantState state, Integer id, int rule, boolean firing, long ts, double value, double detail) {
+            long key = ((long) id << 2) | rule;
+            PressureAlert current = state.alerts[rule];
+            if (!firing) {
+                if (current != null) {
+                    current.setResolvedTs(ts);
+                    state.alerts[rule] = null;
+                    active.remove(key);
+                }
+                return;
+            }
+            if (current != null) {
+                return; // 已在告警中
+            }
+            if ((state.lastFired[rule] != 0 && ts - state.lastFired[rule] < cooldownMs) || !takeToken()) {
+                suppressed.increment();
+                return;
+            }
+            PressureAlert alert = new PressureAlert(id, RULES[rule], ts, value, message(rule, value, detail));
+            state.alerts[rule] = alert;
+            state.lastFired[rule] = ts;
+            emit(key, alert);
+        }
+
+        private String message(int rule, double value, double detail) {
+            switch (rule) {
+                case LOW:
+                    return String.format("压力%.3fMPa低于下限%.3fMPa", value, lowPressure);
+                case HIGH:
+                    return String.format("压力%.3fMPa高于上限%.3fMPa", value, highPressure);
+                case CHANGE:
+                    return String.format("%d秒内压力变化%.3fMPa", changeWindowMs / 1000, detail);
+                default:
+                    return String.format("压力读数%d分钟未变化", (long) detail / 60_000);
+            }
+        }
+
+        // 令牌桶：按经过的时间补充令牌，最多补满一分钟的配额
+        private boolean takeToken() {
+            long now = System.currentTimeMillis();
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * capacity / 60_000.0);
+            refilledAt = now;
+            if (tokens < 1) {
+                return false;
+            }
+            tokens--;
+            return true;
+        }
+    }
+}
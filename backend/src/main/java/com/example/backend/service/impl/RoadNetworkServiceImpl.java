@@ -0,0 +1,561 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.entity.Hydrant;
+import com.example.backend.entity.RoadLine;
+import com.example.backend.event.ClusterChangeEvent;
+import com.example.backend.event.HydrantChangedEvent;
+import com.example.backend.event.HydrantsReloadedEvent;
+import com.example.backend.mapper.RoadMapper;
+import com.example.backend.service.RoadNetworkService;
+import com.example.backend.utils.KdTree;
+import com.example.backend.utils.ResourceVersions;
+import com.example.backend.vo.NearestHydrant;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 道路网服务实现类
+ * 道路图以压缩邻接数组（CSR）存储，节点用k-d树索引；查询时从起点做Dijkstra，找到k个消防栓即停止
+ * 消防栓变更只重新挂接该消防栓；道路变更只重新读取该道路，再用内存中的道路数据重建路网
+ */
+@Service
+public class RoadNetworkServiceImpl implements RoadNetworkService {
+    private static final Logger log = LoggerFactory.getLogger(RoadNetworkServiceImpl.class);
+
+    private static final double EARTH_RADIUS = 6371008.8; // 地球平均半径（米）
+    // 坐标按1e-6度（约0.1米）取整后相同视为同一节点，道路端点据此相连
+    private static final double NODE_PRECISION = 1e6;
+
+    // 每个查询线程复用的Dijkstra工作区，避免每次分配节点数组
+    private static final ThreadLocal<Workspace> WORKSPACE = ThreadLocal.withInitial(Workspace::new);
+
+    @Autowired
+    private RoadMapper roadMapper;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ResourceVersions resourceVersions;
+
+    private final double maxSegment; // 长路段按此长度（米）插入中间节点，保证吸附到节点时误差不大
+    private final double walkSpeed; // 步行速度（米/秒）
+    private final double driveSpeed; // 车行速度（米/秒）
+    private final int maxK; // 单次查询最多返回的消防栓数
+
+    // 道路ID -> 折线列表（每条折线为经纬度交替的数组），只在synchronized方法中修改
+    private final Map<Integer, List<double[]>> roads = new HashMap<>();
+
+    // 以下字段由读写锁保护
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Network network = new Network(new Builder());
+    private final Map<Integer, Hydrant> hydrants = new HashMap<>(); // 全部消防栓，路网重建时重新挂接
+    private final Map<Integer, Attachment> attachments = new HashMap<>(); // 消防栓ID -> 挂接点（只挂接正常消防栓）
+    private final Map<Integer, List<Attachment>> attachmentsByNode = new HashMap<>(); // 节点 -> 挂接的消防栓
+
+    public RoadNetworkServiceImpl(@Value("${road.network.max-segment-m:25}") double maxSegment,
+                                  @Value("${road.network.walk-speed:1.4}") double walkSpeed,
+                                  @Value("${road.network.drive-speed:8.3}") double driveSpeed,
+                                  @Value("${road.network.max-k:50}") int maxK) {
+        this.maxSegment = maxSegment;
+        this.walkSpeed = walkSpeed;
+        this.driveSpeed = driveSpeed;
+        this.maxK = maxK;
+    }
+
+    // 应用启动完成后加载，数据库不可用时只记录日志，不影响启动
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("加载道路数据失败：{}", e.getMessage());
+        }
+    }
+
+    @EventListener
+    public void onReloaded(HydrantsReloadedEvent event) {
+        lock.writeLock().lock();
+        try {
+            hydrants.clear();
+            for (Hydrant hydrant : event.getHydrants()) {
+                hydrants.put(hydrant.getId(), hydrant);
+            }
+            attachAll();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 单个消防栓变更：只重新挂接这一个
+    @EventListener
+    public void onChanged(HydrantChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            detach(event.getId());
+            Hydrant after = event.getAfter();
+            if (after == null) {
+                hydrants.remove(event.getId());
+            } else {
+                hydrants.put(after.getId(), after);
+                attach(after);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // 其他节点同步了道路：重新读取该道路或全部道路
+    @EventListener
+    public void onClusterChange(ClusterChangeEvent event) {
+        if (!event.matches(ResourceVersions.ROADS)) {
+            return;
+        }
+        if (event.isAll()) {
+            reload();
+        } else {
+            refreshRoad(event.getId());
+        }
+    }
+
+    @Override
+    public synchronized void reload() {
+        Map<Integer, List<double[]>> loaded = new HashMap<>();
+        for (RoadLine road : roadMapper.selectAll()) {
+            loaded.put(road.getId(), parse(road));
+        }
+        roads.clear();
+        roads.putAll(loaded);
+        rebuild();
+    }
+
+    @Override
+    public synchronized void refreshRoad(Integer id) {
+        RoadLine road = roadMapper.selectById(id);
+        if (road == null) {
+            if (roads.remove(id) == null) {
+                return; // 路网中本来就没有这条道路
+            }
+        } else {
+            roads.put(id, parse(road));
+        }
+        rebuild();
+    }
+
+    @Override
+    public List<NearestHydrant> findNearest(double lng, double lat, int k, String mode) {
+        double speed = MODE_DRIVE.equals(mode) ? driveSpeed : walkSpeed;
+        int limit = Math.max(1, Math.min(k, maxK));
+        lock.readLock().lock();
+        try {
+            Network net = network;
+            if (net.size() == 0 || attachmentsByNode.isEmpty()) {
+                return Collections.emptyList();
+            }
+            int source = net.snap(lng, lat);
+            double startOffset = net.distance(source, lng, lat);
+
+            // 已找到的消防栓，按距离升序，最多limit个
+            Attachment[] found = new Attachment[limit];
+            double[] foundDistance = new double[limit];
+            int count = 0;
+
+            Workspace ws = WORKSPACE.get();
+            ws.reset(net.size());
+            ws.setDistance(source, 0);
+            ws.push(source, 0);
+            while (ws.heapSize > 0) {
+                double d = ws.heapKeys[0];
+                int u = ws.pop();
+                if (d > ws.distance(u)) {
+                    continue; // 过期的堆元素
+                }
+                // 之后出堆的节点距离都不小于d，已找到的k个不会再被超过
+                if (count == limit && foundDistance[count - 1] <= d) {
+                    break;
+                }
+                List<Attachment> list = attachmentsByNode.get(u);
+                if (list != null) {
+                    for (Attachment attachment : list) {
+                        double total = d + attachment.offset;
+                        if (count == limit && total >= foundDistance[count - 1]) {
+                            continue;
+                        }
+                        int i = count < limit ? count++ : count - 1;
+                        while (i > 0 && foundDistance[i - 1] > total) {
+                            found[i] = found[i - 1];
+                            foundDistance[i] = foundDistance[i - 1];
+                            i--;
+                        }
+                        found[i] = attachment;
+                        foundDistance[i] = total;
+                    }
+                }
+                for (int e = net.start[u]; e < net.start[u + 1]; e++) {
+                    int v = net.adjacent[e];
+                    double nd = d + net.weight[e];
+                    if (nd < ws.distance(v)) {
+                        ws.setDistance(v, nd);
+                        ws.push(v, nd);
+                    }
+                }
+            }
+
+            List<NearestHydrant> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                double distance = startOffset + foundDistance[i];
+                result.add(new NearestHydrant(found[i].hydrant, round(distance), round(distance / speed)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            status.put("nodes", network.size());
+            status.put("edges", network.adjacent.length / 2);
+            status.put("hydrants", attachments.size());
+        } finally {
+            lock.readLock().unlock();
+        }
+        synchronized (this) {
+            status.put("roads", roads.size());
+        }
+        return status;
+    }
+
+    // 用内存中的道路数据重建路网，构建过程不加锁，完成后再替换并重新挂接消防栓
+    private void rebuild() {
+        long begin = System.currentTimeMillis();
+        Builder builder = new Builder();
+        for (List<double[]> lines : roads.values()) {
+            for (double[] line : lines) {
+                builder.addLine(line, maxSegment);
+            }
+        }
+        Network built = new Network(builder);
+        lock.writeLock().lock();
+        try {
+            network = built;
+            attachAll();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        resourceVersions.bump(ResourceVersions.ROADS);
+        log.info("路网已重建：{}条道路，{}个节点，{}条边，耗时{}ms",
+                roads.size(), built.size(), built.adjacent.length / 2, System.currentTimeMillis() - begin);
+    }
+
+    // 以下方法需持有写锁
+    private void attachAll() {
+        attachments.clear();
+        attachmentsByNode.clear();
+        for (Hydrant hydrant : hydrants.values()) {
+            attach(hydrant);
+        }
+    }
+
+    private void attach(Hydrant hydrant) {
+        if (network.size() == 0 || !Hydrant.STATUS_NORMAL.equals(hydrant.getCurrentStatus())) {
+            return;
+        }
+        int node = network.snap(hydrant.getLng(), hydrant.getLat());
+        Attachment attachment = new Attachment(hydrant, node, network.distance(node, hydrant.getLng(), hydrant.getLat()));
+        attachments.put(hydrant.getId(), attachment);
+        attachmentsByNode.computeIfAbsent(node, n -> new ArrayList<>(1)).add(attachment);
+    }
+
+    private void detach(Integer id) {
+        Attachment attachment = attachments.remove(id);
+        if (attachment == null) {
+            return;
+        }
+        List<Attachment> list = attachmentsByNode.get(attachment.node);
+        list.remove(attachment);
+        if (list.isEmpty()) {
+            attachmentsByNode.remove(attachment.node);
+        }
+    }
+
+    // 解析GeoJSON几何为折线列表，几何无效时跳过该道路
+    private List<double[]> parse(RoadLine road) {
+        List<double[]> lines = new ArrayList<>();
+        try {
+            JsonNode geometry = objectMapper.readTree(road.getGeometry());
+            String type = geometry.path("type").asText();
+            JsonNode coordinates = geometry.path("coordinates");
+            if ("LineString".equals(type)) {
+                lines.add(toLine(coordinates));
+            } else if ("MultiLineString".equals(type)) {
+                for (JsonNode part : coordinates) {
+                    lines.add(toLine(part));
+                }
+            }
+        } catch (Exception e) {
+            log.warn("道路{}几何解析失败：{}", road.getId(), e.getMessage());
+        }
+        return lines;
+    }
+
+    private static double[] toLine(JsonNode coordinates) {
+        double[] line = new double[coordinates.size() * 2];
+        for (int i = 0; i < coordinates.size(); i++) {
+            line[i * 2] = coordinates.get(i).get(0).asDouble();
+            line[i * 2 + 1] = coordinates.get(i).get(1).asDouble();
+        }
+        return line;
+    }
+
+    // 两点间球面距离（米）
+    private static double haversine(double lng1, double lat1, double lng2, double lat2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS * Math.asin(Math.sqrt(a));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+
+    // 消防栓挂接到路网的节点，offset为消防栓到节点的直线距离
+    private static final class Attachment {
+        final Hydrant hydrant;
+        final int node;
+        final double offset;
+
+        Attachment(Hydrant hydrant, int node, double offset) {
+            this.hydrant = hydrant;
+            this.node = node;
+            this.offset = offset;
+        }
+    }
+
+    // 构建路网时的临时数据：节点坐标和边列表，数组按需扩容
+    private static final class Builder {
+        final Map<Long, Integer> index = new HashMap<>();
+        double[] lngs = new double[1024];
+        double[] lats = new double[1024];
+        int nodes;
+        int[] from = new int[1024];
+        int[] to = new int[1024];
+        double[] weights = new double[1024];
+        int edges;
+
+        void addLine(double[] line, double maxSegment) {
+            if (line.length < 4) {
+                return;
+            }
+            int previous = node(line[0], line[1]);
+            for (int i = 2; i + 1 < line.length; i += 2) {
+                double lng0 = line[i - 2];
+                double lat0 = line[i - 1];
+                double lng1 = line[i];
+                double lat1 = line[i + 1];
+                double length = haversine(lng0, lat0, lng1, lat1);
+                int pieces = Math.max(1, (int) Math.ceil(length / maxSegment));
+                for (int p = 1; p <= pieces; p++) {
+                    double t = (double) p / pieces;
+                    int current = node(lng0 + (lng1 - lng0) * t, lat0 + (lat1 - lat0) * t);
+                    edge(previous, current, length / pieces);
+                    previous = current;
+                }
+            }
+        }
+
+        int node(double lng, double lat) {
+            long key = (Math.round(lng * NODE_PRECISION) << 32) ^ (Math.round(lat * NODE_PRECISION) & 0xffffffffL);
+            Integer existing = index.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            if (nodes == lngs.length) {
+                lngs = Arrays.copyOf(lngs, nodes * 2);
+                lats = Arrays.copyOf(lats, nodes * 2);
+            }
+            lngs[nodes] = lng;
+            lats[nodes] = lat;
+            index.put(key, nodes);
+            return nodes++;
+        }
+
+        void edge(int a, int b, double weight) {
+            if (a == b) {
+                return;
+            }
+            if (edges == from.length) {
+                from = Arrays.copyOf(from, edges * 2);
+                to = Arrays.copyOf(to, edges * 2);
+                weights = Arrays.copyOf(weights, edges * 2);
+            }
+            from[edges] = a;
+            to[edges] = b;
+            weights[edges] = weight;
+            edges++;
+        }
+    }
+
+    // 不可变路网：节点i的邻边为adjacent/weight中[start[i], start[i+1])区间（无向边存两次）
+    private static final class Network {
+        final double[] lngs;
+        final double[] lats;
+        final int[] start;
+        final int[] adjacent;
+        final double[] weight;
+        // 以中心点为原点的局部平面坐标（米），校园范围内误差可忽略
+        final double originLng;
+        final double originLat;
+        final double metersPerLng;
+        final double metersPerLat;
+        final KdTree tree;
+
+        Network(Builder builder) {
+            int n = builder.nodes;
+            lngs = Arrays.copyOf(builder.lngs, n);
+            lats = Arrays.copyOf(builder.lats, n);
+            start = new int[n + 1];
+            for (int e = 0; e < builder.edges; e++) {
+                start[builder.from[e] + 1]++;
+                start[builder.to[e] + 1]++;
+            }
+            for (int i = 0; i < n; i++) {
+                start[i + 1] += start[i];
+            }
+            adjacent = new int[builder.edges * 2];
+            weight = new double[builder.edges * 2];
+            int[] position = Arrays.copyOf(start, n);
+            for (int e = 0; e < builder.edges; e++) {
+                int a = builder.from[e];
+                int b = builder.to[e];
+                adjacent[position[a]] = b;
+                weight[position[a]++] = builder.weights[e];
+                adjacent[position[b]] = a;
+                weight[position[b]++] = builder.weights[e];
+            }
+
+            originLng = n == 0 ? 0 : Arrays.stream(lngs).average().orElse(0);
+            originLat = n == 0 ? 0 : Arrays.stream(lats).average().orElse(0);
+            metersPerLat = Math.toRadians(1) * EARTH_RADIUS;
+            metersPerLng = metersPerLat * Math.cos(Math.toRadians(originLat));
+            double[] xs = new double[n];
+            double[] ys = new double[n];
+            for (int i = 0; i < n; i++) {
+                xs[i] = (lngs[i] - originLng) * metersPerLng;
+                ys[i] = (lats[i] - originLat) * metersPerLat;
+            }
+            tree = new KdTree(xs, ys);
+        }
+
+        int size() {
+            return lngs.length;
+        }
+
+        // 吸附到最近的节点
+        int snap(double lng, double lat) {
+            return tree.nearest((lng - originLng) * metersPerLng, (lat - originLat) * metersPerLat);
+        }
+
+        double distance(int node, double lng, double lat) {
+            double dx = (lng - lngs[node]) * metersPerLng;
+            double dy = (lat - lats[node]) * metersPerLat;
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+    }
+
+    // Dijkstra工作区：用时间戳代替每次清空距离数组，二叉堆用基本类型数组实现
+    private static final class Workspace {
+        double[] distances = new double[0];
+        int[] stamps = new int[0];
+        int stamp;
+        double[] heapKeys = new double[256];
+        int[] heapNodes = new int[256];
+        int heapSize;
+
+        void reset(int n) {
+            if (stamps.length < n) {
+                distances = new double[n];
+                stamps = new int[n];
+                stamp = 0;
+            }
+            if (++stamp == Integer.MAX_VALUE) {
+                Arrays.fill(stamps, 0);
+                stamp = 1;
+            }
+            heapSize = 0;
+        }
+
+        double distance(int node) {
+            return stamps[node] == stamp ? distances[node] : Double.POSITIVE_INFINITY;
+        }
+
+        void setDistance(int node, double distance) {
+            stamps[node] = stamp;
+            distances[node] = distance;
+        }
+
+        void push(int node, double key) {
+            if (heapSize == heapKeys.length) {
+                heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+                heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+            }
+            int i = heapSize++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (heapKeys[parent] <= key) {
+                    break;
+                }
+                heapKeys[i] = heapKeys[parent];
+                heapNodes[i] = heapNodes[parent];
+                i = parent;
+            }
+            heapKeys[i] = key;
+            heapNodes[i] = node;
+        }
+
+        // 弹出堆顶节点（调用前先读取heapKeys[0]）
+        int pop() {
+            int top = heapNodes[0];
+            double key = heapKeys[--heapSize];
+            int node = heapNodes[heapSize];
+            int i = 0;
+            while (true) {
+                int child = i * 2 + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                    child++;
+                }
+                if (heapKeys[child] >= key) {
+                    break;
+                }
+                heapKeys[i] = heapKeys[child];
+                heapNodes[i] = heapNodes[child];
+                i = child;
+            }
+            heapKeys[i] = key;
+            heapNodes[i] = node;
+            return top;
+        }
+    }
+}
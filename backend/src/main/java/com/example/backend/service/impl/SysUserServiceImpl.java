@@ -5,9 +5,28 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.example.backend.entity.SysUser;
+import com.example.backend.event.ClusterChangeEvent;
 import com.example.backend.mapper.SysUserMapper;
+import com.example.backend.service.ClusterSyncService;
 import com.example.backend.service.SysUserService;
+import com.example.backend.utils.ResourceVersions;
+import com.example.backend.utils.TtlCache;
+import com.example.backend.vo.CursorPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 /**
  * 用户服务实现类
@@ -15,32 +34,244 @@ import org.springframework.stereotype.Service;
  */
 @Service  // 告诉Spring这是一个业务服务组件
 public class SysUserServiceImpl extends ServiceImpl<SysUserMapper, SysUser> implements SysUserService {                   // 实现我们的接口
-    // 目前不需要写额外代码，通用功能已满足需求
+    // 用户缓存：id -> 用户，用户名 -> id；修改和删除时失效
+    private final TtlCache<Integer, SysUser> byId;
+    private final TtlCache<String, Integer> byName;
+    @Autowired
+    private ResourceVersions resourceVersions; // 用户数据变化时更新版本号，使ETag失效
+    @Autowired
+    private ClusterSyncService clusterSyncService; // 用户数据变化时通知其他节点失效缓存
+
+    public SysUserServiceImpl(@Value("${user.cache.max-size:10000}") int maxSize,
+                              @Value("${user.cache.ttl-ms:300000}") long ttlMillis) {
+        this.byId = new TtlCache<>(maxSize, ttlMillis);
+        this.byName = new TtlCache<>(maxSize, ttlMillis);
+    }
+
     //注册接口
     @Override // 重写父类的方法
     public boolean register(SysUser user) {
-        QueryWrapper<SysUser> queryWrapper = new QueryWrapper<>(); // 创建查询条件
-        queryWrapper.eq("name", user.getName()); // 设置查询条件为用户名
-        SysUser existUser = baseMapper.selectOne(queryWrapper); // 查询用户
-        if (existUser != null) {
+        if (getCachedByName(user.getName()) != null) {
+            return false; // 用户名已存在（缓存命中，无需访问数据库）
+        }
+        try {
+            // 用户名有唯一索引（见db/sys_user.sql），直接插入，重复时由数据库拒绝，省去一次查询
+            boolean success = save(user); // 保存用户信息
+            if (success) {
+                changed(user.getId());
+            }
+            return success;
+        } catch (DuplicateKeyException e) {
             return false; // 用户名已存在
         }
-        return save(user); // 保存用户信息
     }
     // 登录接口
     @Override
     public SysUser login(String name, String password) {
-        QueryWrapper< SysUser> queryWrapper = new QueryWrapper<>(); // 创建查询条件
-        queryWrapper.eq("name", name);
-        queryWrapper.eq("password", password);
-        return baseMapper.selectOne(queryWrapper); // 查询用户
+        SysUser user = getByName(name); // 优先从缓存读取
+        if (user != null && Objects.equals(user.getPassword(), password)) {
+            return user;
+        }
+        return null;
+    }
+    // 根据ID查询（带缓存）
+    @Override
+    public SysUser getById(Serializable id) {
+        if (!(id instanceof Integer)) {
+            return super.getById(id);
+        }
+        SysUser user = byId.get((Integer) id);
+        if (user == null) {
+            user = super.getById(id);
+            if (user != null) {
+                cache(user);
+            }
+        }
+        return user;
+    }
+    // 根据用户名查询（带缓存）
+    @Override
+    public SysUser getByName(String name) {
+        if (name == null) {
+            return null;
+        }
+        SysUser user = getCachedByName(name);
+        if (user == null) {
+            QueryWrapper<SysUser> queryWrapper = new QueryWrapper<>(); // 创建查询条件
+            queryWrapper.eq("name", name);
+            user = baseMapper.selectOne(queryWrapper);
+            if (user != null) {
+                cache(user);
+            }
+        }
+        return user;
+    }
+    // 根据ID修改，成功后使缓存失效
+    @Override
+    public boolean updateById(SysUser entity) {
+        evict(entity.getId());
+        boolean success = super.updateById(entity);
+        evict(entity.getId()); // 更新期间可能有并发读取写回了旧值
+        if (success) {
+            changed(entity.getId());
+        }
+        return success;
+    }
+    // 根据ID删除，成功后使缓存失效
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean success = super.removeById(id);
+        if (id instanceof Integer) {
+            evict((Integer) id);
+        }
+        if (success) {
+            changed(id);
+        }
+        return success;
+    }
+    // 其他节点修改了用户：失效本地缓存，下次读取时从数据库重新加载
+    @EventListener
+    public void onClusterChange(ClusterChangeEvent event) {
+        if (!event.matches(ResourceVersions.USERS)) {
+            return;
+        }
+        if (event.isAll()) {
+            byId.clear();
+            byName.clear();
+        } else {
+            evict(event.getId());
+        }
+        resourceVersions.bump(ResourceVersions.USERS);
+    }
+
+    // 缓存统计
+    @Override
+    public Map<String, Object> getCacheStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("byId", byId.getStats());
+        stats.put("byName", byName.getStats());
+        return stats;
+    }
+
+    // 从缓存按用户名查找，用户已改名时视为未命中
+    private SysUser getCachedByName(String name) {
+        Integer id = byName.get(name);
+        if (id == null) {
+            return null;
+        }
+        SysUser user = getById(id);
+        if (user == null || !name.equals(user.getName())) {
+            byName.remove(name);
+            return null;
+        }
+        return user;
+    }
+
+    private void cache(SysUser user) {
+        byId.put(user.getId(), user);
+        if (user.getName() != null) {
+            byName.put(user.getName(), user.getId());
+        }
+    }
+
+    // 本节点写入成功后更新版本号并通知其他节点
+    private void changed(Serializable id) {
+        resourceVersions.bump(ResourceVersions.USERS);
+        clusterSyncService.publish(ResourceVersions.USERS, id == null ? null : String.valueOf(id));
+    }
+
+    // 用户名索引不单独清理：查找时会校验用户名是否仍然匹配
+    private void evict(Integer id) {
+        if (id != null) {
+            byId.remove(id);
+        }
     }
     // 分页查询
     // UsersServiceImpl 分页查询实现
     @Override
     public IPage<SysUser> getUserPage(Page<SysUser> page) {
-        QueryWrapper<SysUser> queryWrapper = new QueryWrapper<>();
+        return getUserPage(page, null, null);
+    }
+
+    @Override
+    public IPage<SysUser> getUserPage(Page<SysUser> page, String name, String role) {
+        QueryWrapper<SysUser> queryWrapper = filterWrapper(name, role);
         queryWrapper.orderByAsc("\"id\""); // 建议添加排序条件（避免分页结果顺序混乱）
         return baseMapper.selectPage(page, queryWrapper); // 执行分页查询
     }
+
+    // 游标分页查询
+    // 游标记录上一页最后（或第一条）的id，查询变为 WHERE id > ? ORDER BY id LIMIT ?，走主键索引，不需要OFFSET
+    @Override
+    public CursorPage<SysUser> getUserCursorPage(String cursor, int pageSize, String name, String role, String totalMode) {
+        boolean backward = false; // 是否向前翻页
+        Integer boundId = null; // 游标对应的id，为空表示第一页
+        if (StringUtils.hasText(cursor)) {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.length() < 3 || decoded.charAt(1) != ':' || (decoded.charAt(0) != 'a' && decoded.charAt(0) != 'b')) {
+                throw new IllegalArgumentException("无效的游标");
+            }
+            backward = decoded.charAt(0) == 'b';
+            boundId = Integer.valueOf(decoded.substring(2));
+        }
+        QueryWrapper<SysUser> queryWrapper = filterWrapper(name, role);
+        if (boundId != null) {
+            if (backward) {
+                queryWrapper.lt("\"id\"", boundId);
+            } else {
+                queryWrapper.gt("\"id\"", boundId);
+            }
+        }
+        if (backward) {
+            queryWrapper.orderByDesc("\"id\"");
+        } else {
+            queryWrapper.orderByAsc("\"id\"");
+        }
+        // 多查一条，用来判断翻页方向上是否还有数据
+        queryWrapper.last("LIMIT " + (pageSize + 1));
+        List<SysUser> records = baseMapper.selectList(queryWrapper);
+        boolean hasMore = records.size() > pageSize;
+        if (hasMore) {
+            records = records.subList(0, pageSize);
+        }
+        if (backward) {
+            Collections.reverse(records);
+        }
+        String nextCursor = null;
+        String prevCursor = null;
+        if (!records.isEmpty()) {
+            Integer firstId = records.get(0).getId();
+            Integer lastId = records.get(records.size() - 1).getId();
+            // 向后翻页时，有多余数据说明有下一页，有游标说明有上一页；向前翻页反之
+            if (backward ? boundId != null : hasMore) {
+                nextCursor = encodeCursor('a', lastId);
+            }
+            if (backward ? hasMore : boundId != null) {
+                prevCursor = encodeCursor('b', firstId);
+            }
+        }
+        Long total = null;
+        if ("exact".equals(totalMode)) {
+            total = baseMapper.selectCount(filterWrapper(name, role));
+        } else if ("estimate".equals(totalMode) && !StringUtils.hasText(name) && !StringUtils.hasText(role)) {
+            // 统计信息只能估算全表行数，带筛选条件时不返回
+            Long estimate = baseMapper.estimateCount();
+            total = estimate != null && estimate >= 0 ? estimate : null;
+        }
+        return new CursorPage<>(records, nextCursor, prevCursor, total);
+    }
+
+    // 构建筛选条件
+    private QueryWrapper<SysUser> filterWrapper(String name, String role) {
+        QueryWrapper<SysUser> queryWrapper = new QueryWrapper<>();
+        queryWrapper.like(StringUtils.hasText(name), "name", name);
+        queryWrapper.eq(StringUtils.hasText(role), "role", role);
+        return queryWrapper;
+    }
+
+    // 游标编码：方向(a向后/b向前):id，Base64后对前端不透明
+    private static String encodeCursor(char direction, Integer id) {
+        String raw = direction + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,315 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.entity.PressureReading;
+import com.example.backend.service.PressureAlertService;
+import com.example.backend.service.TelemetryService;
+import com.example.backend.vo.PressurePoint;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 压力遥测服务实现类
+ * 单个后台线程负责写库：原始读数用JDBC批量插入，降采样表先在内存按桶合并再批量upsert
+ */
+@Service
+public class TelemetryServiceImpl implements TelemetryService {
+    private static final Logger log = LoggerFactory.getLogger(TelemetryServiceImpl.class);
+
+    private static final long MINUTE = 60_000L;
+    private static final long HOUR = 60 * MINUTE;
+    private static final long DAY = 24 * HOUR;
+
+    private static final String INSERT_RAW =
+            "INSERT INTO hydrant_pressure (hydrant_id, ts, pressure) VALUES (?, ?, ?)";
+    // 降采样表upsert：同一桶内累加数量和总和，更新最值
+    private static final String UPSERT_ROLLUP =
+            "INSERT INTO %s AS r (hydrant_id, bucket, cnt, sum, min, max) VALUES (?, ?, ?, ?, ?, ?) "
+                    + "ON CONFLICT (hydrant_id, bucket) DO UPDATE SET cnt = r.cnt + EXCLUDED.cnt, "
+                    + "sum = r.sum + EXCLUDED.sum, min = LEAST(r.min, EXCLUDED.min), max = GREATEST(r.max, EXCLUDED.max)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PressureAlertService pressureAlertService;
+    private final BlockingQueue<PressureReading> buffer; // 内存缓冲区
+    private final int batchSize; // 每批写入条数
+    private final long dayOffset; // 按天降采样时的时区偏移（毫秒）
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "telemetry-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Set<String> partitions = new HashSet<>(); // 已确认存在的月分区（仅写线程访问）
+    private final int maxRetries; // 一批读数最多重试次数，超过后丢弃
+    private final long retryBackoffMs; // 首次重试等待时间，之后每次翻倍
+    // 写入失败、等待重试的一批读数（仅写线程修改）；重试期间不再从缓冲区取数，缓冲区满后上报返回503
+    private volatile List<PressureReading> pending = new ArrayList<>();
+    private int attempts; // pending已失败次数
+    private long retryAt; // pending下次重试时间
+
+    // 运行计数
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long lastFlushMillis; // 最近一次写入耗时
+
+    public TelemetryServiceImpl(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                PressureAlertService pressureAlertService,
+                                @Value("${telemetry.buffer-capacity:100000}") int bufferCapacity,
+                                @Value("${telemetry.batch-size:5000}") int batchSize,
+                                @Value("${telemetry.flush-interval-ms:1000}") long flushIntervalMs,
+                                @Value("${telemetry.max-retries:5}") int maxRetries,
+                                @Value("${telemetry.retry-backoff-ms:1000}") long retryBackoffMs,
+                                @Value("${telemetry.zone:Asia/Shanghai}") String zone) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pressureAlertService = pressureAlertService;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        this.batchSize = batchSize;
+        this.maxRetries = maxRetries;
+        this.retryBackoffMs = retryBackoffMs;
+        this.dayOffset = ZoneId.of(zone).getRules().getOffset(Instant.now()).getTotalSeconds() * 1000L;
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int ingest(List<PressureReading> readings) {
+        // 先校验整批，有无效读数时整批不接收，保证返回的接收数量始终是请求的前缀
+        for (int i = 0; i < readings.size(); i++) {
+            PressureReading reading = readings.get(i);
+            if (reading == null || reading.getHydrantId() == null) {
+                throw new IllegalArgumentException("第" + (i + 1) + "条读数缺少hydrantId");
+            }
+            if (reading.getPressure() == null) {
+                throw new IllegalArgumentException("第" + (i + 1) + "条读数缺少pressure");
+            }
+            if (!Double.isFinite(reading.getPressure())) {
+                throw new IllegalArgumentException("第" + (i + 1) + "条读数的压力值无效");
+            }
+        }
+        long now = System.currentTimeMillis();
+        int count = 0;
+        for (PressureReading reading : readings) {
+            if (reading.getTs() <= 0) {
+                reading.setTs(now);
+            }
+            if (!buffer.offer(reading)) {
+                break; // 缓冲区已满，剩余读数由调用方重试
+            }
+            pressureAlertService.submit(reading); // 告警判断与写库互不等待
+            count++;
+        }
+        accepted.addAndGet(count);
+        rejected.addAndGet(readings.size() - count);
+        return count;
+    }
+
+    // 先重试上次失败的一批，再把缓冲区中的读数分批写入数据库，直到缓冲区清空
+    private void flush() {
+        if (!pending.isEmpty() && (System.currentTimeMillis() < retryAt || !write(pending))) {
+            return;
+        }
+        List<PressureReading> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            if (!write(batch)) {
+                return;
+            }
+            batch.clear();
+        }
+    }
+
+    // 写入一批读数，失败时保留为pending并按指数退避安排重试，返回false表示需要等待重试
+    private boolean write(List<PressureReading> batch) {
+        long start = System.nanoTime();
+        try {
+            writeBatch(batch);
+            written.addAndGet(batch.size());
+            pending = new ArrayList<>();
+            attempts = 0;
+            return true;
+        } catch (Exception e) {
+            if (++attempts > maxRetries) {
+                failed.addAndGet(batch.size());
+                log.warn("写入压力读数失败{}次，丢弃{}条：{}", attempts, batch.size(), e.getMessage());
+                pending = new ArrayList<>();
+                attempts = 0;
+                return true;
+            }
+            if (batch != pending) {
+                pending = new ArrayList<>(batch);
+            }
+            long delay = Math.min(retryBackoffMs << (attempts - 1), 60_000L);
+            retryAt = System.currentTimeMillis() + delay;
+            log.warn("写入压力读数失败，{}ms后第{}次重试（{}条）：{}", delay, attempts, batch.size(), e.getMessage());
+            return false;
+        } finally {
+            lastFlushMillis = (System.nanoTime() - start) / 1_000_000;
+        }
+    }
+
+    private void writeBatch(List<PressureReading> batch) {
+        ensurePartitions(batch);
+        Map<Long, Rollup> minutes = rollup(batch, MINUTE, 0);
+        Map<Long, Rollup> hours = rollup(batch, HOUR, 0);
+        Map<Long, Rollup> days = rollup(batch, DAY, dayOffset);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_RAW, batch, batch.size(), (ps, reading) -> {
+                ps.setInt(1, reading.getHydrantId());
+                ps.setTimestamp(2, new Timestamp(reading.getTs()));
+                ps.setDouble(3, reading.getPressure());
+            });
+            upsertRollups("hydrant_pressure_1m", minutes);
+            upsertRollups("hydrant_pressure_1h", hours);
+            upsertRollups("hydrant_pressure_1d", days);
+        });
+    }
+
+    // 按（消防栓, 时间桶）合并一批读数，key为 消防栓ID<<32 | 桶序号
+    private static Map<Long, Rollup> rollup(List<PressureReading> batch, long size, long offset) {
+        Map<Long, Rollup> result = new HashMap<>();
+        for (PressureReading reading : batch) {
+            long index = Math.floorDiv(reading.getTs() + offset, size);
+            long key = ((long) reading.getHydrantId() << 32) | (index & 0xffffffffL);
+            Rollup rollup = result.get(key);
+            if (rollup == null) {
+                rollup = new Rollup(reading.getHydrantId(), index * size - offset);
+                result.put(key, rollup);
+            }
+            rollup.add(reading.getPressure());
+        }
+        return result;
+    }
+
+    private void upsertRollups(String table, Map<Long, Rollup> rollups) {
+        List<Rollup> rows = new ArrayList<>(rollups.values());
+        jdbcTemplate.batchUpdate(String.format(UPSERT_ROLLUP, table), rows, rows.size(), (ps, rollup) -> {
+            ps.setInt(1, rollup.hydrantId);
+            ps.setTimestamp(2, new Timestamp(rollup.bucket));
+            ps.setLong(3, rollup.cnt);
+            ps.setDouble(4, rollup.sum);
+            ps.setDouble(5, rollup.min);
+            ps.setDouble(6, rollup.max);
+        });
+    }
+
+    // 写入前确保读数所在月份的分区存在（按UTC月份划分）
+    private void ensurePartitions(List<PressureReading> batch) {
+        for (PressureReading reading : batch) {
+            ZonedDateTime month = Instant.ofEpochMilli(reading.getTs()).atZone(ZoneOffset.UTC)
+                    .withDayOfMonth(1).truncatedTo(ChronoUnit.DAYS);
+            String name = String.format("hydrant_pressure_%04d%02d", month.getYear(), month.getMonthValue());
+            if (!partitions.contains(name)) {
+                ZonedDateTime next = month.plusMonths(1);
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF hydrant_pressure "
+                                + "FOR VALUES FROM ('%04d-%02d-01 00:00:00+00') TO ('%04d-%02d-01 00:00:00+00')",
+                        name, month.getYear(), month.getMonthValue(), next.getYear(), next.getMonthValue()));
+                partitions.add(name);
+            }
+        }
+    }
+
+    @Override
+    public List<PressurePoint> getSeries(Integer hydrantId, long from, long to, String resolution) {
+        String table = rollupTable(resolution, to - from);
+        Timestamp start = new Timestamp(from);
+        Timestamp end = new Timestamp(to);
+        if (hydrantId != null) {
+            return jdbcTemplate.query("SELECT bucket, sum / cnt AS avg, min, max FROM " + table
+                            + " WHERE hydrant_id = ? AND bucket >= ? AND bucket < ? ORDER BY bucket",
+                    (rs, i) -> new PressurePoint(rs.getTimestamp(1).getTime(), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4)),
+                    hydrantId, start, end);
+        }
+        return jdbcTemplate.query("SELECT bucket, SUM(sum) / SUM(cnt) AS avg, MIN(min), MAX(max) FROM " + table
+                        + " WHERE bucket >= ? AND bucket < ? GROUP BY bucket ORDER BY bucket",
+                (rs, i) -> new PressurePoint(rs.getTimestamp(1).getTime(), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4)),
+                start, end);
+    }
+
+    // 选择降采样表：auto时按时间跨度选择，保证返回点数在几百个以内
+    private static String rollupTable(String resolution, long span) {
+        if ("auto".equals(resolution) || resolution == null) {
+            resolution = span <= 6 * HOUR ? "1m" : span <= 14 * DAY ? "1h" : "1d";
+        }
+        switch (resolution) {
+            case "1m":
+                return "hydrant_pressure_1m";
+            case "1h":
+                return "hydrant_pressure_1h";
+            case "1d":
+                return "hydrant_pressure_1d";
+            default:
+                throw new IllegalArgumentException("不支持的粒度：" + resolution);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new HashMap<>();
+        status.put("queued", buffer.size());
+        status.put("retrying", pending.size());
+        status.put("accepted", accepted.get());
+        status.put("rejected", rejected.get());
+        status.put("written", written.get());
+        status.put("failed", failed.get());
+        status.put("lastFlushMillis", lastFlushMillis);
+        return status;
+    }
+
+    // 关闭前把缓冲区剩余读数写完
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        retryAt = 0; // 不再等待退避时间，最后尝试一次
+        flush();
+    }
+
+    // 一个时间桶的累加值
+    private static final class Rollup {
+        final int hydrantId;
+        final long bucket;
+        long cnt;
+        double sum;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        Rollup(int hydrantId, long bucket) {
+            this.hydrantId = hydrantId;
+            this.bucket = bucket;
+        }
+
+        void add(double value) {
+            cnt++;
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.entity.Hydrant;
+import com.example.backend.event.HydrantChangedEvent;
+import com.example.backend.event.HydrantsReloadedEvent;
+import com.example.backend.service.TileService;
+import com.example.backend.utils.ResourceVersions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 矢量瓦片服务实现类
+ * 读取顺序：内存 -> 磁盘 -> 数据库；消防栓变更时只清除其新旧位置所在（含缓冲区相邻）的瓦片
+ */
+@Service
+public class TileServiceImpl implements TileService {
+    private static final Logger log = LoggerFactory.getLogger(TileServiceImpl.class);
+
+    private static final int EXTENT = 4096; // 瓦片坐标范围
+    private static final int BUFFER = 64; // 瓦片缓冲区，边界附近的要素会同时出现在相邻瓦片中
+    private static final String HYDRANT_LAYER = "sdjzdx_FireHydranty_Point";
+
+    // 瓦片SQL：瓦片范围转换到geom字段的SRID后过滤（可使用空间索引），属性取除geom外的全部字段
+    private static final String TILE_SQL = "WITH bounds AS (SELECT ST_TileEnvelope(?, ?, ?) AS env), "
+            + "q AS (SELECT ST_AsMVTGeom(ST_Transform(t.geom, 3857), bounds.env, " + EXTENT + ", " + BUFFER + ", true) AS mvt_geom, "
+            + "to_jsonb(t) - 'geom' AS props FROM %s t, bounds WHERE t.geom && ST_Transform(bounds.env, %d)) "
+            + "SELECT ST_AsMVT(q, '%s', " + EXTENT + ", 'mvt_geom') FROM q";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ResourceVersions resourceVersions;
+    private final Set<String> layers; // 允许出瓦片的图层（即数据表名）
+    private final Path cacheDir; // 磁盘缓存目录
+    private final long memoryMaxBytes; // 内存缓存上限（字节）
+    private final int maxZoom; // 失效时处理的最大缩放级别
+
+    // 内存LRU：key为 图层/z/x/y（加锁访问）
+    private final LinkedHashMap<String, byte[]> memory = new LinkedHashMap<>(256, 0.75f, true);
+    private long memoryBytes;
+    // 缓存代数：每次失效加1，生成期间发生失效的瓦片不写入缓存，避免写回旧数据
+    private final AtomicLong generation = new AtomicLong();
+    // 图层 -> geom字段的SRID
+    private final Map<String, Integer> srids = new ConcurrentHashMap<>();
+
+    public TileServiceImpl(JdbcTemplate jdbcTemplate, ResourceVersions resourceVersions,
+                           @Value("${tiles.layers}") List<String> layers,
+                           @Value("${tiles.cache-dir:tile-cache}") String cacheDir,
+                           @Value("${tiles.memory-max-bytes:67108864}") long memoryMaxBytes,
+                           @Value("${tiles.max-zoom:22}") int maxZoom) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.resourceVersions = resourceVersions;
+        this.layers = new HashSet<>(layers);
+        this.cacheDir = Paths.get(cacheDir);
+        this.memoryMaxBytes = memoryMaxBytes;
+        this.maxZoom = maxZoom;
+    }
+
+    @Override
+    public boolean isLayerAllowed(String layer) {
+        return layers.contains(layer);
+    }
+
+    @Override
+    public byte[] getTile(String layer, int z, int x, int y) {
+        String key = layer + "/" + z + "/" + x + "/" + y;
+        byte[] tile = getFromMemory(key);
+        if (tile != null) {
+            return tile;
+        }
+        // 读取磁盘或数据库期间发生失效的瓦片不写入缓存
+        long gen = generation.get();
+        Path file = cacheDir.resolve(key + ".mvt");
+        try {
+            if (Files.exists(file)) {
+                tile = Files.readAllBytes(file);
+                putToMemory(key, tile, gen);
+                return tile;
+            }
+        } catch (IOException e) {
+            log.warn("读取瓦片缓存失败：{}", e.getMessage());
+        }
+        String sql = String.format(TILE_SQL, "\"" + layer + "\"", srid(layer), layer);
+        tile = jdbcTemplate.queryForObject(sql, byte[].class, z, x, y);
+        if (tile == null) {
+            tile = new byte[0];
+        }
+        if (putToMemory(key, tile, gen)) {
+            writeToDisk(file, tile, gen);
+        }
+        return tile;
+    }
+
+    @Override
+    public void evictLayer(String layer) {
+        generation.incrementAndGet();
+        synchronized (memory) {
+            Iterator<Map.Entry<String, byte[]>> it = memory.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, byte[]> entry = it.next();
+                if (entry.getKey().startsWith(layer + "/")) {
+                    memoryBytes -= entry.getValue().length;
+                    it.remove();
+                }
+            }
+        }
+        try {
+            FileSystemUtils.deleteRecursively(cacheDir.resolve(layer));
+        } catch (IOException e) {
+            log.warn("清除瓦片缓存失败：{}", e.getMessage());
+        }
+        resourceVersions.bump(ResourceVersions.layer(layer));
+    }
+
+    // 全量加载后消防栓图层整体失效
+    @EventListener
+    public void onReloaded(HydrantsReloadedEvent event) {
+        evictLayer(HYDRANT_LAYER);
+    }
+
+    // 单个消防栓变更：只清除新旧位置涉及的瓦片
+    @EventListener
+    public void onChanged(HydrantChangedEvent event) {
+        Set<String> keys = new HashSet<>();
+        if (event.getBefore() != null) {
+            collectTiles(event.getBefore(), keys);
+        }
+        if (event.getAfter() != null) {
+            collectTiles(event.getAfter(), keys);
+        }
+        generation.incrementAndGet();
+        for (String key : keys) {
+            synchronized (memory) {
+                byte[] removed = memory.remove(key);
+                if (removed != null) {
+                    memoryBytes -= removed.length;
+                }
+            }
+            try {
+                Files.deleteIfExists(cacheDir.resolve(key + ".mvt"));
+            } catch (IOException e) {
+                log.warn("删除瓦片缓存失败：{}", e.getMessage());
+            }
+        }
+    }
+
+    // 计算一个点在各级别所在的瓦片，靠近边界（缓冲区内）时包含相邻瓦片
+    private void collectTiles(Hydrant hydrant, Set<String> keys) {
+        double mx = (hydrant.getLng() + 180.0) / 360.0;
+        double lat = Math.max(-85.05112878, Math.min(85.05112878, hydrant.getLat()));
+        double sin = Math.sin(Math.toRadians(lat));
+        double my = 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+        double margin = (double) BUFFER / EXTENT;
+        for (int z = 0; z <= maxZoom; z++) {
+            long n = 1L << z;
+            double fx = mx * n;
+            double fy = my * n;
+            long tx = Math.min(n - 1, (long) Math.floor(fx));
+            long ty = Math.min(n - 1, (long) Math.floor(fy));
+            for (long x = tx - 1; x <= tx + 1; x++) {
+                for (long y = ty - 1; y <= ty + 1; y++) {
+                    if (x < 0 || y < 0 || x >= n || y >= n) {
+                        continue;
+                    }
+                    // 相邻瓦片只有在点落入其缓冲区时才受影响
+                    if (fx < x - margin || fx > x + 1 + margin || fy < y - margin || fy > y + 1 + margin) {
+                        continue;
+                    }
+                    keys.add(HYDRANT_LAYER + "/" + z + "/" + x + "/" + y);
+                }
+            }
+        }
+    }
+
+    private byte[] getFromMemory(String key) {
+        synchronized (memory) {
+            return memory.get(key);
+        }
+    }
+
+    // 读取geom字段声明的SRID（未声明时取一行数据的SRID，没有数据时按4326处理）
+    private int srid(String layer) {
+        return srids.computeIfAbsent(layer, l -> {
+            List<Integer> declared = jdbcTemplate.queryForList("SELECT postgis_typmod_srid(a.atttypmod) FROM pg_attribute a "
+                    + "WHERE a.attrelid = to_regclass(?) AND a.attname = 'geom'", Integer.class, "\"" + l + "\"");
+            if (!declared.isEmpty() && declared.get(0) != null && declared.get(0) > 0) {
+                return declared.get(0);
+            }
+            List<Integer> found = jdbcTemplate.queryForList("SELECT ST_SRID(geom) FROM \"" + l
+                    + "\" WHERE geom IS NOT NULL LIMIT 1", Integer.class);
+            return found.isEmpty() || found.get(0) == null || found.get(0) <= 0 ? 4326 : found.get(0);
+        });
+    }
+
+    // 失效时先增加代数再加锁清除缓存，因此在锁内检查代数即可保证不会写回失效前生成的瓦片
+    private boolean putToMemory(String key, byte[] tile, long gen) {
+        synchronized (memory) {
+            if (generation.get() != gen) {
+                return false;
+            }
+            byte[] old = memory.put(key, tile);
+            memoryBytes += tile.length - (old == null ? 0 : old.length);
+            // 超出上限时淘汰最久未访问的瓦片
+            Iterator<byte[]> it = memory.values().iterator();
+            while (memoryBytes > memoryMaxBytes && it.hasNext()) {
+                memoryBytes -= it.next().length;
+                it.remove();
+            }
+            return true;
+        }
+    }
+
+    // 先写临时文件再原子替换，避免读到写了一半的瓦片；替换前在锁内再次检查代数，失效时删除磁盘文件在此之后进行
+    private void writeToDisk(Path file, byte[] tile, long gen) {
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tmp = Files.createTempFile(file.getParent(), "tile", ".tmp");
+            Files.write(tmp, tile);
+            synchronized (memory) {
+                if (generation.get() == gen) {
+                    Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                    tmp = null;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("写入瓦片缓存失败：{}", e.getMessage());
+        } finally {
+            if (tmp != null) {
+                try {
+                    Files.deleteIfExists(tmp);
+                } catch (IOException ignored) {
+                    // 临时文件会随图层目录一起清除
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,286 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.service.TilesetService;
+import com.example.backend.vo.TilesetFile;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 3D Tiles文件服务实现类
+ * gzip版本在启动时生成并按内容哈希缓存到磁盘，brotli版本使用瓦片目录中同名的.br文件；
+ * 发送时优先用内存映射缓存（访问较多的文件），其次用Tomcat的sendfile，最后用FileChannel.transferTo
+ */
+@Service
+public class TilesetServiceImpl implements TilesetService {
+    private static final Logger log = LoggerFactory.getLogger(TilesetServiceImpl.class);
+
+    // Tomcat sendfile请求属性：设置后由连接器直接把文件写入socket
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // 已经是压缩格式的文件，不再生成gzip版本
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of("png", "jpg", "jpeg", "webp", "ktx2", "gz", "br");
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "json", "application/json",
+            "glb", "model/gltf-binary",
+            "gltf", "model/gltf+json",
+            "png", "image/png",
+            "jpg", "image/jpeg",
+            "jpeg", "image/jpeg",
+            "webp", "image/webp",
+            "ktx2", "image/ktx2");
+
+    private final Path root; // 瓦片目录
+    private final Path cacheDir; // gzip版本缓存目录
+    private final double minSaving; // 压缩后至少减小的比例，否则不保留压缩版本
+    private final long mmapMaxBytes; // 内存映射缓存上限（字节）
+    private final long mmapMaxFileBytes; // 单个文件超过此大小不做内存映射
+    private final int mmapMinHits; // 访问次数达到此值后才做内存映射
+
+    private volatile Map<String, TilesetFile> files; // 相对路径 -> 文件信息，扫描完成前为null
+
+    // 内存映射缓存：按访问顺序淘汰（加锁访问）
+    private final LinkedHashMap<Path, MappedByteBuffer> mapped = new LinkedHashMap<>(64, 0.75f, true);
+    private long mappedBytes;
+    private final Map<Path, Integer> hits = new HashMap<>();
+
+    public TilesetServiceImpl(@Value("${tiles3d.root:../frontend/public/output_tiles}") String root,
+                              @Value("${tiles3d.cache-dir:tile-cache/3dtiles}") String cacheDir,
+                              @Value("${tiles3d.min-saving:0.1}") double minSaving,
+                              @Value("${tiles3d.mmap-max-bytes:134217728}") long mmapMaxBytes,
+                              @Value("${tiles3d.mmap-max-file-bytes:16777216}") long mmapMaxFileBytes,
+                              @Value("${tiles3d.mmap-min-hits:3}") int mmapMinHits) {
+        this.root = Paths.get(root).toAbsolutePath().normalize();
+        this.cacheDir = Paths.get(cacheDir);
+        this.minSaving = minSaving;
+        this.mmapMaxBytes = mmapMaxBytes;
+        this.mmapMaxFileBytes = mmapMaxFileBytes;
+        this.mmapMinHits = mmapMinHits;
+    }
+
+    // 应用启动完成后扫描，目录不存在时只记录日志，不影响启动
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("扫描3D Tiles目录失败：{}", e.getMessage());
+        }
+    }
+
+    @Override
+    public synchronized void reload() throws IOException {
+        long begin = System.currentTimeMillis();
+        Files.createDirectories(cacheDir);
+        Map<String, TilesetFile> scanned = new HashMap<>();
+        List<Path> paths;
+        try (Stream<Path> stream = Files.walk(root)) {
+            paths = stream.filter(Files::isRegularFile)
+                    .filter(p -> !p.getFileName().toString().endsWith(".gz") && !p.getFileName().toString().endsWith(".br"))
+                    .toList();
+        }
+        int gzipCount = 0;
+        int brotliCount = 0;
+        for (Path path : paths) {
+            TilesetFile file = scan(path);
+            scanned.put(root.relativize(path).toString().replace(File.separatorChar, '/'), file);
+            gzipCount += file.getGzipFile() != null ? 1 : 0;
+            brotliCount += file.getBrotliFile() != null ? 1 : 0;
+        }
+        synchronized (mapped) {
+            mapped.clear();
+            mappedBytes = 0;
+            hits.clear();
+        }
+        files = scanned;
+        log.info("3D Tiles扫描完成：{}个文件，gzip版本{}个，brotli版本{}个，耗时{}ms",
+                scanned.size(), gzipCount, brotliCount, System.currentTimeMillis() - begin);
+    }
+
+    @Override
+    public boolean isReady() {
+        return files != null;
+    }
+
+    @Override
+    public TilesetFile find(String path) {
+        Map<String, TilesetFile> current = files;
+        // 只返回扫描到的文件，路径中的../等无法访问目录外的文件
+        return current == null ? null : current.get(path);
+    }
+
+    @Override
+    public void transfer(Path file, long size, long start, long length,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+        ByteBuffer buffer = mapIfHot(file, size);
+        if (buffer != null) {
+            ByteBuffer slice = buffer.duplicate();
+            slice.position((int) start).limit((int) (start + length));
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (slice.hasRemaining()) {
+                out.write(slice);
+            }
+            return;
+        }
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // 请求结束后由Tomcat用FileChannel.transferTo直接写入socket
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, start + length);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        Map<String, TilesetFile> current = files;
+        status.put("ready", current != null);
+        status.put("files", current == null ? 0 : current.size());
+        synchronized (mapped) {
+            status.put("mappedFiles", mapped.size());
+            status.put("mappedBytes", mappedBytes);
+        }
+        return status;
+    }
+
+    // 计算哈希并准备压缩版本
+    private TilesetFile scan(Path path) throws IOException {
+        String name = path.getFileName().toString();
+        String extension = name.contains(".") ? name.substring(name.lastIndexOf('.') + 1).toLowerCase() : "";
+        long size = Files.size(path);
+        String hash = hash(path);
+
+        Path gzipFile = null;
+        long gzipSize = 0;
+        if (!COMPRESSED_EXTENSIONS.contains(extension)) {
+            // 按内容哈希命名，文件未变化时直接复用上次生成的版本
+            Path cached = cacheDir.resolve(hash + ".gz");
+            if (!Files.exists(cached)) {
+                gzip(path, cached);
+            }
+            gzipSize = Files.size(cached);
+            if (gzipSize <= size * (1 - minSaving)) {
+                gzipFile = cached;
+            }
+        }
+
+        // brotli版本由瓦片生成流程输出（如 brotli -k），比原文件旧时视为过期
+        Path brotliFile = path.resolveSibling(name + ".br");
+        long brotliSize = 0;
+        if (Files.isRegularFile(brotliFile)
+                && Files.getLastModifiedTime(brotliFile).compareTo(Files.getLastModifiedTime(path)) >= 0) {
+            brotliSize = Files.size(brotliFile);
+        } else {
+            brotliFile = null;
+        }
+        return new TilesetFile(path, size, hash, CONTENT_TYPES.getOrDefault(extension, "application/octet-stream"),
+                gzipFile, gzipSize, brotliFile, brotliSize);
+    }
+
+    private static String hash(Path path) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        try (InputStream in = new DigestInputStream(Files.newInputStream(path), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(Arrays.copyOf(digest.digest(), 16));
+    }
+
+    // 先写临时文件再改名，避免并发读到写了一半的文件
+    private static void gzip(Path source, Path target) throws IOException {
+        Path temp = Files.createTempFile(target.getParent(), "gz", ".tmp");
+        try (InputStream in = Files.newInputStream(source);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp), 65536) {
+                 {
+                     def.setLevel(Deflater.BEST_COMPRESSION);
+                 }
+             }) {
+            in.transferTo(out);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // 访问次数达到阈值的文件映射到内存，超过上限时淘汰最久未访问的（映射在对象回收后才释放）
+    private ByteBuffer mapIfHot(Path file, long size) throws IOException {
+        synchronized (mapped) {
+            MappedByteBuffer buffer = mapped.get(file);
+            if (buffer != null) {
+                return buffer;
+            }
+            if (size > mmapMaxFileBytes || size > mmapMaxBytes || hits.merge(file, 1, Integer::sum) < mmapMinHits) {
+                return null;
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            mapped.put(file, buffer);
+            mappedBytes += size;
+            Iterator<Map.Entry<Path, MappedByteBuffer>> it = mapped.entrySet().iterator();
+            while (mappedBytes > mmapMaxBytes && it.hasNext()) {
+                Map.Entry<Path, MappedByteBuffer> eldest = it.next();
+                mappedBytes -= eldest.getValue().capacity();
+                it.remove();
+            }
+            return buffer;
+        }
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.service.ClusterSyncService;
+import com.example.backend.service.UserTransferService;
+import com.example.backend.utils.CsvReader;
+import com.example.backend.utils.CsvWriter;
+import com.example.backend.utils.ResourceVersions;
+import com.example.backend.vo.UserImportResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 用户批量导入导出服务实现类
+ * 导入：每批一条INSERT ... SELECT FROM unnest(数组)，用户名查重在SQL中整批完成；整批失败时逐行重试定位错误行
+ * 导出：只读事务 + fetchSize，PostgreSQL使用服务端游标分批取数
+ */
+@Service
+public class UserTransferServiceImpl implements UserTransferService {
+    // 导入识别的列（表头不区分大小写，birth_date与birthDate等价）
+    private static final String[] COLUMNS = {"name", "password", "sex", "birthDate", "department", "telephone", "email", "role"};
+    private static final int NAME = 0;
+    private static final int PASSWORD = 1;
+    private static final int BIRTH_DATE = 3;
+    private static final int ROLE = 7;
+    private static final Set<String> ROLES = Set.of("ADMIN", "USER");
+
+    private static final String[] EXPORT_HEADERS = {"id", "name", "sex", "birthDate", "department", "telephone", "email", "role", "createTime"};
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("y-M-d"); // 兼容2001-1-5这类不补零的写法
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    // 已存在的用户名由NOT EXISTS排除（并发插入时由唯一约束兜底），RETURNING返回实际插入的用户名
+    private static final String INSERT = "INSERT INTO sys_user (name, password, sex, birth_date, department, telephone, email, role, create_time) "
+            + "SELECT t.name, t.password, t.sex, t.birth_date::date, t.department, t.telephone, t.email, t.role, now() "
+            + "FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[]) "
+            + "AS t(name, password, sex, birth_date, department, telephone, email, role) "
+            + "WHERE NOT EXISTS (SELECT 1 FROM sys_user u WHERE u.name = t.name) "
+            + "ON CONFLICT DO NOTHING RETURNING name";
+    private static final String EXPORT = "SELECT id, name, sex, birth_date, department, telephone, email, role, create_time "
+            + "FROM sys_user WHERE true";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ResourceVersions resourceVersions;
+    private final ClusterSyncService clusterSyncService;
+    private final JdbcTemplate cursorTemplate; // 导出用的独立实例，设置了fetchSize
+    private final TransactionTemplate readOnlyTemplate;
+    private final int chunkSize; // 每批导入行数
+    private final int maxErrors; // 最多返回的错误明细条数
+
+    public UserTransferServiceImpl(JdbcTemplate jdbcTemplate, ResourceVersions resourceVersions,
+                                   ClusterSyncService clusterSyncService, DataSource dataSource,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${user.transfer.chunk-size:1000}") int chunkSize,
+                                   @Value("${user.transfer.max-errors:1000}") int maxErrors,
+                                   @Value("${export.fetch-size:1000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.resourceVersions = resourceVersions;
+        this.clusterSyncService = clusterSyncService;
+        this.cursorTemplate = new JdbcTemplate(dataSource);
+        this.cursorTemplate.setFetchSize(fetchSize);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public UserImportResult importCsv(InputStream in) throws IOException {
+        UserImportResult result = new UserImportResult(maxErrors);
+        CsvReader reader = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String[] header = reader.next();
+        if (header == null) {
+            return result;
+        }
+        int[] index = new int[COLUMNS.length];
+        Arrays.fill(index, -1);
+        for (int i = 0; i < header.length; i++) {
+            String name = header[i].trim().replace("_", "");
+            for (int c = 0; c < COLUMNS.length; c++) {
+                if (COLUMNS[c].equalsIgnoreCase(name)) {
+                    index[c] = i;
+                }
+            }
+        }
+        if (index[NAME] < 0 || index[PASSWORD] < 0) {
+            throw new IllegalArgumentException("表头缺少name或password列");
+        }
+
+        List<Row> chunk = new ArrayList<>(chunkSize);
+        Set<String> chunkNames = new HashSet<>(); // 本批内的用户名，用于发现文件内重复
+        int rowNumber = 1;
+        String[] record;
+        while ((record = reader.next()) != null) {
+            rowNumber++;
+            if (record.length == 1 && record[0].isBlank()) {
+                continue; // 空行
+            }
+            result.addTotal(1);
+            String[] values = new String[COLUMNS.length];
+            for (int c = 0; c < COLUMNS.length; c++) {
+                values[c] = index[c] >= 0 && index[c] < record.length ? clean(record[index[c]]) : null;
+            }
+            String error = validate(values);
+            if (error == null && !chunkNames.add(values[NAME])) {
+                error = "文件中用户名重复";
+            }
+            if (error != null) {
+                result.addError(rowNumber, values[NAME], error);
+                continue;
+            }
+            chunk.add(new Row(rowNumber, values));
+            if (chunk.size() >= chunkSize) {
+                flush(chunk, result);
+                chunk.clear();
+                chunkNames.clear();
+            }
+        }
+        flush(chunk, result);
+        if (result.getImported() > 0) {
+            resourceVersions.bump(ResourceVersions.USERS);
+            clusterSyncService.publish(ResourceVersions.USERS, null); // 批量导入不逐条通知
+        }
+        return result;
+    }
+
+    @Override
+    public void exportCsv(String name, String role, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(EXPORT);
+        List<Object> args = new ArrayList<>();
+        if (StringUtils.hasText(name)) {
+            sql.append(" AND name LIKE ?");
+            args.add("%" + name + "%");
+        }
+        if (StringUtils.hasText(role)) {
+            sql.append(" AND role = ?");
+            args.add(role);
+        }
+        sql.append(" ORDER BY id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 65536);
+        writer.write('\uFEFF'); // BOM：Excel据此按UTF-8打开，中文不乱码
+        CsvWriter csv = new CsvWriter(writer);
+        csv.writeRow((Object[]) EXPORT_HEADERS);
+        try {
+            readOnlyTemplate.executeWithoutResult(status -> cursorTemplate.query(sql.toString(), rs -> {
+                try {
+                    Timestamp createTime = rs.getTimestamp(9);
+                    csv.writeRow(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getDate(4),
+                            rs.getString(5), rs.getString(6), rs.getString(7), rs.getString(8),
+                            createTime == null ? null : createTime.toLocalDateTime().format(TIME_FORMAT));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e); // 客户端断开时终止查询
+                }
+            }, args.toArray()));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        csv.flush();
+    }
+
+    // 写入一批；整批出错（如字段超长）时逐行重试，只有出错的行记为失败
+    private void flush(List<Row> chunk, UserImportResult result) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            record(chunk, insert(chunk), result);
+        } catch (DataAccessException e) {
+            for (Row row : chunk) {
+                try {
+                    record(List.of(row), insert(List.of(row)), result);
+                } catch (DataAccessException rowError) {
+                    result.addError(row.number, row.values[NAME], "导入失败：" + rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+    }
+
+    // 未出现在RETURNING结果中的行即为用户名已存在
+    private static void record(List<Row> rows, Set<String> inserted, UserImportResult result) {
+        for (Row row : rows) {
+            if (!inserted.contains(row.values[NAME])) {
+                result.addError(row.number, row.values[NAME], "用户名已存在");
+            }
+        }
+        result.addImported(inserted.size());
+    }
+
+    private Set<String> insert(List<Row> rows) {
+        return jdbcTemplate.execute((ConnectionCallback<Set<String>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT)) {
+                for (int c = 0; c < COLUMNS.length; c++) {
+                    String[] column = new String[rows.size()];
+                    for (int i = 0; i < rows.size(); i++) {
+                        column[i] = rows.get(i).values[c];
+                    }
+                    ps.setArray(c + 1, connection.createArrayOf("text", column));
+                }
+                Set<String> inserted = new HashSet<>();
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        inserted.add(rs.getString(1));
+                    }
+                }
+                return inserted;
+            }
+        });
+    }
+
+    // 校验并规范化一行，返回错误信息，通过时返回null
+    private static String validate(String[] values) {
+        if (values[NAME] == null) {
+            return "用户名不能为空";
+        }
+        if (values[PASSWORD] == null) {
+            return "密码不能为空";
+        }
+        if (values[ROLE] == null) {
+            values[ROLE] = "USER";
+        } else {
+            values[ROLE] = values[ROLE].toUpperCase();
+            if (!ROLES.contains(values[ROLE])) {
+                return "权限只能是ADMIN或USER";
+            }
+        }
+        if (values[BIRTH_DATE] != null) {
+            try {
+                values[BIRTH_DATE] = LocalDate.parse(values[BIRTH_DATE].replace('/', '-'), DATE_FORMAT).toString();
+            } catch (DateTimeParseException e) {
+                return "出生日期格式应为yyyy-MM-dd或yyyy/MM/dd";
+            }
+        }
+        return null;
+    }
+
+    // 去掉首尾空白；去掉导出时为防止公式注入加的单引号
+    private static String clean(String value) {
+        String trimmed = value.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+        if (trimmed.length() > 1 && trimmed.charAt(0) == '\'' && "=+-@".indexOf(trimmed.charAt(1)) >= 0) {
+            return trimmed.substring(1);
+        }
+        return trimmed;
+    }
+
+    private static final class Row {
+        final int number; // 行号
+        final String[] values; // 按COLUMNS顺序
+
+        Row(int number, String[] values) {
+            this.number = number;
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.backend.utils;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 带隔离舱的数据源
+ * 获取连接前先取得许可，连接关闭（归还连接池）时释放许可；MyBatis和JdbcTemplate都经过这里
+ * 只对HTTP请求线程限流拒绝；后台线程（遥测写入、历史记录、集群同步等）拒绝后只能丢数据，改为阻塞等待许可
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+    // 被拒绝时在请求属性中打标记，由LoadSheddingAdvice统一改为503响应
+    public static final String REJECTED_ATTRIBUTE = "dbBulkheadRejected";
+
+    private final DbBulkhead bulkhead;
+
+    public BulkheadDataSource(DataSource target, DbBulkhead bulkhead) {
+        super(target);
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        try {
+            return wrap(super.getConnection());
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        try {
+            return wrap(super.getConnection(username, password));
+        } catch (SQLException | RuntimeException e) {
+            bulkhead.release();
+            throw e;
+        }
+    }
+
+    private void acquire() throws SQLException {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        boolean acquired = true;
+        try {
+            if (attributes == null) {
+                bulkhead.acquire();
+            } else {
+                acquired = bulkhead.tryAcquire();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("等待数据库连接被中断");
+        }
+        if (!acquired) {
+            attributes.setAttribute(REJECTED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+            throw new SQLTransientConnectionException("数据库繁忙，请稍后重试");
+        }
+    }
+
+    // 代理连接：close时释放许可（只释放一次），其他方法直接转发
+    private Connection wrap(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if ("close".equals(method.getName()) && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        } finally {
+                            bulkhead.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.backend.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 数据库隔离舱
+ * 许可数与连接池大小一致；等待的请求超过队列上限或等待超时时立即拒绝，而不是在连接池上无限排队
+ */
+public class DbBulkhead {
+    private final Semaphore semaphore;
+    private final int permits; // 许可数（连接池大小）
+    private final int maxQueue; // 最多允许多少个请求等待
+    private final long maxWaitMillis; // 最长等待时间
+    private final AtomicInteger queued = new AtomicInteger(); // 当前等待数
+    private final Counter rejected;
+
+    public DbBulkhead(int permits, int maxQueue, long maxWaitMillis, MeterRegistry meterRegistry) {
+        this.semaphore = new Semaphore(permits, true);
+        this.permits = permits;
+        this.maxQueue = maxQueue;
+        this.maxWaitMillis = maxWaitMillis;
+        Gauge.builder("db.bulkhead.active", this, b -> b.permits - b.semaphore.availablePermits())
+                .description("正在使用数据库连接的请求数").register(meterRegistry);
+        Gauge.builder("db.bulkhead.queued", queued, AtomicInteger::get)
+                .description("等待数据库连接的请求数").register(meterRegistry);
+        this.rejected = Counter.builder("db.bulkhead.rejected")
+                .description("因数据库繁忙被拒绝的次数").register(meterRegistry);
+    }
+
+    /**
+     * 获取许可
+     * @return 获取成功返回true，队列已满或等待超时返回false
+     */
+    public boolean tryAcquire() throws InterruptedException {
+        if (semaphore.tryAcquire()) {
+            return true; // 有空闲许可，不用排队
+        }
+        if (queued.incrementAndGet() > maxQueue) {
+            queued.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        try {
+            if (semaphore.tryAcquire(maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+            rejected.increment();
+            return false;
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * 获取许可，没有空闲许可时一直等待，不会被拒绝（用于后台线程）
+     */
+    public void acquire() throws InterruptedException {
+        if (semaphore.tryAcquire()) {
+            return;
+        }
+        queued.incrementAndGet();
+        try {
+            semaphore.acquire();
+        } finally {
+            queued.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        semaphore.release();
+    }
+
+    public int getQueued() {
+        return queued.get();
+    }
+
+    public double getRejected() {
+        return rejected.count();
+    }
+}
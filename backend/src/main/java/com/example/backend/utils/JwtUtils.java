@@ -1,6 +1,7 @@
 package com.example.backend.utils;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
@@ -10,6 +11,9 @@ import java.util.Date;
 
 @Component
 public class JwtUtils {
+    // 存放Token的Cookie名称（登录写入、拦截器读取、退出清除统一使用）
+    public static final String COOKIE_NAME = "jwt-token";
+
     // 从配置文件读取密钥和过期时间
     @Value("${jwt.secret}")
     private String secret;
@@ -17,11 +21,18 @@ public class JwtUtils {
     @Value("${jwt.expire}")
     private long expire;
 
-    // 创建加密密钥
-    private SecretKey getSigningKey() {
+    // 密钥和解析器只创建一次，解析器线程安全可复用
+    private SecretKey signingKey;
+    private JwtParser parser;
+
+    @PostConstruct
+    public void init() {
         // 使用HMAC-SHA256算法，需要至少256位(32字节)的密钥
         byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+        signingKey = Keys.hmacShaKeyFor(keyBytes);
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
     // 生成Token
@@ -33,27 +44,24 @@ public class JwtUtils {
                 .setSubject(username) // 设置用户名作为主题
                 .setIssuedAt(now) // 签发时间
                 .setExpiration(expirationDate) // 过期时间
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256) // 使用最新的签名方式
+                .signWith(signingKey, SignatureAlgorithm.HS256) // 使用最新的签名方式
                 .compact();
     }
 
+    // 校验签名并解析Token，无效时抛出JwtException
+    public Claims parseClaims(String token) {
+        return parser.parseClaimsJws(token).getBody();
+    }
+
     // 从Token中获取用户名
     public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder() // 使用builder模式构建解析器
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        return claims.getSubject();
+        return parseClaims(token).getSubject();
     }
 
     // 验证Token有效性
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token);
+            parseClaims(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             // 包括过期、签名错误等各种JWT异常
@@ -63,14 +71,7 @@ public class JwtUtils {
 
     // 检查Token是否过期
     public boolean isTokenExpired(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-        Date expiration = claims.getExpiration();
+        Date expiration = parseClaims(token).getExpiration();
         return expiration.before(new Date());
     }
 }
-
-
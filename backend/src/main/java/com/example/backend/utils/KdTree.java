@@ -0,0 +1,123 @@
+package com.example.backend.utils;
+
+/**
+ * 二维k-d树
+ * 对一组点建立静态索引，查询最近点为O(log n)；点集变化时重新构建
+ */
+public class KdTree {
+    private final double[] xs;
+    private final double[] ys;
+    private final int[] order; // 树的隐式存储：区间[lo, hi)的中位数为该子树的根
+
+    public KdTree(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+        this.order = new int[xs.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        build(0, order.length, 0);
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * 查询最近点
+     * @return 点的下标，点集为空时返回-1
+     */
+    public int nearest(double x, double y) {
+        if (order.length == 0) {
+            return -1;
+        }
+        Search search = new Search(x, y);
+        nearest(0, order.length, 0, search);
+        return search.best;
+    }
+
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth & 1);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    private void nearest(int lo, int hi, int depth, Search search) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int index = order[mid];
+        double dx = xs[index] - search.x;
+        double dy = ys[index] - search.y;
+        double d2 = dx * dx + dy * dy;
+        if (d2 < search.bestDistance2) {
+            search.bestDistance2 = d2;
+            search.best = index;
+        }
+        // 先搜查询点所在的一侧，另一侧只有分割线距离小于当前最优时才需要搜
+        double diff = (depth & 1) == 0 ? -dx : -dy;
+        if (diff < 0) {
+            nearest(lo, mid, depth + 1, search);
+            if (diff * diff < search.bestDistance2) {
+                nearest(mid + 1, hi, depth + 1, search);
+            }
+        } else {
+            nearest(mid + 1, hi, depth + 1, search);
+            if (diff * diff < search.bestDistance2) {
+                nearest(lo, mid, depth + 1, search);
+            }
+        }
+    }
+
+    // 快速选择：把第k小的点放到位置k，左边都不大于它、右边都不小于它
+    private void select(int lo, int hi, int k, int axis) {
+        while (lo < hi) {
+            double pivot = coord(order[(lo + hi) >>> 1], axis);
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (coord(order[i], axis) < pivot) {
+                    i++;
+                }
+                while (coord(order[j], axis) > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private double coord(int index, int axis) {
+        return axis == 0 ? xs[index] : ys[index];
+    }
+
+    private static final class Search {
+        final double x;
+        final double y;
+        int best = -1;
+        double bestDistance2 = Double.POSITIVE_INFINITY;
+
+        Search(double x, double y) {
+            this.x = x;
+            this.y = y;
+        }
+    }
+}
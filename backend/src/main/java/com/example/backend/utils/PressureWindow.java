@@ -0,0 +1,51 @@
+package com.example.backend.utils;
+
+/**
+ * 单个消防栓的压力滑动窗口
+ * 用定长的long/double数组做环形缓冲区，写满后覆盖最旧的读数，不产生装箱对象
+ * 非线程安全，由负责该消防栓的告警线程独占
+ */
+public class PressureWindow {
+    private final long[] times;
+    private final double[] values;
+    private int head; // 下一次写入的位置
+    private int size;
+
+    public PressureWindow(int capacity) {
+        this.times = new long[capacity];
+        this.values = new double[capacity];
+    }
+
+    public void add(long ts, double value) {
+        times[head] = ts;
+        values[head] = value;
+        head = (head + 1) % times.length;
+        if (size < times.length) {
+            size++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // 最新一条读数的时间，窗口为空时返回Long.MIN_VALUE
+    public long latestTime() {
+        return size == 0 ? Long.MIN_VALUE : time(0);
+    }
+
+    // 倒数第age条读数的时间，age为0表示最新
+    public long time(int age) {
+        return times[index(age)];
+    }
+
+    // 倒数第age条读数的压力
+    public double value(int age) {
+        return values[index(age)];
+    }
+
+    private int index(int age) {
+        int i = head - 1 - age;
+        return i < 0 ? i + times.length : i;
+    }
+}
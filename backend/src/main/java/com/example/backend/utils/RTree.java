@@ -0,0 +1,125 @@
+package com.example.backend.utils;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntConsumer;
+
+/**
+ * 静态R树
+ * 按STR算法（先按x分条带、条带内按y排序）一次性打包构建，只读，可被多个线程同时查询；数据变化时重新构建
+ */
+public class RTree {
+    private static final int NODE_SIZE = 16; // 每个节点的子节点数
+
+    private final int[] order; // 叶子层按STR顺序排列的条目下标
+    private final double[] items; // 条目矩形，与order顺序一致，每个条目4个值
+    private final double[][] levels; // 第0层为叶子节点，每个节点4个值：minX, minY, maxX, maxY
+    private final int[] counts; // 每层的节点数
+
+    public RTree(double[] minX, double[] minY, double[] maxX, double[] maxY) {
+        int n = minX.length;
+        Integer[] sorted = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+        }
+        // STR：按中心x排序后切成若干条带，每个条带内按中心y排序
+        Arrays.sort(sorted, Comparator.comparingDouble(i -> minX[i] + maxX[i]));
+        int leaves = (n + NODE_SIZE - 1) / NODE_SIZE;
+        int sliceSize = (int) Math.ceil(Math.sqrt(leaves)) * NODE_SIZE;
+        for (int from = 0; from < n; from += sliceSize) {
+            Arrays.sort(sorted, from, Math.min(n, from + sliceSize), Comparator.comparingDouble(i -> minY[i] + maxY[i]));
+        }
+        order = new int[n];
+        items = new double[n * 4];
+        for (int i = 0; i < n; i++) {
+            int item = sorted[i];
+            order[i] = item;
+            items[i * 4] = minX[item];
+            items[i * 4 + 1] = minY[item];
+            items[i * 4 + 2] = maxX[item];
+            items[i * 4 + 3] = maxY[item];
+        }
+
+        int depth = 1;
+        for (int count = leaves; count > 1; count = (count + NODE_SIZE - 1) / NODE_SIZE) {
+            depth++;
+        }
+        levels = new double[depth][];
+        counts = new int[depth];
+        counts[0] = leaves;
+        levels[0] = new double[leaves * 4];
+        for (int node = 0; node < leaves; node++) {
+            double[] box = empty();
+            for (int i = node * NODE_SIZE; i < Math.min(n, (node + 1) * NODE_SIZE); i++) {
+                expand(box, items[i * 4], items[i * 4 + 1], items[i * 4 + 2], items[i * 4 + 3]);
+            }
+            System.arraycopy(box, 0, levels[0], node * 4, 4);
+        }
+        for (int level = 1; level < depth; level++) {
+            int children = counts[level - 1];
+            counts[level] = (children + NODE_SIZE - 1) / NODE_SIZE;
+            levels[level] = new double[counts[level] * 4];
+            double[] below = levels[level - 1];
+            for (int node = 0; node < counts[level]; node++) {
+                double[] box = empty();
+                for (int c = node * NODE_SIZE; c < Math.min(children, (node + 1) * NODE_SIZE); c++) {
+                    expand(box, below[c * 4], below[c * 4 + 1], below[c * 4 + 2], below[c * 4 + 3]);
+                }
+                System.arraycopy(box, 0, levels[level], node * 4, 4);
+            }
+        }
+    }
+
+    public int size() {
+        return order.length;
+    }
+
+    /**
+     * 查询与矩形相交的条目
+     * @param visitor 接收条目下标（构建时数组中的下标）
+     */
+    public void search(double minX, double minY, double maxX, double maxY, IntConsumer visitor) {
+        if (order.length == 0) {
+            return;
+        }
+        int top = levels.length - 1;
+        for (int node = 0; node < counts[top]; node++) {
+            search(top, node, minX, minY, maxX, maxY, visitor);
+        }
+    }
+
+    private void search(int level, int node, double minX, double minY, double maxX, double maxY, IntConsumer visitor) {
+        if (!intersects(levels[level], node, minX, minY, maxX, maxY)) {
+            return;
+        }
+        int from = node * NODE_SIZE;
+        if (level == 0) {
+            for (int i = from; i < Math.min(order.length, from + NODE_SIZE); i++) {
+                if (intersects(items, i, minX, minY, maxX, maxY)) {
+                    visitor.accept(order[i]);
+                }
+            }
+            return;
+        }
+        for (int child = from; child < Math.min(counts[level - 1], from + NODE_SIZE); child++) {
+            search(level - 1, child, minX, minY, maxX, maxY, visitor);
+        }
+    }
+
+    private static boolean intersects(double[] boxes, int index, double minX, double minY, double maxX, double maxY) {
+        int b = index * 4;
+        return boxes[b] <= maxX && boxes[b + 1] <= maxY && boxes[b + 2] >= minX && boxes[b + 3] >= minY;
+    }
+
+    private static double[] empty() {
+        return new double[]{Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    }
+
+    private static void expand(double[] box, double minX, double minY, double maxX, double maxY) {
+        box[0] = Math.min(box[0], minX);
+        box[1] = Math.min(box[1], minY);
+        box[2] = Math.max(box[2], maxX);
+        box[3] = Math.max(box[3], maxY);
+    }
+}
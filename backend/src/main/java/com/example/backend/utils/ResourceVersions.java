@@ -0,0 +1,49 @@
+package com.example.backend.utils;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 资源版本号
+ * 每类资源一个计数器，数据写入成功（且内存中的派生数据已更新）后加1；ETag由版本号生成，版本号不变时直接返回304，不查数据库也不序列化
+ */
+@Component
+public class ResourceVersions {
+    // 资源名称
+    public static final String USERS = "users";
+    public static final String HYDRANTS = "hydrants";
+    public static final String ROADS = "roads";
+    public static final String BUILDINGS = "buildings";
+    public static final String COVERAGE = "coverage";
+
+    // 实例标识：每次启动随机生成，重启或多实例时ETag不会与其他实例的相同版本号混淆
+    private final String instance = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    // 图层资源名称（瓦片、导出）
+    public static String layer(String layer) {
+        return "layer:" + layer;
+    }
+
+    public long get(String resource) {
+        AtomicLong version = versions.get(resource);
+        return version == null ? 0 : version.get();
+    }
+
+    public void bump(String resource) {
+        versions.computeIfAbsent(resource, r -> new AtomicLong()).incrementAndGet();
+    }
+
+    // 由多个资源的版本号生成弱ETag（响应可能被压缩，不保证字节一致）
+    public String etag(String... resources) {
+        StringBuilder tag = new StringBuilder("W/\"").append(instance);
+        for (String resource : resources) {
+            tag.append('-').append(get(resource));
+        }
+        return tag.append('"').toString();
+    }
+}
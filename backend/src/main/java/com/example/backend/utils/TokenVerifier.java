@@ -0,0 +1,215 @@
+package com.example.backend.utils;
+
+import com.example.backend.event.ClusterChangeEvent;
+import com.example.backend.service.ClusterSyncService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token校验组件
+ * 已校验过的Token按摘要缓存到过期时间，命中时只需一次哈希查找；退出登录的Token记入吊销集合
+ * 多实例部署时吊销记录经集群同步通知其他节点，事件格式为 摘要:过期时间
+ */
+@Component
+public class TokenVerifier {
+    private static final Logger log = LoggerFactory.getLogger(TokenVerifier.class);
+
+    // 集群事件的数据类型
+    public static final String TOPIC = "tokens";
+
+    @Autowired
+    private JwtUtils jwtUtils;
+    @Autowired
+    private ClusterSyncService clusterSyncService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${cluster.sync.enabled:false}")
+    private boolean clusterEnabled;
+
+    @Value("${jwt.cache.max-size:10000}")
+    private int maxSize; // 缓存上限
+
+    // 摘要 -> 已校验的Token
+    private final Map<String, VerifiedToken> cache = new ConcurrentHashMap<>();
+    // 摘要 -> 过期时间（毫秒），过期后自动失效，无需继续保存
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile long lastSweep; // 上次清理过期条目的时间
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // MessageDigest非线程安全，每个线程一个
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    /**
+     * 校验Token
+     * @return 有效时返回Claims，无效、过期或已吊销时返回null
+     */
+    public Claims verify(String token) {
+        String key = digest(token);
+        long now = System.currentTimeMillis();
+        VerifiedToken cached = cache.get(key);
+        if (cached != null) {
+            if (cached.expiresAt > now) {
+                hits.incrementAndGet();
+                return cached.claims;
+            }
+            cache.remove(key); // 已过期
+            return null;
+        }
+        misses.incrementAndGet();
+        if (revoked.containsKey(key)) {
+            return null;
+        }
+        Claims claims;
+        try {
+            claims = jwtUtils.parseClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Date expiration = claims.getExpiration();
+        if (expiration != null) {
+            put(key, new VerifiedToken(claims, expiration.getTime()), now);
+        }
+        return claims;
+    }
+
+    // 吊销Token（退出登录时调用），记录到Token自身的过期时间为止，并通知其他节点
+    public void revoke(String token) {
+        String key = digest(token);
+        long expiresAt;
+        try {
+            Date expiration = jwtUtils.parseClaims(token).getExpiration();
+            expiresAt = expiration != null ? expiration.getTime() : Long.MAX_VALUE;
+        } catch (JwtException | IllegalArgumentException e) {
+            cache.remove(key);
+            return; // 本身无效的Token无需吊销
+        }
+        markRevoked(key, expiresAt);
+        sweep(System.currentTimeMillis(), true);
+        clusterSyncService.publish(TOPIC, key + ":" + expiresAt);
+    }
+
+    // 其他节点吊销了Token；需要整体失效时（断线过久、事件已被清理）从事件表重新读取全部吊销记录
+    @EventListener
+    public void onClusterChange(ClusterChangeEvent event) {
+        if (!event.matches(TOPIC)) {
+            return;
+        }
+        if (event.isAll()) {
+            loadRevoked();
+        } else {
+            addRevoked(event.getKey());
+        }
+    }
+
+    // 启动时读取其他节点已吊销的Token：事件保留时长（默认24小时）大于Token有效期，启动前的吊销不会遗漏
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (clusterEnabled) {
+            loadRevoked();
+        }
+    }
+
+    private void loadRevoked() {
+        try {
+            for (String value : jdbcTemplate.queryForList("SELECT key FROM cluster_event WHERE topic = ?", String.class, TOPIC)) {
+                addRevoked(value);
+            }
+        } catch (Exception e) {
+            log.warn("读取已吊销的Token失败：{}", e.getMessage());
+        }
+    }
+
+    // 解析 摘要:过期时间，已过期的不再记录
+    private void addRevoked(String value) {
+        int separator = value == null ? -1 : value.lastIndexOf(':');
+        if (separator < 0) {
+            return;
+        }
+        long expiresAt;
+        try {
+            expiresAt = Long.parseLong(value.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return;
+        }
+        if (expiresAt > System.currentTimeMillis()) {
+            markRevoked(value.substring(0, separator), expiresAt);
+        }
+    }
+
+    // 先记入吊销集合再移出缓存：与put中的二次检查配合，正在校验的请求不会把已吊销的Token重新放入缓存
+    private void markRevoked(String key, long expiresAt) {
+        revoked.put(key, expiresAt);
+        cache.remove(key);
+    }
+
+    // 命中率等统计
+    public Map<String, Object> getStats() {
+        return Map.of("size", cache.size(), "revoked", revoked.size(),
+                "hits", hits.get(), "misses", misses.get());
+    }
+
+    private void put(String key, VerifiedToken token, long now) {
+        if (cache.size() >= maxSize) {
+            sweep(now, false);
+            if (cache.size() >= maxSize) {
+                return; // 仍然已满，不缓存，下次重新校验
+            }
+        }
+        cache.put(key, token);
+        // 校验期间Token可能刚被吊销
+        if (revoked.containsKey(key)) {
+            cache.remove(key);
+        }
+    }
+
+    // 清理过期条目，非强制时最多每秒一次
+    private void sweep(long now, boolean force) {
+        if (!force && now - lastSweep < 1000) {
+            return;
+        }
+        lastSweep = now;
+        cache.values().removeIf(token -> token.expiresAt <= now);
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
+    }
+
+    private static final class VerifiedToken {
+        final Claims claims;
+        final long expiresAt;
+
+        VerifiedToken(Claims claims, long expiresAt) {
+            this.claims = claims;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
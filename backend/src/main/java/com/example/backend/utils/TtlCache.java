@@ -0,0 +1,85 @@
+package com.example.backend.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 带过期时间的LRU缓存
+ * 超过容量时淘汰最久未访问的条目，条目写入ttl毫秒后失效；记录命中、未命中和淘汰次数
+ */
+public class TtlCache<K, V> {
+    private final int maxSize; // 最大条目数
+    private final long ttlMillis; // 存活时间（毫秒）
+    private final LinkedHashMap<K, Entry<V>> map;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TtlCache(int maxSize, long ttlMillis) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        // accessOrder为true时按访问顺序排列，最久未访问的在最前
+        this.map = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > TtlCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    // 获取缓存值，不存在或已过期时返回null
+    public synchronized V get(K key) {
+        Entry<V> entry = map.get(key);
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        if (entry.expiresAt <= System.currentTimeMillis()) {
+            map.remove(key);
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value;
+    }
+
+    public synchronized void put(K key, V value) {
+        map.put(key, new Entry<>(value, System.currentTimeMillis() + ttlMillis));
+    }
+
+    public synchronized void remove(K key) {
+        map.remove(key);
+    }
+
+    public synchronized void clear() {
+        map.clear();
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    // 缓存统计
+    public Map<String, Object> getStats() {
+        long hit = hits.get();
+        long miss = misses.get();
+        return Map.of("size", size(), "maxSize", maxSize, "hits", hit, "misses", miss,
+                "evictions", evictions.get(), "hitRate", hit + miss == 0 ? 0.0 : (double) hit / (hit + miss));
+    }
+
+    private static final class Entry<V> {
+        final V value;
+        final long expiresAt;
+
+        Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
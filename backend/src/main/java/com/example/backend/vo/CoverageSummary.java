@@ -0,0 +1,41 @@
+package com.example.backend.vo;
+
+/**
+ * 建筑物覆盖分析结果
+ * 建筑物在半径内至少有一个正常消防栓即视为被覆盖
+ */
+public class CoverageSummary {
+    private int buildings; // 建筑物总数
+    private int covered; // 被覆盖的建筑物数
+    private int uncovered; // 未被覆盖的建筑物数
+    private double coverageRate; // 覆盖率（百分比，保留1位小数）
+    private double radius; // 覆盖半径（米）
+
+    public CoverageSummary(int buildings, int covered, double radius) {
+        this.buildings = buildings;
+        this.covered = covered;
+        this.uncovered = buildings - covered;
+        this.coverageRate = buildings == 0 ? 0 : Math.round(covered * 1000.0 / buildings) / 10.0;
+        this.radius = radius;
+    }
+
+    public int getBuildings() {
+        return buildings;
+    }
+
+    public int getCovered() {
+        return covered;
+    }
+
+    public int getUncovered() {
+        return uncovered;
+    }
+
+    public double getCoverageRate() {
+        return coverageRate;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+}
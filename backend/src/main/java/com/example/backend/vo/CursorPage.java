@@ -0,0 +1,37 @@
+package com.example.backend.vo;
+
+import java.util.List;
+
+/**
+ * 游标分页结果
+ * 通过nextCursor/prevCursor翻页，深页与第一页代价相同
+ */
+public class CursorPage<T> {
+    private List<T> records; // 当前页数据
+    private String nextCursor; // 下一页游标，没有下一页时为null
+    private String prevCursor; // 上一页游标，没有上一页时为null
+    private Long total; // 总条数（未请求或无法估算时为null）
+
+    public CursorPage(List<T> records, String nextCursor, String prevCursor, Long total) {
+        this.records = records;
+        this.nextCursor = nextCursor;
+        this.prevCursor = prevCursor;
+        this.total = total;
+    }
+
+    public List<T> getRecords() {
+        return records;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public String getPrevCursor() {
+        return prevCursor;
+    }
+
+    public Long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.backend.vo;
+
+import com.example.backend.entity.Hydrant;
+
+/**
+ * 消防栓变更日志中的一条记录
+ * state为变更后的完整属性，删除时为null
+ */
+public class HydrantChange {
+    // 操作类型：与hydrant_change.op取值一致
+    public static final String INSERT = "I";
+    public static final String UPDATE = "U";
+    public static final String DELETE = "D";
+
+    private long seq; // 日志序号，全局递增
+    private Integer hydrantId; // 要素ID
+    private long ts; // 变更时间（毫秒时间戳）
+    private String op; // 操作类型
+    private Hydrant state; // 变更后的属性
+
+    public HydrantChange(long seq, Integer hydrantId, long ts, String op, Hydrant state) {
+        this.seq = seq;
+        this.hydrantId = hydrantId;
+        this.ts = ts;
+        this.op = op;
+        this.state = state;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public Integer getHydrantId() {
+        return hydrantId;
+    }
+
+    public long getTs() {
+        return ts;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public Hydrant getState() {
+        return state;
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.backend.vo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 消防栓聚合点
+ * 一个网格内的消防栓合并为一个点，附带各状态数量
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HydrantCluster {
+    private double lng; // 聚合点经度（网格内平均值）
+    private double lat; // 聚合点纬度（网格内平均值）
+    private int count; // 消防栓总数
+    private int normal; // 正常数量
+    private int error; // 异常数量
+    private int repairing; // 维修数量
+    private Integer id; // 网格内只有一个消防栓时返回其ID
+
+    public HydrantCluster(double lng, double lat, int count, int normal, int error, int repairing, Integer id) {
+        this.lng = lng;
+        this.lat = lat;
+        this.count = count;
+        this.normal = normal;
+        this.error = error;
+        this.repairing = repairing;
+        this.id = id;
+    }
+
+    public double getLng() {
+        return lng;
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getNormal() {
+        return normal;
+    }
+
+    public int getError() {
+        return error;
+    }
+
+    public int getRepairing() {
+        return repairing;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.backend.vo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 消防栓增量变更
+ * 只包含发生变化的字段，未变化的字段为null不输出
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HydrantDelta {
+    private Integer id; // 要素ID
+    private Long version; // 变更后的版本号
+    private String status; // 新状态
+    private Double pressure; // 新压力
+    private Double lng; // 新增或移动时的经度
+    private Double lat; // 新增或移动时的纬度
+    private Boolean deleted; // 被删除时为true
+
+    public HydrantDelta(Integer id) {
+        this.id = id;
+    }
+
+    // 合并同一要素的后续变更，后到的字段覆盖先到的
+    public void merge(HydrantDelta next) {
+        if (next.version != null) version = next.version;
+        if (next.status != null) status = next.status;
+        if (next.pressure != null) pressure = next.pressure;
+        if (next.lng != null) lng = next.lng;
+        if (next.lat != null) lat = next.lat;
+        deleted = next.deleted;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Double getPressure() {
+        return pressure;
+    }
+
+    public void setPressure(Double pressure) {
+        this.pressure = pressure;
+    }
+
+    public Double getLng() {
+        return lng;
+    }
+
+    public void setLng(Double lng) {
+        this.lng = lng;
+    }
+
+    public Double getLat() {
+        return lat;
+    }
+
+    public void setLat(Double lat) {
+        this.lat = lat;
+    }
+
+    public Boolean getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(Boolean deleted) {
+        this.deleted = deleted;
+    }
+}
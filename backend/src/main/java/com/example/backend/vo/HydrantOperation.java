@@ -0,0 +1,102 @@
+package com.example.backend.vo;
+
+/**
+ * 批量编辑中的一个操作
+ * op为insert/update/delete；update时为null的字段保持不变
+ */
+public class HydrantOperation {
+    public static final String INSERT = "insert";
+    public static final String UPDATE = "update";
+    public static final String DELETE = "delete";
+
+    private String op; // 操作类型
+    private Integer id; // 要素ID（update/delete必填）
+    private Long version; // 客户端看到的版本号，不为空时做乐观锁校验
+    private String name; // 消防栓编号
+    private String currentStatus; // 设备状态
+    private Double currentPressure; // 当前压力
+    private String managementUnit; // 管理单位
+    private String installationDate; // 安装日期
+    private Double lng; // 经度（insert必填，update时为空表示不移动）
+    private Double lat; // 纬度
+
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getCurrentStatus() {
+        return currentStatus;
+    }
+
+    public void setCurrentStatus(String currentStatus) {
+        this.currentStatus = currentStatus;
+    }
+
+    public Double getCurrentPressure() {
+        return currentPressure;
+    }
+
+    public void setCurrentPressure(Double currentPressure) {
+        this.currentPressure = currentPressure;
+    }
+
+    public String getManagementUnit() {
+        return managementUnit;
+    }
+
+    public void setManagementUnit(String managementUnit) {
+        this.managementUnit = managementUnit;
+    }
+
+    public String getInstallationDate() {
+        return installationDate;
+    }
+
+    public void setInstallationDate(String installationDate) {
+        this.installationDate = installationDate;
+    }
+
+    public Double getLng() {
+        return lng;
+    }
+
+    public void setLng(Double lng) {
+        this.lng = lng;
+    }
+
+    public Double getLat() {
+        return lat;
+    }
+
+    public void setLat(Double lat) {
+        this.lat = lat;
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.backend.vo;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * 批量编辑中单个操作的结果
+ * status：ok成功，conflict版本冲突，not_found要素不存在，invalid参数错误，aborted因其他操作失败未执行
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class HydrantOperationResult {
+    public static final String OK = "ok";
+    public static final String CONFLICT = "conflict";
+    public static final String NOT_FOUND = "not_found";
+    public static final String INVALID = "invalid";
+    public static final String ABORTED = "aborted";
+
+    private int index; // 操作在请求中的序号
+    private String op; // 操作类型
+    private Integer id; // 要素ID（insert成功后为新ID）
+    private String status; // 结果状态
+    private Long version; // 当前版本号
+    private String message; // 失败原因
+
+    public HydrantOperationResult(int index, String op, Integer id) {
+        this.index = index;
+        this.op = op;
+        this.id = id;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public String getOp() {
+        return op;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    // 标记失败
+    public HydrantOperationResult fail(String status, String message) {
+        this.status = status;
+        this.message = message;
+        return this;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.backend.vo;
+
+/**
+ * 消防栓统计结果
+ * 对应仪表盘的状态饼图、压力分布柱状图和平均压力
+ */
+public class HydrantStats {
+    private long total; // 消防栓总数
+    private long normal; // 正常数量
+    private long error; // 异常数量
+    private long repairing; // 维修数量
+    private String[] pressureLabels; // 压力区间名称
+    private long[] pressureCounts; // 各压力区间数量
+    private double avgPressure; // 平均压力（保留2位小数）
+
+    public HydrantStats(long total, long normal, long error, long repairing,
+                        String[] pressureLabels, long[] pressureCounts, double avgPressure) {
+        this.total = total;
+        this.normal = normal;
+        this.error = error;
+        this.repairing = repairing;
+        this.pressureLabels = pressureLabels;
+        this.pressureCounts = pressureCounts;
+        this.avgPressure = avgPressure;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getNormal() {
+        return normal;
+    }
+
+    public long getError() {
+        return error;
+    }
+
+    public long getRepairing() {
+        return repairing;
+    }
+
+    public String[] getPressureLabels() {
+        return pressureLabels;
+    }
+
+    public long[] getPressureCounts() {
+        return pressureCounts;
+    }
+
+    public double getAvgPressure() {
+        return avgPressure;
+    }
+}
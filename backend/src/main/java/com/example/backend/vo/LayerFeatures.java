@@ -0,0 +1,41 @@
+package com.example.backend.vo;
+
+/**
+ * 代理缓存中的一个图层
+ * GeoServer返回的GeoJSON去掉要素ID的图层名前缀后以gzip格式保存，接受gzip的客户端直接发送
+ */
+public class LayerFeatures {
+    private final byte[] gzip; // gzip压缩后的GeoJSON
+    private final long size; // 压缩前大小（字节）
+    private final int count; // 要素数量
+    private final String hash; // 压缩前内容的SHA-256（前16字节），过期重新获取后用来判断内容是否变化
+    private final long fetchedAt; // 从GeoServer获取的时间（毫秒）
+
+    public LayerFeatures(byte[] gzip, long size, int count, String hash, long fetchedAt) {
+        this.gzip = gzip;
+        this.size = size;
+        this.count = count;
+        this.hash = hash;
+        this.fetchedAt = fetchedAt;
+    }
+
+    public byte[] getGzip() {
+        return gzip;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public long getFetchedAt() {
+        return fetchedAt;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.backend.vo;
+
+import com.example.backend.entity.Hydrant;
+
+/**
+ * 最近消防栓查询结果
+ * 距离为沿道路网的距离（含起点和消防栓到最近道路的直线距离）
+ */
+public class NearestHydrant {
+    private Hydrant hydrant; // 消防栓
+    private double distance; // 路网距离（米）
+    private double duration; // 按出行方式估算的用时（秒）
+
+    public NearestHydrant(Hydrant hydrant, double distance, double duration) {
+        this.hydrant = hydrant;
+        this.distance = distance;
+        this.duration = duration;
+    }
+
+    public Hydrant getHydrant() {
+        return hydrant;
+    }
+
+    public double getDistance() {
+        return distance;
+    }
+
+    public double getDuration() {
+        return duration;
+    }
+}
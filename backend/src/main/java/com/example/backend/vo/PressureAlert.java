@@ -0,0 +1,56 @@
+package com.example.backend.vo;
+
+/**
+ * 压力告警
+ * 同一消防栓同一规则持续触发时只产生一条告警，条件消失后记录恢复时间
+ */
+public class PressureAlert {
+    // 规则类型
+    public static final String RULE_LOW = "low"; // 压力低于下限
+    public static final String RULE_HIGH = "high"; // 压力高于上限
+    public static final String RULE_CHANGE = "change"; // 短时间内压力突变
+    public static final String RULE_STUCK = "stuck"; // 读数长时间不变，传感器可能故障
+
+    private final Integer hydrantId; // 消防栓ID
+    private final String rule; // 触发的规则
+    private final long ts; // 触发时的读数时间（毫秒时间戳）
+    private final double pressure; // 触发时的压力值（MPa）
+    private final String message; // 告警说明
+    private volatile Long resolvedTs; // 恢复时间，未恢复时为null
+
+    public PressureAlert(Integer hydrantId, String rule, long ts, double pressure, String message) {
+        this.hydrantId = hydrantId;
+        this.rule = rule;
+        this.ts = ts;
+        this.pressure = pressure;
+        this.message = message;
+    }
+
+    public Integer getHydrantId() {
+        return hydrantId;
+    }
+
+    public String getRule() {
+        return rule;
+    }
+
+    public long getTs() {
+        return ts;
+    }
+
+    public double getPressure() {
+        return pressure;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public Long getResolvedTs() {
+        return resolvedTs;
+    }
+
+    public void setResolvedTs(Long resolvedTs) {
+        this.resolvedTs = resolvedTs;
+    }
+}
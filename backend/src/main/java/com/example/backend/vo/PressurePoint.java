@@ -0,0 +1,34 @@
+package com.example.backend.vo;
+
+/**
+ * 压力曲线上的一个点（降采样后的时间桶）
+ */
+public class PressurePoint {
+    private long ts; // 时间桶起点（毫秒时间戳）
+    private double avg; // 平均压力
+    private double min; // 最小压力
+    private double max; // 最大压力
+
+    public PressurePoint(long ts, double avg, double min, double max) {
+        this.ts = ts;
+        this.avg = avg;
+        this.min = min;
+        this.max = max;
+    }
+
+    public long getTs() {
+        return ts;
+    }
+
+    public double getAvg() {
+        return avg;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+}
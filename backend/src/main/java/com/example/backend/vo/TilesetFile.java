@@ -0,0 +1,84 @@
+package com.example.backend.vo;
+
+import java.nio.file.Path;
+
+/**
+ * 3D Tiles文件信息
+ * 启动时扫描生成：内容哈希（ETag）、类型，以及预压缩的gzip/brotli版本（没有时为null）
+ */
+public class TilesetFile {
+    private final Path file; // 原始文件
+    private final long size; // 原始大小（字节）
+    private final String hash; // 内容哈希（SHA-256前16字节的十六进制）
+    private final String contentType;
+    private final Path gzipFile; // gzip版本
+    private final long gzipSize;
+    private final Path brotliFile; // brotli版本
+    private final long brotliSize;
+
+    public TilesetFile(Path file, long size, String hash, String contentType,
+                       Path gzipFile, long gzipSize, Path brotliFile, long brotliSize) {
+        this.file = file;
+        this.size = size;
+        this.hash = hash;
+        this.contentType = contentType;
+        this.gzipFile = gzipFile;
+        this.gzipSize = gzipSize;
+        this.brotliFile = brotliFile;
+        this.brotliSize = brotliSize;
+    }
+
+    // 各编码版本的ETag不同（强校验要求字节完全一致）
+    public String getEtag(String encoding) {
+        return encoding == null ? "\"" + hash + "\"" : "\"" + hash + "-" + encoding + "\"";
+    }
+
+    // If-None-Match中包含任一版本的ETag即视为未修改，返回匹配到的ETag（*返回本次选择的编码版本），不匹配时返回null
+    public String match(String ifNoneMatch, String encoding) {
+        for (String tag : ifNoneMatch.split(",")) {
+            String value = tag.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if ("*".equals(value)) {
+                return getEtag(encoding);
+            }
+            if (value.equals(getEtag(null)) || value.equals(getEtag("gzip")) || value.equals(getEtag("br"))) {
+                return value;
+            }
+        }
+        return null;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public Path getGzipFile() {
+        return gzipFile;
+    }
+
+    public long getGzipSize() {
+        return gzipSize;
+    }
+
+    public Path getBrotliFile() {
+        return brotliFile;
+    }
+
+    public long getBrotliSize() {
+        return brotliSize;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.backend.vo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户批量导入结果
+ * 出错的行单独记录，不影响其他行导入；错误明细最多保留maxErrors条
+ */
+public class UserImportResult {
+    private int total; // 数据行数（不含表头和空行）
+    private int imported; // 成功导入数
+    private int failed; // 失败数
+    private boolean truncated; // 错误明细是否被截断
+    private final List<RowError> errors = new ArrayList<>();
+    private final int maxErrors;
+
+    public UserImportResult(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    public void addTotal(int count) {
+        total += count;
+    }
+
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    public void addError(int row, String name, String message) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new RowError(row, name, message));
+        } else {
+            truncated = true;
+        }
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    // 单行错误：行号从1开始（含表头行）
+    public static class RowError {
+        private final int row;
+        private final String name;
+        private final String message;
+
+        public RowError(int row, String name, String message) {
+            this.row = row;
+            this.name = name;
+            this.message = message;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
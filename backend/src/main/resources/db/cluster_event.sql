@@ -0,0 +1,12 @@
+-- 集群同步事件表结构（PostgreSQL 9.4+）
+-- 每行是一次数据变更通知，各实例按seq顺序读取；key为NULL表示该类数据全部变更，topic为*表示所有数据
+CREATE TABLE IF NOT EXISTS cluster_event (
+    seq     bigserial   PRIMARY KEY,
+    topic   varchar(32) NOT NULL,
+    key     text,
+    origin  varchar(32) NOT NULL, -- 发出事件的实例标识，实例跳过自己发出的事件
+    created timestamptz NOT NULL DEFAULT now()
+);
+
+-- 按时间清理过期事件
+CREATE INDEX IF NOT EXISTS idx_cluster_event_created ON cluster_event (created);
@@ -0,0 +1,24 @@
+-- 消防栓变更日志表结构（PostgreSQL 9.4+）
+-- 只追加不修改：每次变更一行，记录变更后的完整属性，删除时state为NULL
+CREATE TABLE IF NOT EXISTS hydrant_change (
+    seq        bigserial   PRIMARY KEY,
+    hydrant_id integer     NOT NULL,
+    ts         timestamptz NOT NULL,
+    op         char(1)     NOT NULL, -- I新增 U修改 D删除
+    state      jsonb
+);
+
+-- 单个消防栓按时间查找最近一次变更
+CREATE INDEX IF NOT EXISTS idx_hydrant_change_hydrant_ts ON hydrant_change (hydrant_id, ts, seq);
+
+-- 全图层快照：gzip压缩的JSON数组，包含seq不超过last_seq的全部变更
+-- ts为快照中最后一次变更的时间，查询某时刻状态时取ts不晚于该时刻的最近快照，再重放之后的变更
+CREATE TABLE IF NOT EXISTS hydrant_snapshot (
+    id       bigserial   PRIMARY KEY,
+    ts       timestamptz NOT NULL,
+    last_seq bigint      NOT NULL,
+    count    integer     NOT NULL,
+    data     bytea       NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_hydrant_snapshot_ts ON hydrant_snapshot (ts);
@@ -0,0 +1,14 @@
+-- 消防栓版本号（PostgreSQL 11+），批量编辑接口按此列做乐观锁校验
+-- 每次UPDATE由触发器加1，经后端批量接口和GeoServer WFS-T的修改都会递增；各实例读取同一列，重启后不会重置
+ALTER TABLE "sdjzdx_FireHydranty_Point" ADD COLUMN IF NOT EXISTS "version" bigint NOT NULL DEFAULT 1;
+
+CREATE OR REPLACE FUNCTION hydrant_bump_version() RETURNS trigger AS $$
+BEGIN
+    NEW."version" := OLD."version" + 1;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_hydrant_version ON "sdjzdx_FireHydranty_Point";
+CREATE TRIGGER trg_hydrant_version BEFORE UPDATE ON "sdjzdx_FireHydranty_Point"
+    FOR EACH ROW EXECUTE FUNCTION hydrant_bump_version();
@@ -0,0 +1,5 @@
+-- 用户名唯一索引（PostgreSQL 9.5+）
+-- 注册接口直接插入、由数据库拒绝重名，CSV导入使用ON CONFLICT DO NOTHING跳过已存在的用户，两者都依赖此索引
+-- 已有重名数据时建索引会失败，先用下面的查询找出并处理重名用户：
+--   SELECT name, count(*) FROM sys_user GROUP BY name HAVING count(*) > 1;
+CREATE UNIQUE INDEX IF NOT EXISTS uk_sys_user_name ON sys_user (name);
@@ -0,0 +1,29 @@
+-- 消防栓压力遥测表结构（PostgreSQL 11+）
+-- 原始读数按月分区，分区由TelemetryServiceImpl写入前自动创建
+CREATE TABLE IF NOT EXISTS hydrant_pressure (
+    hydrant_id integer          NOT NULL,
+    ts         timestamptz      NOT NULL,
+    pressure   double precision NOT NULL
+) PARTITION BY RANGE (ts);
+
+CREATE INDEX IF NOT EXISTS idx_hydrant_pressure_hydrant_ts ON hydrant_pressure (hydrant_id, ts);
+
+-- 降采样表：每个消防栓每个时间桶一行，写入时累加
+CREATE TABLE IF NOT EXISTS hydrant_pressure_1m (
+    hydrant_id integer          NOT NULL,
+    bucket     timestamptz      NOT NULL,
+    cnt        bigint           NOT NULL,
+    sum        double precision NOT NULL,
+    min        double precision NOT NULL,
+    max        double precision NOT NULL,
+    PRIMARY KEY (hydrant_id, bucket)
+);
+
+CREATE TABLE IF NOT EXISTS hydrant_pressure_1h (LIKE hydrant_pressure_1m INCLUDING ALL);
+
+CREATE TABLE IF NOT EXISTS hydrant_pressure_1d (LIKE hydrant_pressure_1m INCLUDING ALL);
+
+-- 全图层平均值查询按时间桶过滤
+CREATE INDEX IF NOT EXISTS idx_hydrant_pressure_1m_bucket ON hydrant_pressure_1m (bucket);
+CREATE INDEX IF NOT EXISTS idx_hydrant_pressure_1h_bucket ON hydrant_pressure_1h (bucket);
+CREATE INDEX IF NOT EXISTS idx_hydrant_pressure_1d_bucket ON hydrant_pressure_1d (bucket);
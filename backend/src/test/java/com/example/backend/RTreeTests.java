@@ -0,0 +1,65 @@
+package com.example.backend;
+
+import com.example.backend.utils.RTree;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * RTree查询结果与逐个比较的暴力查询结果一致
+ */
+class RTreeTests {
+
+	@Test
+	void matchesBruteForce() {
+		Random random = new Random(42);
+		for (int n : new int[]{0, 1, 15, 16, 17, 257, 5000}) {
+			double[] minX = new double[n];
+			double[] minY = new double[n];
+			double[] maxX = new double[n];
+			double[] maxY = new double[n];
+			for (int i = 0; i < n; i++) {
+				// 一半是点（消防栓），一半是小矩形（建筑物），坐标范围与济南市区相近
+				minX[i] = 116.9 + random.nextDouble() * 0.2;
+				minY[i] = 36.6 + random.nextDouble() * 0.1;
+				maxX[i] = i % 2 == 0 ? minX[i] : minX[i] + random.nextDouble() * 0.002;
+				maxY[i] = i % 2 == 0 ? minY[i] : minY[i] + random.nextDouble() * 0.002;
+			}
+			RTree tree = new RTree(minX, minY, maxX, maxY);
+			assertEquals(n, tree.size());
+			for (int q = 0; q < 200; q++) {
+				double x = 116.88 + random.nextDouble() * 0.24;
+				double y = 36.58 + random.nextDouble() * 0.14;
+				double w = q % 10 == 0 ? 0 : random.nextDouble() * 0.05; // 包含退化为点的查询
+				double h = q % 10 == 0 ? 0 : random.nextDouble() * 0.05;
+				List<Integer> expected = new ArrayList<>();
+				for (int i = 0; i < n; i++) {
+					if (minX[i] <= x + w && minY[i] <= y + h && maxX[i] >= x && maxY[i] >= y) {
+						expected.add(i);
+					}
+				}
+				List<Integer> actual = new ArrayList<>();
+				tree.search(x, y, x + w, y + h, actual::add);
+				Collections.sort(actual);
+				assertEquals(expected, actual, "n=" + n + ", query=" + q);
+			}
+		}
+	}
+
+	@Test
+	void findsItemAtItsOwnPoint() {
+		double[] xs = {117.0, 117.0, 117.1};
+		double[] ys = {36.6, 36.6, 36.7};
+		RTree tree = new RTree(xs, ys, xs, ys);
+		List<Integer> found = new ArrayList<>();
+		tree.search(117.0, 36.6, 117.0, 36.6, found::add);
+		Collections.sort(found);
+		assertEquals(List.of(0, 1), found);
+	}
+
+}
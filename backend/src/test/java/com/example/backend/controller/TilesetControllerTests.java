@@ -0,0 +1,55 @@
+package com.example.backend.controller;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Range解析和Accept-Encoding协商
+ */
+class TilesetControllerTests {
+
+	@Test
+	void parsesSingleRanges() {
+		assertArrayEquals(new long[]{0, 100}, TilesetController.parseRange("bytes=0-99", 1000));
+		assertArrayEquals(new long[]{900, 1000}, TilesetController.parseRange("bytes=900-", 1000));
+		assertArrayEquals(new long[]{900, 1000}, TilesetController.parseRange("bytes=-100", 1000));
+		// 后缀长度超过文件大小时返回整个文件，结束位置超出时截断到文件末尾
+		assertArrayEquals(new long[]{0, 1000}, TilesetController.parseRange("bytes=-5000", 1000));
+		assertArrayEquals(new long[]{500, 1000}, TilesetController.parseRange("bytes=500-5000", 1000));
+	}
+
+	@Test
+	void rejectsOutOfBoundsRanges() {
+		assertArrayEquals(new long[0], TilesetController.parseRange("bytes=1000-", 1000));
+		assertArrayEquals(new long[0], TilesetController.parseRange("bytes=1000-1099", 1000));
+		assertArrayEquals(new long[0], TilesetController.parseRange("bytes=50-10", 1000));
+		assertArrayEquals(new long[0], TilesetController.parseRange("bytes=-0", 1000));
+	}
+
+	@Test
+	void ignoresUnsupportedRanges() {
+		// 多段和无法解析的Range按完整内容处理
+		assertNull(TilesetController.parseRange("bytes=0-99,200-299", 1000));
+		assertNull(TilesetController.parseRange("items=0-99", 1000));
+		assertNull(TilesetController.parseRange("bytes=abc-", 1000));
+		assertNull(TilesetController.parseRange("bytes=100", 1000));
+	}
+
+	@Test
+	void acceptsEncodingsByQuality() {
+		assertTrue(TilesetController.accepts("gzip, deflate, br", "br"));
+		assertTrue(TilesetController.accepts("GZIP", "gzip"));
+		assertTrue(TilesetController.accepts("br;q=0.5, gzip;q=1.0", "br"));
+		assertFalse(TilesetController.accepts("gzip;q=0, br", "gzip"));
+		assertFalse(TilesetController.accepts("gzip; q=0.0", "gzip"));
+		assertFalse(TilesetController.accepts("deflate", "gzip"));
+		assertFalse(TilesetController.accepts(null, "gzip"));
+		// 无法解析的q值按1处理
+		assertTrue(TilesetController.accepts("gzip;q=high", "gzip"));
+	}
+
+}
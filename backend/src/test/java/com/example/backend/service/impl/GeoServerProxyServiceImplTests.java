@@ -0,0 +1,109 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.vo.LayerFeatures;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * WFS-T事务解析和GetFeature结果的要素ID改写
+ */
+class GeoServerProxyServiceImplTests {
+	private static final String LAYER = "sdjzdx_FireHydranty_Point";
+	private static final String TRANSACTION = "<wfs:Transaction service=\"WFS\" version=\"1.1.0\""
+			+ " xmlns:wfs=\"http://www.opengis.net/wfs\" xmlns:ogc=\"http://www.opengis.net/ogc\""
+			+ " xmlns:sdjzdx=\"http://sdjzdx\">%s</wfs:Transaction>";
+
+	@Test
+	void updateByFeatureIdTargetsThoseFeatures() {
+		GeoServerProxyServiceImpl.Targets targets = GeoServerProxyServiceImpl.parseTransaction(String.format(TRANSACTION,
+				"<wfs:Update typeName=\"sdjzdx:" + LAYER + "\">"
+						+ "<wfs:Property><wfs:Name>currentStatus</wfs:Name><wfs:Value>error</wfs:Value></wfs:Property>"
+						+ "<ogc:Filter><ogc:FeatureId fid=\"" + LAYER + ".12\"/><ogc:FeatureId fid=\"" + LAYER + ".13\"/></ogc:Filter>"
+						+ "</wfs:Update>"));
+		assertEquals(Set.of(LAYER), targets.layers.keySet());
+		assertEquals(Set.of(12, 13), targets.layers.get(LAYER));
+		assertTrue(targets.inserts.isEmpty());
+	}
+
+	@Test
+	void updateByFilterTargetsWholeLayer() {
+		// 按属性条件更新，无法确定涉及哪些要素，整个图层同步（ID集合为null）
+		GeoServerProxyServiceImpl.Targets targets = GeoServerProxyServiceImpl.parseTransaction(String.format(TRANSACTION,
+				"<wfs:Update typeName=\"sdjzdx:" + LAYER + "\">"
+						+ "<wfs:Property><wfs:Name>currentStatus</wfs:Name><wfs:Value>normal</wfs:Value></wfs:Property>"
+						+ "<ogc:Filter><ogc:PropertyIsEqualTo><ogc:PropertyName>managementUnit</ogc:PropertyName>"
+						+ "<ogc:Literal>历下区</ogc:Literal></ogc:PropertyIsEqualTo></ogc:Filter>"
+						+ "</wfs:Update>"));
+		assertTrue(targets.layers.containsKey(LAYER));
+		assertNull(targets.layers.get(LAYER));
+	}
+
+	@Test
+	void insertRecordsLayer() {
+		GeoServerProxyServiceImpl.Targets targets = GeoServerProxyServiceImpl.parseTransaction(String.format(TRANSACTION,
+				"<wfs:Insert><sdjzdx:" + LAYER + "><sdjzdx:Name>新增</sdjzdx:Name></sdjzdx:" + LAYER + "></wfs:Insert>"
+						+ "<wfs:Delete typeName=\"sdjzdx:" + LAYER + "\">"
+						+ "<ogc:Filter><ogc:FeatureId fid=\"" + LAYER + ".7\"/></ogc:Filter></wfs:Delete>"));
+		assertEquals(Set.of(LAYER), targets.inserts);
+		assertEquals(Set.of(7), targets.layers.get(LAYER));
+	}
+
+	@Test
+	void rejectsNonTransaction() {
+		assertThrows(IllegalArgumentException.class, () -> GeoServerProxyServiceImpl.parseTransaction("<GetFeature/>"));
+		assertThrows(IllegalArgumentException.class, () -> GeoServerProxyServiceImpl.parseTransaction("<wfs:Transaction"));
+	}
+
+	@Test
+	void rewriteStripsLayerPrefixFromFeatureIds() throws IOException {
+		String json = "{\"type\":\"FeatureCollection\",\"features\":["
+				+ "{\"type\":\"Feature\",\"id\":\"" + LAYER + ".1\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[117.0,36.6]},"
+				+ "\"properties\":{\"id\":\"keep.1\",\"Name\":\"一号\"}},"
+				+ "{\"type\":\"Feature\",\"id\":\"" + LAYER + ".2\",\"geometry\":null,\"properties\":{\"Name\":\"二号\"}}],"
+				+ "\"id\":\"collection.1\",\"totalFeatures\":2}";
+		LayerFeatures features = GeoServerProxyServiceImpl.rewrite(stream(json));
+		String output = gunzip(features.getGzip());
+		// 只改写features[i].id，属性和顶层的id原样保留
+		String expected = json.replace("\"id\":\"" + LAYER + ".1\"", "\"id\":\"1\"")
+				.replace("\"id\":\"" + LAYER + ".2\"", "\"id\":\"2\"");
+		assertEquals(expected, output);
+		assertEquals(2, features.getCount());
+		assertEquals(output.getBytes(StandardCharsets.UTF_8).length, features.getSize());
+		// 内容不变时哈希不变
+		assertEquals(features.getHash(), GeoServerProxyServiceImpl.rewrite(stream(json)).getHash());
+		assertEquals(32, features.getHash().length());
+	}
+
+	@Test
+	void rewriteCountsOnlyFeatureIds() throws IOException {
+		for (String json : List.of("{\"type\":\"FeatureCollection\",\"features\":[]}",
+				"{\"type\":\"FeatureCollection\",\"features\":[{\"type\":\"Feature\",\"id\":3,\"properties\":{}}]}")) {
+			LayerFeatures features = GeoServerProxyServiceImpl.rewrite(stream(json));
+			assertEquals(json, gunzip(features.getGzip()));
+			assertEquals(json.contains("\"id\":3") ? 1 : 0, features.getCount());
+		}
+	}
+
+	private static InputStream stream(String json) {
+		return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static String gunzip(byte[] gzip) throws IOException {
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+	}
+
+}
@@ -1,9 +1,8 @@
 import axios from 'axios' // 引入axios库
-import type { Feature } from 'geojson'
 
 // 图层固定信息（统一维护，避免硬编码）
 const LAYER_INFO = {
-  baseURL: 'http://116.62.134.213/geoserver', // GeoServer基础URL
+  proxyURL: '/api/geoserver', // 后端GeoServer代理（合并并发请求、缓存结果、编辑后自动失效）
   workspace: 'sdjzdx', // 工作区名称
   namespace: 'http://116.62.134.213/geoserver/sdjzdx', // 工作区命名空间（需与GeoServer一致）
   geomField: 'geom', // 几何字段名
@@ -15,26 +14,13 @@ const LAYER_INFO = {
  * @returns GeoJSON.FeatureCollection
  */
 export const GetFeaturesAPI = async (layerName: string) => {
-  const url = `${LAYER_INFO.baseURL}/wfs`
-  // WFS GetFeature请求参数
-  const params = {
-    service: 'WFS',
-    version: '1.1.0',
-    request: 'GetFeature',
-    typeName: `${LAYER_INFO.workspace}:${layerName}`, // 图层名称，格式为 workspace:layerName
-    outputFormat: 'application/json',
-    srsName: 'urn:ogc:def:crs:EPSG::4326',
-  }
+  // 后端代理转发WFS GetFeature，要素ID已由 图层名.id 改为 id
+  const url = `${LAYER_INFO.proxyURL}/${layerName}/features`
   try {
-    const response = await axios.get(url, { params })
-    console.log('加载要素成功:', response.data)
-    // 遍历循环，分割id 图层名.id --> 1
-    response.data.features.forEach((feature: Feature) => {
-      if (feature.id) {
-        const idParts = String(feature.id).split('.')
-        feature.id = idParts.length > 1 ? idParts[1] : feature.id
-      }
+    const response = await axios.get(url, {
+      withCredentials: true, // 携带Cookie，走后端Token校验
     })
+    console.log('加载要素成功:', response.data)
     return response.data
   } catch (error) {
     console.error('加载要素失败:', error)
@@ -57,7 +43,7 @@ export const EditPointFeaturesAPI = async (
     console.error('请提供有效的要素数据')
     return
   }
-  const url = `${LAYER_INFO.baseURL}/wfs` // WFS-T服务地址
+  const url = `${LAYER_INFO.proxyURL}/wfs` // WFS-T服务地址（经后端转发，提交后后端同步缓存和内存数据）
   let TransactionFragments = '' // 存储WFS-T事务片段
   switch (operation) {
     case 'addFeature': // 插入要素操作
@@ -175,6 +161,7 @@ export const EditPointFeaturesAPI = async (
         'Content-Type': 'text/xml', // 请求数据类型为XML
         Accept: 'application/xml', // 响应数据类型为XML
       },
+      withCredentials: true, // 携带Cookie，走后端Token校验
     })
     console.log(`WFS-T${operation}响应:`, response.data)
     return response.data
@@ -0,0 +1,146 @@
+import request from '@/utils/request'
+// 聚合查询参数类型
+export interface ClusterQueryParams {
+  minLng: number
+  minLat: number
+  maxLng: number
+  maxLat: number
+  zoom: number
+}
+// 聚合点类型
+export interface HydrantCluster {
+  lng: number
+  lat: number
+  count: number
+  normal: number
+  error: number
+  repairing: number
+  id?: number // 网格内只有一个消防栓时返回
+}
+// 按范围和缩放级别查询消防栓聚合点
+export const getHydrantClusters = (params: ClusterQueryParams) => {
+  return request.get('/hydrants/clusters', { params })
+}
+// 要素编辑后通知后端同步单个消防栓
+export const refreshHydrant = (id: number | string) => {
+  return request.post(`/hydrants/${id}/refresh`)
+}
+// 最近消防栓查询结果类型
+export interface NearestHydrant {
+  hydrant: { id: number; name: string; currentStatus: string; lng: number; lat: number }
+  distance: number // 路网距离（米）
+  duration: number // 估算用时（秒）
+}
+// 按路网距离查询最近的正常消防栓
+export const getNearestHydrants = (params: { lng: number; lat: number; k?: number; mode?: 'walk' | 'drive' }) => {
+  return request.get('/hydrants/nearest', { params })
+}
+// 建筑物覆盖率汇总
+export const getCoverageSummary = () => {
+  return request.get('/coverage/summary')
+}
+// 未被消防栓覆盖的建筑物列表
+export const getUncoveredBuildings = () => {
+  return request.get('/coverage/uncovered')
+}
+// 道路要素编辑后通知后端同步路网
+export const refreshRoad = (id: number | string) => {
+  return request.post(`/roads/${id}/refresh`)
+}
+// 统计数据类型
+export interface HydrantStats {
+  total: number
+  normal: number
+  error: number
+  repairing: number
+  pressureLabels: string[]
+  pressureCounts: number[]
+  avgPressure: number
+}
+// 获取仪表盘统计数据
+export const getHydrantStats = () => {
+  return request.get('/hydrants/stats')
+}
+// 压力曲线查询参数类型
+export interface PressureSeriesParams {
+  hydrantId?: number // 不传时返回全部消防栓平均压力
+  from: number // 毫秒时间戳
+  to: number
+  resolution?: '1m' | '1h' | '1d' | 'auto'
+}
+// 查询降采样后的压力曲线
+export const getPressureSeries = (params: PressureSeriesParams) => {
+  return request.get('/telemetry/series', { params })
+}
+// 消防栓增量变更类型（只包含变化的字段）
+export interface HydrantDelta {
+  id: number
+  version?: number
+  status?: string
+  pressure?: number
+  lng?: number
+  lat?: number
+  deleted?: boolean
+}
+// 订阅消防栓变更推送（SSE），返回EventSource，页面卸载时调用close()
+// 服务端全量重新加载后推送reset，此时增量已不完整，需要重新获取全部消防栓（onReset）
+export const subscribeHydrantChanges = (
+  onChange: (deltas: HydrantDelta[]) => void,
+  onReset?: () => void,
+) => {
+  const source = new EventSource('/api/hydrants/stream', {
+    withCredentials: true, // 携带Cookie，走后端Token校验
+  })
+  source.addEventListener('hydrants', (event) => {
+    onChange(JSON.parse((event as MessageEvent).data))
+  })
+  source.addEventListener('reset', () => {
+    onReset?.()
+  })
+  return source
+}
+// 批量编辑操作类型（update时未提供的字段保持不变）
+export interface HydrantOperation {
+  op: 'insert' | 'update' | 'delete'
+  id?: number
+  version?: number // 提供时做乐观锁校验
+  name?: string
+  currentStatus?: string
+  currentPressure?: number
+  managementUnit?: string
+  installationDate?: string
+  lng?: number
+  lat?: number
+}
+// 批量编辑消防栓，一次请求、一个事务，返回每个操作的结果
+export const editHydrantsBatch = (
+  operations: HydrantOperation[],
+  atomic = false,
+) => {
+  return request.post('/hydrants/batch', operations, { params: { atomic } })
+}
+// 矢量瓦片地址模板，用于mapbox的vector数据源：{ type: 'vector', tiles: [getVectorTileUrl(layerName)] }
+// 瓦片内图层名(source-layer)与layerName相同
+export const getVectorTileUrl = (layerName: string) => {
+  return `${window.location.origin}/api/tiles/${layerName}/{z}/{x}/{y}.mvt`
+}
+// 查询整个消防栓图层在某时刻（毫秒时间戳）的状态
+export const getHydrantsAt = (ts: number) => {
+  return request.get('/hydrants/history', { params: { ts } })
+}
+// 查询单个消防栓在某时刻的状态，当时不存在时data为null
+export const getHydrantAt = (id: number, ts: number) => {
+  return request.get(`/hydrants/history/${id}`, { params: { ts } })
+}
+// 查询单个消防栓在时间范围内的变更记录（op：I新增/U修改/D删除）
+export const getHydrantChanges = (id: number, from: number, to: number, limit = 100) => {
+  return request.get(`/hydrants/history/${id}/changes`, { params: { from, to, limit } })
+}
+// 当前未恢复的压力告警（rule：low/high/change/stuck）
+export const getActiveAlerts = () => {
+  return request.get('/alerts/active')
+}
+// 最近产生的压力告警（含已恢复的）
+export const getRecentAlerts = (limit = 100) => {
+  return request.get('/alerts/recent', { params: { limit } })
+}
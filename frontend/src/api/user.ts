@@ -14,6 +14,16 @@ export interface RegisterParams {
 export interface PageQueryParams {
   pageNum: number
   pageSize: number
+  name?: string // 用户名（模糊匹配）
+  role?: string // 权限
+}
+// 游标分页查询参数类型
+export interface CursorQueryParams {
+  cursor?: string // 上次返回的nextCursor或prevCursor，为空时查询第一页
+  pageSize: number
+  name?: string
+  role?: string
+  total?: 'none' | 'exact' | 'estimate' // 总数模式
 }
 // 用户信息类型
 export interface User {
@@ -47,6 +57,10 @@ export const getUserByid = (id: number) => {
 export const getUserPagingQuery = (params: PageQueryParams) => {
   return request.get('/users/page', { params })
 }
+// 游标分页查询接口
+export const getUserCursorPage = (params: CursorQueryParams) => {
+  return request.get('/users/cursor', { params })
+}
 // 删除用户接口
 export const deleteUser = (id: number) => {
   return request.delete(`/users/del/${id}`)
@@ -55,3 +69,20 @@ export const deleteUser = (id: number) => {
 export const updateUser = (data: User) => {
   return request.put(`/users/update`, data)
 }
+// 批量导入用户（CSV文件，表头：name,password,sex,birthDate,department,telephone,email,role）
+export const importUsers = (file: File) => {
+  const formData = new FormData()
+  formData.append('file', file)
+  return request.post('/users/import', formData, {
+    headers: { 'Content-Type': 'multipart/form-data' },
+    timeout: 600000, // 大文件导入耗时较长
+  })
+}
+// 导出用户CSV的下载地址（浏览器直接下载，不经过axios缓存整个文件）
+export const getUserExportUrl = (params: { name?: string; role?: string } = {}) => {
+  const query = new URLSearchParams()
+  if (params.name) query.append('name', params.name)
+  if (params.role) query.append('role', params.role)
+  const search = query.toString()
+  return `/api/users/export${search ? `?${search}` : ''}`
+}
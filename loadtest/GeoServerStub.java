@@ -0,0 +1,193 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 本地GeoServer替身
+ * 只实现前端用到的两个请求：WFS GetFeature返回录制的GeoJSON，WFS-T Transaction返回录制的事务响应
+ * 用法：java loadtest/GeoServerStub.java --port 8090 --dir loadtest/recordings [--delay-ms 20] [--features 10000]
+ * 地址：http://localhost:8090/geoserver/wfs，与LAYER_INFO.baseURL的路径一致
+ */
+public class GeoServerStub {
+    private static final Pattern INSERT = Pattern.compile("<wfs:Insert>");
+    private static final Pattern TYPE_NAME = Pattern.compile("<wfs:Insert>\\s*<([\\w:]+)");
+
+    private final Path dir; // 录制文件目录
+    private final long delayMs; // 模拟GeoServer处理耗时
+    private final int features; // 没有录制文件时生成的消防栓数量
+    private final Map<String, byte[]> cache = new ConcurrentHashMap<>(); // 图层名 -> 响应内容
+    private final AtomicInteger nextFid = new AtomicInteger(1_000_000); // 新增要素的ID
+
+    public GeoServerStub(Path dir, long delayMs, int features) {
+        this.dir = dir;
+        this.delayMs = delayMs;
+        this.features = features;
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = parseArgs(args);
+        int port = Integer.parseInt(options.getOrDefault("port", "8090"));
+        GeoServerStub stub = new GeoServerStub(Paths.get(options.getOrDefault("dir", "loadtest/recordings")),
+                Long.parseLong(options.getOrDefault("delay-ms", "0")),
+                Integer.parseInt(options.getOrDefault("features", "10000")));
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 1024);
+        server.createContext("/geoserver/wfs", stub::handle);
+        server.setExecutor(Executors.newFixedThreadPool(Integer.parseInt(options.getOrDefault("threads", "64"))));
+        server.start();
+        System.out.println("GeoServer替身已启动：http://localhost:" + port + "/geoserver/wfs");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (delayMs > 0) {
+                Thread.sleep(delayMs);
+            }
+            if ("POST".equals(exchange.getRequestMethod())) {
+                String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                send(exchange, 200, "application/xml", transaction(body));
+                return;
+            }
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            if (!"GetFeature".equalsIgnoreCase(query.get("request")) || query.get("typename") == null) {
+                send(exchange, 400, "text/plain", "只支持GetFeature和Transaction".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            String typeName = query.get("typename");
+            String layer = typeName.substring(typeName.indexOf(':') + 1);
+            byte[] content = cache.computeIfAbsent(layer, this::load);
+            if (content.length == 0) {
+                send(exchange, 404, "text/plain", ("没有图层" + layer + "的录制文件").getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            send(exchange, 200, "application/json;charset=UTF-8", content);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // 读取录制的GetFeature响应；消防栓图层没有录制文件时按--features生成
+    private byte[] load(String layer) {
+        Path file = dir.resolve(layer + ".json");
+        try {
+            if (Files.exists(file)) {
+                return Files.readAllBytes(file);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        if ("sdjzdx_FireHydranty_Point".equals(layer) && features > 0) {
+            return generate(layer, features);
+        }
+        return new byte[0];
+    }
+
+    // 生成与GeoServer输出格式相同的消防栓要素集合，范围与seed.sql一致
+    private static byte[] generate(String layer, int count) {
+        Random random = new Random(42);
+        String[] statuses = {"normal", "error", "repairing"};
+        StringBuilder json = new StringBuilder(count * 320);
+        json.append("{\"type\":\"FeatureCollection\",\"features\":[");
+        for (int i = 1; i <= count; i++) {
+            if (i > 1) {
+                json.append(',');
+            }
+            double r = random.nextDouble();
+            json.append(String.format(Locale.ROOT,
+                    "{\"type\":\"Feature\",\"id\":\"%s.%d\",\"geometry\":{\"type\":\"Point\",\"coordinates\":[%.6f,%.6f]},"
+                            + "\"geometry_name\":\"geom\",\"properties\":{\"Name\":\"XF-%05d\",\"currentStatus\":\"%s\","
+                            + "\"currentPressure\":%.3f,\"managementUnit\":\"管理单位%d\",\"installationDate\":\"2015-06-01Z\"}}",
+                    layer, i, 116.9 + random.nextDouble() * 0.2, 36.6 + random.nextDouble() * 0.1, i,
+                    statuses[r < 0.05 ? 1 : r < 0.08 ? 2 : 0], 0.15 + random.nextDouble() * 0.35, i % 10));
+        }
+        json.append("],\"totalFeatures\":").append(count).append(",\"numberMatched\":").append(count)
+                .append(",\"numberReturned\":").append(count)
+                .append(",\"crs\":{\"type\":\"name\",\"properties\":{\"name\":\"urn:ogc:def:crs:EPSG::4326\"}}}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // 事务响应：只有更新、删除时返回录制文件；有新增时按新增数量生成带FeatureId的响应
+    private byte[] transaction(String body) throws IOException {
+        Path file = dir.resolve("transaction.xml");
+        int inserts = count(INSERT, body);
+        if (inserts == 0 && Files.exists(file)) {
+            return Files.readAllBytes(file);
+        }
+        StringBuilder xml = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>"
+                + "<wfs:WFS_TransactionResponse version=\"1.0.0\" xmlns:wfs=\"http://www.opengis.net/wfs\""
+                + " xmlns:ogc=\"http://www.opengis.net/ogc\">");
+        if (inserts > 0) {
+            Matcher matcher = TYPE_NAME.matcher(body);
+            String layer = matcher.find() ? matcher.group(1) : "feature";
+            xml.append("<wfs:InsertResult>");
+            for (int i = 0; i < inserts; i++) {
+                xml.append("<ogc:FeatureId fid=\"").append(layer).append('.').append(nextFid.getAndIncrement()).append("\"/>");
+            }
+            xml.append("</wfs:InsertResult>");
+        }
+        xml.append("<wfs:TransactionResult><wfs:Status><wfs:SUCCESS/></wfs:Status></wfs:TransactionResult>")
+                .append("</wfs:WFS_TransactionResponse>");
+        return xml.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int count(Pattern pattern, String body) {
+        Matcher matcher = pattern.matcher(body);
+        int count = 0;
+        while (matcher.find()) {
+            count++;
+        }
+        return count;
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Access-Control-Allow-Origin", "*");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // 查询参数名统一转为小写（GeoServer参数名不区分大小写）
+    private static Map<String, String> parseQuery(String query) {
+        Map<String, String> result = new HashMap<>();
+        if (query == null) {
+            return result;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                result.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8).toLowerCase(Locale.ROOT),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return result;
+    }
+
+    // --name value 形式的命令行参数
+    static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        return options;
+    }
+}
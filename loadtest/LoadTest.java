@@ -0,0 +1,367 @@
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 宏观压测工具
+ * 每个场景单独运行：concurrency个虚拟用户循环发请求（闭环，收到响应后立即发下一个），
+ * 预热后统计duration秒内的吞吐量和p50/p99/p99.9延迟，可输出CSV并与上一版本的结果对比
+ * 用法：java loadtest/LoadTest.java --base http://localhost:8080 --geoserver http://localhost:8090/geoserver
+ *      --concurrency 32 --duration 30 --warmup 5 --scenarios all --report report.csv [--baseline last.csv]
+ */
+public class LoadTest {
+    // 压测数据范围，与seed.sql一致
+    private static final double MIN_LNG = 116.9;
+    private static final double MIN_LAT = 36.6;
+    private static final double LNG_SPAN = 0.2;
+    private static final double LAT_SPAN = 0.1;
+    private static final String HYDRANT_LAYER = "sdjzdx_FireHydranty_Point";
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final String base;
+    private final String geoserver;
+    private final String user;
+    private final String password;
+    private final int hydrants; // 消防栓ID范围1..hydrants
+    private final int users; // 用户ID范围1..users
+    private String cookie; // 登录后的Token Cookie，所有虚拟用户共用
+
+    public LoadTest(Map<String, String> options) {
+        this.base = options.getOrDefault("base", "http://localhost:8080");
+        this.geoserver = options.getOrDefault("geoserver", "http://localhost:8090/geoserver");
+        this.user = options.getOrDefault("user", "loadtest");
+        this.password = options.getOrDefault("password", "loadtest");
+        this.hydrants = Integer.parseInt(options.getOrDefault("hydrants", "10000"));
+        this.users = Integer.parseInt(options.getOrDefault("users", "100000"));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            options.put(args[i].replaceFirst("^--", ""), args[i + 1]);
+        }
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "16"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "5"));
+        LoadTest test = new LoadTest(options);
+        Map<String, Scenario> scenarios = test.scenarios();
+        List<String> names = new ArrayList<>(scenarios.keySet());
+        String selected = options.getOrDefault("scenarios", "all");
+        if (!"all".equals(selected)) {
+            names = Arrays.asList(selected.split(","));
+        }
+        if (names.stream().anyMatch(name -> !name.startsWith("wfs-get"))) {
+            test.login(); // 只压GeoServer替身时不需要后端
+        }
+        List<Result> results = new ArrayList<>();
+        for (String name : names) {
+            Scenario scenario = scenarios.get(name);
+            if (scenario == null) {
+                throw new IllegalArgumentException("未知场景：" + name + "，可选：" + scenarios.keySet());
+            }
+            System.out.printf("运行 %s：并发%d，预热%ds，统计%ds%n", name, concurrency, warmup, duration);
+            results.add(test.run(name, scenario, concurrency, warmup, duration));
+        }
+        Map<String, String[]> baseline = options.containsKey("baseline")
+                ? readReport(Paths.get(options.get("baseline"))) : Map.of();
+        print(results, baseline);
+        if (options.containsKey("report")) {
+            writeReport(Paths.get(options.get("report")), results, concurrency);
+            System.out.println("结果已写入 " + options.get("report"));
+        }
+    }
+
+    // 一次请求或一组请求（如WFS-T编辑后通知后端同步），返回是否成功
+    @FunctionalInterface
+    interface Scenario {
+        boolean execute(ThreadLocalRandom random) throws Exception;
+    }
+
+    // 场景列表：用户接口需要登录，消防栓接口对应前端的查询、编辑流程
+    private Map<String, Scenario> scenarios() {
+        Map<String, Scenario> scenarios = new LinkedHashMap<>();
+        scenarios.put("login", random -> ok(post("/api/users/login",
+                "{\"name\":\"" + user + "\",\"password\":\"" + password + "\"}", false)));
+        scenarios.put("user-get", random -> ok(get("/api/users/" + (1 + random.nextInt(users)))));
+        scenarios.put("users-page", random -> ok(get("/api/users/page?pageNum=" + (1 + random.nextInt(100)) + "&pageSize=10")));
+        scenarios.put("users-cursor", random -> ok(get("/api/users/cursor?pageSize=10")));
+        scenarios.put("hydrant-clusters", random -> {
+            double lng = MIN_LNG + random.nextDouble() * LNG_SPAN * 0.8;
+            double lat = MIN_LAT + random.nextDouble() * LAT_SPAN * 0.8;
+            return ok(get(String.format(Locale.ROOT,
+                    "/api/hydrants/clusters?minLng=%.5f&minLat=%.5f&maxLng=%.5f&maxLat=%.5f&zoom=%d",
+                    lng, lat, lng + LNG_SPAN * 0.2, lat + LAT_SPAN * 0.2, 12 + random.nextInt(7))));
+        });
+        scenarios.put("hydrant-stats", random -> ok(get("/api/hydrants/stats")));
+        scenarios.put("hydrant-nearest", random -> ok(get(String.format(Locale.ROOT, "/api/hydrants/nearest?lng=%.5f&lat=%.5f&k=5",
+                MIN_LNG + random.nextDouble() * LNG_SPAN, MIN_LAT + random.nextDouble() * LAT_SPAN))));
+        // 批量接口整体返回200时单个操作仍可能失败，要求该操作的status为ok
+        scenarios.put("hydrant-batch", random -> {
+            HttpResponse<String> response = post("/api/hydrants/batch", String.format(Locale.ROOT,
+                    "[{\"op\":\"update\",\"id\":%d,\"currentPressure\":%.3f}]",
+                    1 + random.nextInt(hydrants), 0.15 + random.nextDouble() * 0.35), true);
+            return ok(response) && response.body().contains("\"status\":\"ok\"");
+        });
+        // 设备上报：每次一批100条读数（随机消防栓，采集时间按接收时间记录），缓冲区满返回503时计为失败
+        scenarios.put("telemetry-ingest", random -> {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = 0; i < 100; i++) {
+                body.append(i == 0 ? "" : ",").append(String.format(Locale.ROOT, "{\"hydrantId\":%d,\"pressure\":%.3f}",
+                        1 + random.nextInt(hydrants), 0.15 + random.nextDouble() * 0.35));
+            }
+            return ok(post("/api/telemetry/readings", body.append(']').toString(), true));
+        });
+        // 随机消防栓最近24小时的压力曲线（自动选择分辨率）
+        scenarios.put("telemetry-series", random -> {
+            long to = System.currentTimeMillis();
+            return ok(get("/api/telemetry/series?hydrantId=" + (1 + random.nextInt(hydrants))
+                    + "&from=" + (to - 86400000L) + "&to=" + to + "&resolution=auto"));
+        });
+        scenarios.put("wfs-getfeature", random -> {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(geoserver
+                    + "/wfs?service=WFS&version=1.1.0&request=GetFeature&typeName=sdjzdx:" + HYDRANT_LAYER
+                    + "&outputFormat=application/json&srsName=urn:ogc:def:crs:EPSG::4326")).GET());
+            return response.statusCode() == 200 && response.body().startsWith("{");
+        });
+        // 与前端编辑流程相同：先向GeoServer提交WFS-T，再通知后端同步该要素
+        scenarios.put("wfs-edit", random -> {
+            int id = 1 + random.nextInt(hydrants);
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(geoserver + "/wfs"))
+                    .header("Content-Type", "text/xml")
+                    .POST(HttpRequest.BodyPublishers.ofString(updateXml(random, id))));
+            if (response.statusCode() != 200 || !response.body().contains("SUCCESS")) {
+                return false;
+            }
+            return ok(post("/api/hydrants/" + id + "/refresh", "", true));
+        });
+        // 经后端代理获取整个消防栓图层（并发请求合并、缓存压缩内容），与wfs-getfeature对比
+        scenarios.put("proxy-getfeature", random -> {
+            HttpResponse<byte[]> response = client.send(HttpRequest.newBuilder(URI.create(base + "/api/geoserver/" + HYDRANT_LAYER + "/features"))
+                    .header("Cookie", cookie)
+                    .header("Accept-Encoding", "gzip")
+                    .timeout(Duration.ofSeconds(30))
+                    .GET().build(), HttpResponse.BodyHandlers.ofByteArray());
+            return response.statusCode() == 200 && response.body().length > 0;
+        });
+        // 经后端代理提交WFS-T，由后端同步消防栓并使缓存失效
+        scenarios.put("proxy-edit", random -> {
+            HttpResponse<String> response = send(HttpRequest.newBuilder(URI.create(base + "/api/geoserver/wfs"))
+                    .header("Content-Type", "text/xml")
+                    .header("Cookie", cookie)
+                    .POST(HttpRequest.BodyPublishers.ofString(updateXml(random, 1 + random.nextInt(hydrants)))));
+            return response.statusCode() == 200 && response.body().contains("SUCCESS");
+        });
+        return scenarios;
+    }
+
+    // 修改单个消防栓压力的WFS-T事务，格式与前端EditPointFeaturesAPI相同
+    private static String updateXml(ThreadLocalRandom random, int id) {
+        return "<wfs:Transaction service=\"WFS\" version=\"1.0.0\" xmlns:wfs=\"http://www.opengis.net/wfs\""
+                + " xmlns:ogc=\"http://www.opengis.net/ogc\"><wfs:Update typeName=\"" + HYDRANT_LAYER + "\">"
+                + "<wfs:Property><wfs:Name>currentPressure</wfs:Name><wfs:Value>"
+                + String.format(Locale.ROOT, "%.3f", 0.15 + random.nextDouble() * 0.35) + "</wfs:Value></wfs:Property>"
+                + "<ogc:Filter><ogc:FeatureId fid=\"" + HYDRANT_LAYER + "." + id + "\"/></ogc:Filter>"
+                + "</wfs:Update></wfs:Transaction>";
+    }
+
+    // 登录一次，后续请求带上Token Cookie
+    private void login() throws IOException, InterruptedException {
+        HttpResponse<String> response = post("/api/users/login",
+                "{\"name\":\"" + user + "\",\"password\":\"" + password + "\"}", false);
+        if (!ok(response)) {
+            throw new IllegalStateException("登录失败：" + response.body());
+        }
+        cookie = response.headers().allValues("Set-Cookie").stream()
+                .map(value -> value.split(";", 2)[0])
+                .reduce((a, b) -> a + "; " + b)
+                .orElseThrow(() -> new IllegalStateException("登录响应中没有Cookie"));
+    }
+
+    private Result run(String name, Scenario scenario, int concurrency, int warmup, int duration) throws InterruptedException {
+        long start = System.nanoTime();
+        long measureFrom = start + warmup * 1_000_000_000L;
+        long end = measureFrom + duration * 1_000_000_000L;
+        Recorder[] recorders = new Recorder[concurrency];
+        Thread[] threads = new Thread[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            Recorder recorder = new Recorder();
+            recorders[i] = recorder;
+            threads[i] = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long now;
+                while ((now = System.nanoTime()) < end) {
+                    boolean success;
+                    try {
+                        success = scenario.execute(random);
+                    } catch (Exception e) {
+                        success = false;
+                        recorder.lastError = e.toString();
+                    }
+                    long done = System.nanoTime();
+                    if (now >= measureFrom) {
+                        recorder.record(done - now, success);
+                    }
+                }
+            }, "vu-" + i);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return Result.of(name, recorders, duration);
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(base + path)).header("Cookie", cookie).GET());
+    }
+
+    private HttpResponse<String> post(String path, String json, boolean withCookie) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(base + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (withCookie) {
+            builder.header("Cookie", cookie);
+        }
+        return send(builder);
+    }
+
+    private HttpResponse<String> send(HttpRequest.Builder builder) throws IOException, InterruptedException {
+        return client.send(builder.timeout(Duration.ofSeconds(30)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    // 后端接口HTTP状态为200且响应体code为200才算成功
+    private static boolean ok(HttpResponse<String> response) {
+        return response.statusCode() == 200 && response.body().contains("\"code\":200");
+    }
+
+    // 单个虚拟用户的延迟记录（纳秒），只由该线程写入
+    static final class Recorder {
+        long[] latencies = new long[1 << 14];
+        int count;
+        long errors;
+        volatile String lastError;
+
+        void record(long nanos, boolean success) {
+            if (!success) {
+                errors++;
+                return;
+            }
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    // 一个场景的统计结果，延迟单位毫秒
+    static final class Result {
+        String name;
+        long requests;
+        long errors;
+        double throughput;
+        double p50;
+        double p99;
+        double p999;
+        double max;
+        String lastError;
+
+        static Result of(String name, Recorder[] recorders, int duration) {
+            int total = 0;
+            Result result = new Result();
+            result.name = name;
+            for (Recorder recorder : recorders) {
+                total += recorder.count;
+                result.errors += recorder.errors;
+                if (recorder.lastError != null) {
+                    result.lastError = recorder.lastError;
+                }
+            }
+            long[] all = new long[total];
+            int offset = 0;
+            for (Recorder recorder : recorders) {
+                System.arraycopy(recorder.latencies, 0, all, offset, recorder.count);
+                offset += recorder.count;
+            }
+            Arrays.sort(all);
+            result.requests = total + result.errors;
+            result.throughput = (double) total / duration;
+            result.p50 = percentile(all, 0.50);
+            result.p99 = percentile(all, 0.99);
+            result.p999 = percentile(all, 0.999);
+            result.max = total == 0 ? 0 : all[total - 1] / 1e6;
+            return result;
+        }
+
+        // 最近秩法：第ceil(p*n)个值
+        static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1e6;
+        }
+    }
+
+    private static void print(List<Result> results, Map<String, String[]> baseline) {
+        System.out.println();
+        System.out.printf("%-18s %10s %8s %12s %10s %10s %10s %10s%s%n", "场景", "请求数", "失败", "吞吐(次/秒)",
+                "p50(ms)", "p99(ms)", "p99.9(ms)", "max(ms)", baseline.isEmpty() ? "" : "   对比基线(吞吐/p99)");
+        for (Result r : results) {
+            String diff = "";
+            String[] old = baseline.get(r.name);
+            if (old != null) {
+                diff = String.format(Locale.ROOT, "   %+.1f%% / %+.1f%%",
+                        change(Double.parseDouble(old[3]), r.throughput), change(Double.parseDouble(old[5]), r.p99));
+            }
+            System.out.printf(Locale.ROOT, "%-18s %10d %8d %12.1f %10.2f %10.2f %10.2f %10.2f%s%n",
+                    r.name, r.requests, r.errors, r.throughput, r.p50, r.p99, r.p999, r.max, diff);
+            if (r.errors > 0 && r.lastError != null) {
+                System.out.println("    最近一次异常：" + r.lastError);
+            }
+        }
+    }
+
+    private static double change(double before, double after) {
+        return before == 0 ? 0 : (after - before) * 100 / before;
+    }
+
+    // CSV列：scenario,concurrency,requests,throughput,p50_ms,p99_ms,p999_ms,max_ms,errors
+    private static void writeReport(Path path, List<Result> results, int concurrency) throws IOException {
+        try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            out.println("scenario,concurrency,requests,throughput,p50_ms,p99_ms,p999_ms,max_ms,errors");
+            for (Result r : results) {
+                out.printf(Locale.ROOT, "%s,%d,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%d%n",
+                        r.name, concurrency, r.requests, r.throughput, r.p50, r.p99, r.p999, r.max, r.errors);
+            }
+        }
+    }
+
+    private static Map<String, String[]> readReport(Path path) throws IOException {
+        Map<String, String[]> rows = new HashMap<>();
+        List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        for (String line : lines.subList(1, lines.size())) {
+            String[] columns = line.split(",");
+            rows.put(columns[0], columns);
+        }
+        return rows;
+    }
+}
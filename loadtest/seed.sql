@@ -0,0 +1,101 @@
+-- 压测用本地数据库初始化脚本（PostgreSQL 12+，需要PostGIS扩展）
+-- 用法：createdb FireHydrantLoadTest && psql -d FireHydrantLoadTest -f loadtest/seed.sql
+-- 表名、字段与线上GeoServer发布的图层保持一致，数据随机生成，可重复执行（会清空已有数据）
+CREATE EXTENSION IF NOT EXISTS postgis;
+
+-- 用户表
+CREATE TABLE IF NOT EXISTS sys_user (
+    id          serial PRIMARY KEY,
+    name        varchar(64) NOT NULL UNIQUE,
+    password    varchar(128) NOT NULL,
+    sex         varchar(8),
+    birth_date  date,
+    department  varchar(64),
+    telephone   varchar(32),
+    email       varchar(128),
+    role        varchar(32),
+    create_time timestamp DEFAULT now()
+);
+
+-- 消防栓点图层
+CREATE TABLE IF NOT EXISTS "sdjzdx_FireHydranty_Point" (
+    "id"               serial PRIMARY KEY,
+    "Name"             varchar(64),
+    "currentStatus"    varchar(16),
+    "currentPressure"  double precision,
+    "managementUnit"   varchar(64),
+    "installationDate" date,
+    geom               geometry(Point, 4326)
+);
+
+-- 道路线图层
+CREATE TABLE IF NOT EXISTS "sdjzdx_Road_Line" (
+    "id" serial PRIMARY KEY,
+    geom geometry(LineString, 4326)
+);
+
+-- 建筑物点图层
+CREATE TABLE IF NOT EXISTS "sdjzdx_Buildings_Point" (
+    "id"   serial PRIMARY KEY,
+    "Name" varchar(64),
+    geom   geometry(Point, 4326)
+);
+
+-- 行政区面图层（矢量瓦片接口使用）
+CREATE TABLE IF NOT EXISTS "sdjzdx_Boundary_Poly" (
+    "id" serial PRIMARY KEY,
+    geom geometry(Polygon, 4326)
+);
+
+TRUNCATE sys_user, "sdjzdx_FireHydranty_Point", "sdjzdx_Road_Line", "sdjzdx_Buildings_Point", "sdjzdx_Boundary_Poly"
+    RESTART IDENTITY;
+
+-- 固定随机种子，每次生成相同的数据，不同版本的压测结果才能对比
+SELECT setseed(0.42);
+
+-- 压测账号 loadtest / loadtest，以及10万个普通用户（分页、导出等接口使用）
+INSERT INTO sys_user (name, password, role) VALUES ('loadtest', 'loadtest', 'admin');
+INSERT INTO sys_user (name, password, sex, department, telephone, email, role)
+SELECT 'user' || i, 'password', CASE WHEN i % 2 = 0 THEN '男' ELSE '女' END,
+       '部门' || (i % 20), '1380000' || lpad((i % 10000)::text, 4, '0'), 'user' || i || '@example.com',
+       CASE WHEN i % 50 = 0 THEN 'admin' ELSE 'user' END
+FROM generate_series(1, 100000) AS i;
+
+-- 范围：济南市区附近约20km x 10km
+-- 道路：200 x 100的网格，相邻交点相连
+INSERT INTO "sdjzdx_Road_Line" (geom)
+SELECT ST_MakeLine(ST_MakePoint(116.9 + x * 0.002, 36.6 + y * 0.001), ST_MakePoint(116.9 + (x + 1) * 0.002, 36.6 + y * 0.001))
+FROM generate_series(0, 99) AS x, generate_series(0, 99) AS y;
+INSERT INTO "sdjzdx_Road_Line" (geom)
+SELECT ST_MakeLine(ST_MakePoint(116.9 + x * 0.002, 36.6 + y * 0.001), ST_MakePoint(116.9 + x * 0.002, 36.6 + (y + 1) * 0.001))
+FROM generate_series(0, 99) AS x, generate_series(0, 99) AS y;
+
+-- 消防栓：1万个，约5%故障、3%维修中
+INSERT INTO "sdjzdx_FireHydranty_Point" ("Name", "currentStatus", "currentPressure", "managementUnit", "installationDate", geom)
+SELECT 'XF-' || lpad(i::text, 5, '0'),
+       CASE WHEN r < 0.05 THEN 'error' WHEN r < 0.08 THEN 'repairing' ELSE 'normal' END,
+       round((0.15 + random() * 0.35)::numeric, 3),
+       '管理单位' || (i % 10),
+       date '2010-01-01' + (i % 5000),
+       ST_SetSRID(ST_MakePoint(116.9 + random() * 0.2, 36.6 + random() * 0.1), 4326)
+FROM (SELECT i, random() AS r FROM generate_series(1, 10000) AS i) AS t;
+
+-- 建筑物：5万个
+INSERT INTO "sdjzdx_Buildings_Point" ("Name", geom)
+SELECT '建筑' || i, ST_SetSRID(ST_MakePoint(116.9 + random() * 0.2, 36.6 + random() * 0.1), 4326)
+FROM generate_series(1, 50000) AS i;
+
+INSERT INTO "sdjzdx_Boundary_Poly" (geom)
+VALUES (ST_MakeEnvelope(116.9, 36.6, 117.1, 36.7, 4326));
+
+CREATE INDEX IF NOT EXISTS idx_hydrant_geom ON "sdjzdx_FireHydranty_Point" USING gist (geom);
+CREATE INDEX IF NOT EXISTS idx_road_geom ON "sdjzdx_Road_Line" USING gist (geom);
+CREATE INDEX IF NOT EXISTS idx_building_geom ON "sdjzdx_Buildings_Point" USING gist (geom);
+CREATE INDEX IF NOT EXISTS idx_boundary_geom ON "sdjzdx_Boundary_Poly" USING gist (geom);
+ANALYZE;
+
+-- 后端其他功能使用的表
+\ir ../backend/src/main/resources/db/telemetry.sql
+\ir ../backend/src/main/resources/db/hydrant_history.sql
+\ir ../backend/src/main/resources/db/cluster_event.sql
+\ir ../backend/src/main/resources/db/hydrant_version.sql
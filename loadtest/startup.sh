@@ -0,0 +1,119 @@
+#!/usr/bin/env bash
+# 启动时间测量：对每种启动方式重复启动RUNS次，记录从启动进程到收到第一个HTTP响应的时间，以及此时的常驻内存（RSS）
+# 用法：loadtest/startup.sh [jar] [aot] [cds] [native]   （不带参数时测量已构建的全部方式）
+# 构建：
+#   jar/aot/cds：cd backend && mvn -P aot package -DskipTests   （产物在backend/target/application）
+#   native：     cd backend && mvn -P native native:compile -DskipTests   （产物为backend/target/backend）
+# 环境变量：
+#   PORT     后端端口，默认8080
+#   RUNS     每种方式的启动次数，取中位数，默认5
+#   REPORT   结果CSV，默认startup-report.csv
+#   SPRING_DATASOURCE_URL 等Spring配置可直接通过环境变量传给后端（启动后加载数据需要数据库，建议连接压测库）
+set -euo pipefail
+
+ROOT=$(cd "$(dirname "$0")/.." && pwd)
+TARGET="$ROOT/backend/target"
+APP="$TARGET/application"
+PORT=${PORT:-8080}
+RUNS=${RUNS:-5}
+REPORT=${REPORT:-startup-report.csv}
+URL="http://localhost:$PORT/actuator/health"
+
+JAR=$(cd "$APP" 2>/dev/null && ls backend-*.jar 2>/dev/null | head -n 1 || true)
+
+# 各方式的启动命令（在target/application目录下执行，类路径与训练运行一致）
+command_for() {
+  case "$1" in
+    jar) echo "java -jar $JAR" ;;
+    aot) echo "java -Dspring.aot.enabled=true -jar $JAR" ;;
+    cds)
+      if [ -f "$APP/application.aot" ]; then
+        echo "java -XX:AOTCache=application.aot -Dspring.aot.enabled=true -jar $JAR"
+      else
+        echo "java -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true -jar $JAR"
+      fi ;;
+    native) echo "$TARGET/backend" ;;
+  esac
+}
+
+available() {
+  case "$1" in
+    jar|aot) [ -n "$JAR" ] ;;
+    cds) [ -n "$JAR" ] && { [ -f "$APP/application.jsa" ] || [ -f "$APP/application.aot" ]; } ;;
+    native) [ -x "$TARGET/backend" ] ;;
+    *) echo "未知方式：$1（可选 jar aot cds native）" >&2; exit 1 ;;
+  esac
+}
+
+now_ms() {
+  date +%s%3N
+}
+
+# 中位数
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+# 启动一次，输出 "毫秒 RSS(KB)"
+measure() {
+  local cmd=$1 start pid code elapsed rss
+  if curl -s -o /dev/null "$URL"; then
+    echo "端口$PORT已被占用" >&2
+    exit 1
+  fi
+  start=$(now_ms)
+  (cd "$APP" 2>/dev/null || cd "$TARGET"; exec $cmd --server.port="$PORT") > "$TARGET/startup-$mode.log" 2>&1 &
+  pid=$!
+  while true; do
+    code=$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)
+    if [ "$code" != "000" ]; then
+      break
+    fi
+    if ! kill -0 "$pid" 2>/dev/null; then
+      echo "启动失败，日志见 $TARGET/startup-$mode.log" >&2
+      exit 1
+    fi
+    sleep 0.01
+  done
+  elapsed=$(( $(now_ms) - start ))
+  rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+  kill "$pid"
+  wait "$pid" 2>/dev/null || true
+  echo "$elapsed $rss"
+}
+
+modes=("$@")
+if [ ${#modes[@]} -eq 0 ]; then
+  for mode in jar aot cds native; do
+    if available "$mode"; then
+      modes+=("$mode")
+    fi
+  done
+fi
+if [ ${#modes[@]} -eq 0 ]; then
+  echo "没有可测量的构建产物，请先执行 mvn -P aot package 或 mvn -P native native:compile" >&2
+  exit 1
+fi
+
+echo "mode,runs,ttfr_ms,rss_mb" > "$REPORT"
+printf '%-8s %6s %14s %10s\n' "方式" "次数" "首个响应(ms)" "RSS(MB)"
+for mode in "${modes[@]}"; do
+  if ! available "$mode"; then
+    echo "跳过$mode：没有构建产物" >&2
+    continue
+  fi
+  cmd=$(command_for "$mode")
+  times=()
+  rsses=()
+  for ((i = 1; i <= RUNS; i++)); do
+    read -r t r < <(measure "$cmd")
+    times+=("$t")
+    rsses+=("$r")
+  done
+  ttfr=$(printf '%s\n' "${times[@]}" | median)
+  rss=$(printf '%s\n' "${rsses[@]}" | median)
+  rss_mb=$(awk -v kb="$rss" 'BEGIN { printf "%.1f", kb / 1024 }')
+  printf '%-8s %6d %14d %10s\n' "$mode" "$RUNS" "$ttfr" "$rss_mb"
+  echo "$mode,$RUNS,$ttfr,$rss_mb" >> "$REPORT"
+done
+echo "结果已写入 $REPORT"